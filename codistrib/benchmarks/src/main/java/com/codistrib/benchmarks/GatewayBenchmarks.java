@@ -0,0 +1,39 @@
+package com.codistrib.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Point d'entrée : java -jar target/benchmarks.jar [options JMH]
+ *
+ * Lance tous les benchmarks (ou ceux filtrés par les options JMH, ex:
+ * "jwtAuthFilter") avec le profiler GC, pour obtenir ops/s et octets
+ * alloués par opération.
+ *
+ * Ex: java -jar target/benchmarks.jar fullChain -rf json -rff result.json
+ */
+public final class GatewayBenchmarks {
+
+    private GatewayBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(GatewayFilterBenchmark.class.getSimpleName());
+        }
+        Options options = builder.build();
+
+        new Runner(options).run();
+    }
+}
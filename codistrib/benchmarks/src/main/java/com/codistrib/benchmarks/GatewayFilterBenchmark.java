@@ -0,0 +1,85 @@
+package com.codistrib.benchmarks;
+
+import com.codistrib.apigateway.security.RouteAccess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit (ops/s) de chaque filtre et de la chaîne complète.
+ *
+ * Chaque invocation traite la requête suivante du mélange de
+ * {@link GatewayFixture}. "baseline" mesure la seule création de l'échange
+ * simulé, incluse dans tous les autres résultats.
+ *
+ * Le taux d'allocation (gc.alloc.rate.norm, octets/op) est ajouté par le
+ * profiler GC activé dans {@link GatewayBenchmarks}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class GatewayFilterBenchmark {
+
+    /**
+     * Position dans le mélange de requêtes, propre à chaque thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int index;
+
+        GatewayFixture.RequestSpec next(GatewayFixture fixture) {
+            return fixture.requests[index++ & (GatewayFixture.REQUEST_COUNT - 1)];
+        }
+    }
+
+    @Benchmark
+    public MockServerWebExchange baseline(GatewayFixture fixture, Cursor cursor) {
+        return GatewayFixture.exchange(cursor.next(fixture));
+    }
+
+    @Benchmark
+    public RouteAccess routeValidator(GatewayFixture fixture, Cursor cursor) {
+        GatewayFixture.RequestSpec spec = cursor.next(fixture);
+        return fixture.routeValidator.resolve(spec.method(), spec.path());
+    }
+
+    @Benchmark
+    public MockServerWebExchange rateLimitFilter(GatewayFixture fixture, Cursor cursor) {
+        MockServerWebExchange exchange = GatewayFixture.exchange(cursor.next(fixture));
+        GatewayFixture.run(fixture.rateLimitFilter, exchange);
+        return exchange;
+    }
+
+    @Benchmark
+    public MockServerWebExchange jwtAuthFilter(GatewayFixture fixture, Cursor cursor) {
+        MockServerWebExchange exchange = GatewayFixture.exchange(cursor.next(fixture));
+        GatewayFixture.run(fixture.jwtAuthFilter, exchange);
+        return exchange;
+    }
+
+    @Benchmark
+    public MockServerWebExchange loggingFilter(GatewayFixture fixture, Cursor cursor) {
+        MockServerWebExchange exchange = GatewayFixture.exchange(cursor.next(fixture));
+        GatewayFixture.run(fixture.loggingFilter, exchange);
+        return exchange;
+    }
+
+    @Benchmark
+    public MockServerWebExchange fullChain(GatewayFixture fixture, Cursor cursor) {
+        MockServerWebExchange exchange = GatewayFixture.exchange(cursor.next(fixture));
+        fixture.runChain(exchange);
+        return exchange;
+    }
+}
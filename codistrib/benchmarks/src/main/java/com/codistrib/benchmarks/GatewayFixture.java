@@ -0,0 +1,284 @@
+package com.codistrib.benchmarks;
+
+import com.codistrib.apigateway.config.LoadSheddingProperties;
+import com.codistrib.apigateway.config.RateLimitProperties;
+import com.codistrib.apigateway.filters.JwtAuthFilter;
+import com.codistrib.apigateway.filters.LoggingFilter;
+import com.codistrib.apigateway.filters.RateLimitFilter;
+import com.codistrib.apigateway.logging.AccessLogWriter;
+import com.codistrib.apigateway.ratelimit.TwoTierRateLimiter;
+import com.codistrib.apigateway.security.JwtUtil;
+import com.codistrib.apigateway.security.RevocationList;
+import com.codistrib.apigateway.security.RouteValidator;
+import com.codistrib.apigateway.shedding.PriorityClassifier;
+import com.codistrib.apigateway.shedding.RequestPriority;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.server.handler.DefaultWebFilterChain;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.SecretKey;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Filtres de la gateway construits hors de Spring, avec la configuration
+ * de application.yml, un Redis en mémoire et un mélange réaliste de requêtes.
+ *
+ * Mélange (sur {@link #REQUEST_COUNT} requêtes pré-générées) :
+ * - 40 % GET /api/v1/alerts/helper/{id} (HELPER)
+ * - 20 % GET /api/v1/users/{id} (tous rôles)
+ * - 10 % POST /api/v1/alerts/create (PERSON_DI, urgence)
+ * - 10 % GET /api/v1/admin/** (ADMINISTRATOR)
+ * - 10 % POST /api/v1/auth/login (publique)
+ * -  5 % rôle insuffisant (403)
+ * -  5 % token invalide (401)
+ *
+ * Les tokens proviennent d'un pool de {@link #USER_COUNT} utilisateurs (comme
+ * des sessions mobiles qui réutilisent le même token).
+ */
+@State(Scope.Benchmark)
+public class GatewayFixture {
+
+    static final int REQUEST_COUNT = 1 << 14;
+    static final int USER_COUNT = 1_000;
+    static final int CLIENT_IP_COUNT = 500;
+
+    private static final String SECRET = "benchmark-secret-key-benchmark-secret-key-0123456789";
+
+    /**
+     * Fin de chaîne : le handler ne fait rien.
+     */
+    static final WebFilterChain TERMINAL = exchange -> Mono.empty();
+
+    RateLimitFilter rateLimitFilter;
+    JwtAuthFilter jwtAuthFilter;
+    RouteValidator routeValidator;
+    LoggingFilter loggingFilter;
+    List<WebFilter> chain;
+
+    RequestSpec[] requests;
+
+    private AccessLogWriter accessLogWriter;
+
+    /**
+     * Une requête du mélange.
+     */
+    record RequestSpec(HttpMethod method, String path, String authorization, InetSocketAddress client) {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InMemoryRedis redis = new InMemoryRedis();
+
+        // Sécurité
+        JwtUtil jwtUtil = new JwtUtil(meterRegistry);
+        ReflectionTestUtils.setField(jwtUtil, "secretKeyString", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "cacheEnabled", true);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxTtl", Duration.ofMinutes(15));
+        jwtUtil.init();
+
+        routeValidator = new RouteValidator();
+        routeValidator.setPublicRoutes(List.of(
+            "/api/v1/auth/login",
+            "/api/v1/auth/register",
+            "/api/v1/auth/refresh",
+            "/api/v1/auth/forgot-password",
+            "/actuator/health"));
+        routeValidator.setRoleRoutes(Map.of(
+            "ADMINISTRATOR", List.of("/api/v1/admin/**", "/actuator/**", "/api/v1/users/all", "/api/v1/users/*/role"),
+            "HELPER", List.of("/api/v1/alerts/*/assign", "/api/v1/alerts/*/resolve", "/api/v1/helpers/availability"),
+            "PERSON_DI", List.of("/api/v1/alerts/create", "/api/v1/locations/share", "/api/v1/helpers/available")));
+        routeValidator.compile();
+
+        RevocationList revocationList = new RevocationList(redis, meterRegistry);
+        ReflectionTestUtils.setField(revocationList, "enabled", false);
+        ReflectionTestUtils.setField(revocationList, "expectedInsertions", 100_000);
+        ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(revocationList, "resyncInterval", Duration.ofMinutes(5));
+        revocationList.init();
+
+        jwtAuthFilter = new JwtAuthFilter(jwtUtil, routeValidator, revocationList);
+        ReflectionTestUtils.setField(jwtAuthFilter, "authHeader", "Authorization");
+        ReflectionTestUtils.setField(jwtAuthFilter, "tokenPrefix", "Bearer ");
+
+        // Rate limiting
+        LoadSheddingProperties sheddingProperties = new LoadSheddingProperties();
+        LoadSheddingProperties.Route emergency = new LoadSheddingProperties.Route();
+        emergency.setPattern("POST /api/v1/alerts/create");
+        emergency.setPriority(RequestPriority.EMERGENCY);
+        sheddingProperties.setRoutes(List.of(emergency));
+        PriorityClassifier classifier = new PriorityClassifier(sheddingProperties, jwtUtil, revocationList);
+        ReflectionTestUtils.setField(classifier, "authHeader", "Authorization");
+        ReflectionTestUtils.setField(classifier, "tokenPrefix", "Bearer ");
+        classifier.init();
+
+        TwoTierRateLimiter rateLimiter = new TwoTierRateLimiter(redis, tokenBucketScript(), meterRegistry);
+        ReflectionTestUtils.setField(rateLimiter, "leaseSize", 10);
+        ReflectionTestUtils.setField(rateLimiter, "leaseTtl", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(rateLimiter, "replicas", 1);
+        ReflectionTestUtils.setField(rateLimiter, "redisTimeout", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(rateLimiter, "redisRetryAfter", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(rateLimiter, "maxKeys", 100_000L);
+        rateLimiter.init();
+
+        RateLimitProperties rateLimitProperties = new RateLimitProperties();
+        RateLimitProperties.RoutePolicy login = new RateLimitProperties.RoutePolicy();
+        login.setId("auth-login");
+        login.setPattern("/api/v1/auth/login");
+        login.setRequestsPerSecond(1);
+        login.setBurstCapacity(5);
+        rateLimitProperties.setRoutes(List.of(login));
+
+        rateLimitFilter = new RateLimitFilter(rateLimiter, rateLimitProperties, classifier);
+        ReflectionTestUtils.setField(rateLimitFilter, "rateLimitEnabled", true);
+        // Limite par défaut élevée : on mesure surtout le chemin "autorisé",
+        // la route de login (1/s) couvre le chemin "refusé"
+        ReflectionTestUtils.setField(rateLimitFilter, "requestsPerSecond", 1_000_000);
+        ReflectionTestUtils.setField(rateLimitFilter, "burstCapacity", 2_000_000);
+        rateLimitFilter.init();
+
+        // Journal d'accès
+        accessLogWriter = new AccessLogWriter(meterRegistry);
+        ReflectionTestUtils.setField(accessLogWriter, "enabled", true);
+        ReflectionTestUtils.setField(accessLogWriter, "bufferSize", 8192);
+        accessLogWriter.start();
+        loggingFilter = new LoggingFilter(accessLogWriter);
+
+        // Même ordre que dans la gateway
+        chain = List.of(rateLimitFilter, jwtAuthFilter, loggingFilter);
+
+        requests = generateRequests();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        accessLogWriter.stop();
+    }
+
+    /**
+     * Nouvel échange (les échanges sont mutables : un par invocation).
+     */
+    static MockServerWebExchange exchange(RequestSpec spec) {
+        MockServerHttpRequest.BaseBuilder<?> builder = MockServerHttpRequest
+            .method(spec.method(), spec.path())
+            .remoteAddress(spec.client());
+        if (spec.authorization() != null) {
+            builder.header("Authorization", spec.authorization());
+        }
+        return MockServerWebExchange.from(builder);
+    }
+
+    /**
+     * Exécute un filtre seul, jusqu'à la fin de chaîne.
+     */
+    static void run(WebFilter filter, MockServerWebExchange exchange) {
+        filter.filter(exchange, TERMINAL).block();
+    }
+
+    /**
+     * Exécute toute la chaîne de filtres.
+     */
+    void runChain(MockServerWebExchange exchange) {
+        new DefaultWebFilterChain(e -> Mono.empty(), chain).filter(exchange).block();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static RedisScript<List<Long>> tokenBucketScript() {
+        // Le contenu est ignoré par le Redis en mémoire
+        return (RedisScript) RedisScript.of("return {}", List.class);
+    }
+
+    private static RequestSpec[] generateRequests() {
+        SplittableRandom random = new SplittableRandom(42);
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+        List<String> helperTokens = new ArrayList<>();
+        List<String> personTokens = new ArrayList<>();
+        List<String> adminTokens = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            helperTokens.add(token(key, "helper-" + i, "ROLE_HELPER"));
+            personTokens.add(token(key, "person-" + i, "ROLE_PERSON_DI"));
+            if (i % 50 == 0) {
+                adminTokens.add(token(key, "admin-" + i, "ROLE_ADMINISTRATOR"));
+            }
+        }
+
+        InetSocketAddress[] clients = new InetSocketAddress[CLIENT_IP_COUNT];
+        for (int i = 0; i < CLIENT_IP_COUNT; i++) {
+            clients[i] = new InetSocketAddress("10.0." + (i / 250) + "." + (i % 250 + 1), 40_000 + i);
+        }
+
+        RequestSpec[] specs = new RequestSpec[REQUEST_COUNT];
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            int user = random.nextInt(USER_COUNT);
+            InetSocketAddress client = clients[random.nextInt(CLIENT_IP_COUNT)];
+            int bucket = random.nextInt(100);
+
+            if (bucket < 40) {
+                specs[i] = new RequestSpec(HttpMethod.GET, "/api/v1/alerts/helper/helper-" + user,
+                    bearer(helperTokens.get(user)), client);
+            } else if (bucket < 60) {
+                String token = random.nextBoolean() ? helperTokens.get(user) : personTokens.get(user);
+                specs[i] = new RequestSpec(HttpMethod.GET, "/api/v1/users/user-" + user, bearer(token), client);
+            } else if (bucket < 70) {
+                specs[i] = new RequestSpec(HttpMethod.POST, "/api/v1/alerts/create",
+                    bearer(personTokens.get(user)), client);
+            } else if (bucket < 80) {
+                specs[i] = new RequestSpec(HttpMethod.GET, "/api/v1/admin/stats/alerts",
+                    bearer(adminTokens.get(random.nextInt(adminTokens.size()))), client);
+            } else if (bucket < 90) {
+                specs[i] = new RequestSpec(HttpMethod.POST, "/api/v1/auth/login", null, client);
+            } else if (bucket < 95) {
+                // HELPER sur une route PERSON_DI -> 403
+                specs[i] = new RequestSpec(HttpMethod.POST, "/api/v1/alerts/create",
+                    bearer(helperTokens.get(user)), client);
+            } else {
+                specs[i] = new RequestSpec(HttpMethod.GET, "/api/v1/alerts/helper/helper-" + user,
+                    bearer(helperTokens.get(user) + "x"), client);
+            }
+        }
+        return specs;
+    }
+
+    private static String token(SecretKey key, String userId, String role) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+            .subject(userId)
+            .id(UUID.randomUUID().toString())
+            .claim("role", role)
+            .claim("email", userId + "@codistrib.test")
+            .claim("username", userId)
+            .issuedAt(Date.from(now))
+            .expiration(Date.from(now.plus(Duration.ofHours(2))))
+            .signWith(key)
+            .compact();
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+}
@@ -0,0 +1,92 @@
+package com.codistrib.benchmarks;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReactiveRedisClusterConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remplaçant en mémoire de Redis pour les benchmarks.
+ *
+ * Seul le script token bucket (scripts/token_bucket.lua) est utilisé sur le
+ * chemin des requêtes : il est réimplémenté ici avec la même sémantique
+ * (remplissage, lots partiels, délai avant nouvel essai). Aucune autre
+ * commande n'est disponible.
+ */
+class InMemoryRedis extends ReactiveStringRedisTemplate {
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    InMemoryRedis() {
+        super(new UnusedConnectionFactory());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> execute(RedisScript<T> script, List<String> keys, List<?> args) {
+        double rate = Double.parseDouble(args.get(0).toString());
+        double capacity = Double.parseDouble(args.get(1).toString());
+        long requested = Long.parseLong(args.get(2).toString());
+
+        Bucket bucket = buckets.computeIfAbsent(keys.get(0), k -> new Bucket(capacity));
+        return Flux.just((T) bucket.take(rate, capacity, requested, System.currentTimeMillis()));
+    }
+
+    /**
+     * Même calcul que token_bucket.lua.
+     */
+    private static final class Bucket {
+
+        private double tokens;
+        private long ts;
+
+        private Bucket(double capacity) {
+            this.tokens = capacity;
+            this.ts = System.currentTimeMillis();
+        }
+
+        private synchronized List<Long> take(double rate, double capacity, long requested, long now) {
+            long elapsed = Math.max(0, now - ts);
+            tokens = Math.min(capacity, tokens + elapsed * rate / 1000);
+            ts = now;
+
+            long granted = Math.min(requested, (long) Math.floor(tokens));
+            long retryAfter = 0;
+            if (granted >= 1) {
+                tokens -= granted;
+            } else {
+                granted = 0;
+                retryAfter = (long) Math.ceil((1 - tokens) * 1000 / rate);
+            }
+            return List.of(granted, (long) Math.floor(tokens), retryAfter);
+        }
+    }
+
+    /**
+     * Le template exige une factory ; elle n'est jamais appelée.
+     */
+    private static final class UnusedConnectionFactory implements ReactiveRedisConnectionFactory {
+
+        @Override
+        public ReactiveRedisConnection getReactiveConnection() {
+            throw new UnsupportedOperationException("Redis en mémoire : connexion indisponible");
+        }
+
+        @Override
+        public ReactiveRedisClusterConnection getReactiveClusterConnection() {
+            throw new UnsupportedOperationException("Redis en mémoire : connexion indisponible");
+        }
+
+        @Override
+        public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+            return null;
+        }
+    }
+}
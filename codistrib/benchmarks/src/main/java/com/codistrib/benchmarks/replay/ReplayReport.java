@@ -0,0 +1,115 @@
+package com.codistrib.benchmarks.replay;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution des latences d'un rejeu, globale et par route.
+ *
+ * Les latences sont conservées telles quelles (un long par requête) et
+ * triées à la fin : suffisant pour quelques millions de requêtes.
+ */
+final class ReplayReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Latencies overall = new Latencies();
+    private final Map<String, Latencies> routes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> statusClasses = new ConcurrentHashMap<>();
+    private final LongAdder statusMismatches = new LongAdder();
+    private final LongAdder bodiesOmitted = new LongAdder();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private final LongAdder totalLagNanos = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+
+    /**
+     * Écart entre l'instant prévu d'envoi et l'envoi réel.
+     */
+    void sent(long lagNanos, boolean bodyOmitted) {
+        sent.increment();
+        totalLagNanos.add(lagNanos);
+        maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+        if (bodyOmitted) {
+            bodiesOmitted.increment();
+        }
+    }
+
+    /**
+     * @param status         statut reçu, 0 si erreur de connexion ou timeout
+     * @param recordedStatus statut renvoyé lors de l'enregistrement
+     * @param latencyNanos   depuis l'instant prévu d'envoi (pas l'envoi réel)
+     */
+    void completed(String route, int status, int recordedStatus, long latencyNanos) {
+        overall.add(latencyNanos);
+        routes.computeIfAbsent(route, key -> new Latencies()).add(latencyNanos);
+        statusClasses.computeIfAbsent(status == 0 ? "erreur" : (status / 100) + "xx", key -> new LongAdder())
+            .increment();
+        if (status != recordedStatus) {
+            statusMismatches.increment();
+        }
+    }
+
+    void print(PrintStream out, long elapsedNanos, int recordCount, double speed) {
+        long count = sent.sum();
+        double seconds = elapsedNanos / 1e9;
+
+        out.println();
+        out.printf("Rejeu x%s : %d requête(s) sur %d en %.1fs (%.1f req/s)%n",
+            speed, count, recordCount, seconds, seconds > 0 ? count / seconds : 0);
+        out.printf("Retard d'envoi sur le planning : moyen %.2fms, max %.2fms%n",
+            count > 0 ? totalLagNanos.sum() / 1e6 / count : 0, maxLagNanos.get() / 1e6);
+
+        StringBuilder statuses = new StringBuilder();
+        new TreeMap<>(statusClasses).forEach((statusClass, adder) ->
+            statuses.append(statusClass).append('=').append(adder.sum()).append("  "));
+        out.println("Statuts : " + statuses.toString().trim());
+        out.printf("Statuts différents de l'enregistrement : %d, corps omis à l'enregistrement : %d%n",
+            statusMismatches.sum(), bodiesOmitted.sum());
+
+        out.println();
+        out.printf("%-48s %8s %9s %9s %9s %9s %9s%n", "Route", "Requêtes", "p50", "p90", "p99", "p99.9", "max");
+        print(out, "(toutes)", overall.sorted());
+        new TreeMap<>(routes).forEach((route, latencies) -> print(out, route, latencies.sorted()));
+    }
+
+    private static void print(PrintStream out, String route, long[] sorted) {
+        if (sorted.length == 0) {
+            return;
+        }
+        StringBuilder line = new StringBuilder(String.format("%-48s %8d", route, sorted.length));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" %7.1fms", percentile(sorted, percentile) / 1e6));
+        }
+        line.append(String.format(" %7.1fms", sorted[sorted.length - 1] / 1e6));
+        out.println(line);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static final class Latencies {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        private synchronized void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
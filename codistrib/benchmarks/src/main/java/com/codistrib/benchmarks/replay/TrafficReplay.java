@@ -0,0 +1,225 @@
+package com.codistrib.benchmarks.replay;
+
+import com.codistrib.apigateway.recording.TrafficLogReader;
+import com.codistrib.apigateway.recording.TrafficRecord;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpMethod;
+import org.springframework.boot.convert.DurationStyle;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Rejeu d'un enregistrement de trafic (traffic-recording) contre une gateway locale.
+ *
+ * Les requêtes sont envoyées à leur instant d'origine (divisé par --speed),
+ * sans attendre les réponses précédentes : la charge reproduit l'arrivée réelle
+ * des requêtes. La latence est mesurée depuis l'instant prévu d'envoi, pour
+ * qu'un rejeu en retard sur son planning ne masque pas les lenteurs.
+ *
+ * Authentification : un token valide enregistré est remplacé par un token de
+ * test signé avec --jwt-secret pour le même utilisateur et rôle ; un token
+ * invalide par un token invalide. L'IP cliente (pseudonyme) devient une
+ * adresse 10.x.y.z stable, via X-Forwarded-For.
+ *
+ * Ex: java -cp target/benchmarks.jar com.codistrib.benchmarks.replay.TrafficReplay \
+ *       --log recordings --target http://localhost:8080 --speed 2
+ */
+public final class TrafficReplay {
+
+    private static final String INVALID_TOKEN = "Bearer replay.invalid.token";
+    private static final Pattern VERSION_SEGMENT = Pattern.compile("v\\d+");
+
+    private final HttpClient client;
+    private final SecretKey secretKey;
+    private final double speed;
+    private final Duration timeout;
+    private final Map<String, String> tokens = new HashMap<>();
+    private final ReplayReport report = new ReplayReport();
+
+    private TrafficReplay(HttpClient client, SecretKey secretKey, double speed, Duration timeout) {
+        this.client = client;
+        this.secretKey = secretKey;
+        this.speed = speed;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parse(args);
+        if (!options.containsKey("log")) {
+            System.err.println("Usage: TrafficReplay --log <segment ou répertoire> [--target http://localhost:8080]"
+                + " [--speed 1] [--connections 500] [--timeout 30s] [--jwt-secret ... | env JWT_SECRET]");
+            System.exit(2);
+        }
+
+        String secret = options.getOrDefault("jwt-secret", System.getenv("JWT_SECRET"));
+        if (secret == null || secret.isBlank()) {
+            System.err.println("Secret JWT requis (--jwt-secret ou JWT_SECRET) : celui de la gateway rejouée");
+            System.exit(2);
+        }
+        double speed = Double.parseDouble(options.getOrDefault("speed", "1"));
+        if (speed <= 0) {
+            System.err.println("--speed doit être > 0");
+            System.exit(2);
+        }
+        Duration timeout = DurationStyle.detectAndParse(options.getOrDefault("timeout", "30s"));
+
+        List<TrafficRecord> records = new ArrayList<>();
+        TrafficLogReader.forEach(Path.of(options.get("log")), records::add);
+        // Les enregistrements sont écrits à la fin de chaque requête : on rejoue dans l'ordre d'arrivée
+        records.sort(Comparator.comparingLong(TrafficRecord::timestampMicros));
+        if (records.isEmpty()) {
+            System.err.println("Aucune requête enregistrée dans " + options.get("log"));
+            return;
+        }
+
+        ConnectionProvider connections = ConnectionProvider.builder("traffic-replay")
+            .maxConnections(Integer.parseInt(options.getOrDefault("connections", "500")))
+            .pendingAcquireMaxCount(-1)
+            .build();
+        HttpClient client = HttpClient.create(connections)
+            .baseUrl(options.getOrDefault("target", "http://localhost:8080"))
+            .responseTimeout(timeout);
+
+        TrafficReplay replay = new TrafficReplay(client, Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)),
+            speed, timeout);
+        try {
+            replay.run(records);
+        } finally {
+            connections.disposeLater().block(Duration.ofSeconds(5));
+        }
+    }
+
+    private void run(List<TrafficRecord> records) {
+        System.out.printf("Rejeu de %d requête(s) enregistrée(s) sur %.1fs, vitesse x%s%n", records.size(),
+            (records.get(records.size() - 1).timestampMicros() - records.get(0).timestampMicros()) / 1e6, speed);
+
+        Phaser inFlight = new Phaser(1);
+        long origin = records.get(0).timestampMicros();
+        long start = System.nanoTime();
+
+        for (TrafficRecord record : records) {
+            long intended = start + (long) ((record.timestampMicros() - origin) * 1_000 / speed);
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            report.sent(Math.max(0, System.nanoTime() - intended), record.bodyOmitted());
+
+            inFlight.register();
+            send(record)
+                .timeout(timeout.plusSeconds(1))
+                .onErrorReturn(0)
+                .subscribe(status -> report.completed(route(record), status, record.status(), System.nanoTime() - intended),
+                    error -> inFlight.arriveAndDeregister(),
+                    inFlight::arriveAndDeregister);
+        }
+
+        inFlight.arriveAndAwaitAdvance();
+        report.print(System.out, System.nanoTime() - start, records.size(), speed);
+    }
+
+    private Mono<Integer> send(TrafficRecord record) {
+        String authorization = authorization(record);
+        byte[] body = record.body();
+        return client
+            .headers(headers -> {
+                record.headers().forEach(headers::set);
+                headers.set("X-Forwarded-For", clientIp(record.clientKey()));
+                if (authorization != null) {
+                    headers.set("Authorization", authorization);
+                }
+            })
+            .request(HttpMethod.valueOf(record.method()))
+            .uri(record.pathAndQuery())
+            .send(body != null ? Mono.just(Unpooled.wrappedBuffer(body)) : Mono.empty())
+            .responseSingle((response, content) -> content.asByteArray()
+                .map(ignored -> response.status().code())
+                .defaultIfEmpty(response.status().code()));
+    }
+
+    /**
+     * Token de test pour l'identité enregistrée, signé une fois par utilisateur.
+     */
+    private String authorization(TrafficRecord record) {
+        return switch (record.auth()) {
+            case NONE -> null;
+            case INVALID -> INVALID_TOKEN;
+            case VALID -> tokens.computeIfAbsent(record.userId() + '|' + record.role(),
+                key -> "Bearer " + token(record.userId(), record.role()));
+        };
+    }
+
+    private String token(String userId, String role) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+            .subject(userId)
+            .id(UUID.randomUUID().toString())
+            .claim("role", role)
+            .claim("email", userId + "@codistrib.test")
+            .claim("username", userId)
+            .issuedAt(Date.from(now))
+            .expiration(Date.from(now.plus(Duration.ofHours(12))))
+            .signWith(secretKey)
+            .compact();
+    }
+
+    /**
+     * Adresse stable par client enregistré (rate limit et quotas par IP).
+     */
+    private static String clientIp(int clientKey) {
+        return "10." + ((clientKey >>> 16) & 0xFF) + "." + ((clientKey >>> 8) & 0xFF) + "." + (clientKey & 0xFF);
+    }
+
+    /**
+     * Route normalisée : les segments contenant un chiffre (identifiants) deviennent {id}.
+     */
+    private static String route(TrafficRecord record) {
+        String path = record.pathAndQuery();
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        StringBuilder route = new StringBuilder(record.method()).append(' ');
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            route.append('/');
+            boolean identifier = segment.chars().anyMatch(Character::isDigit)
+                && !VERSION_SEGMENT.matcher(segment).matches();
+            route.append(identifier ? "{id}" : segment);
+        }
+        return route.toString();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Option attendue: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
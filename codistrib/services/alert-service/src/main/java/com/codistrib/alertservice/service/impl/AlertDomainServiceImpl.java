@@ -12,9 +12,11 @@ import java.util.List;
 @Service
 public class AlertDomainServiceImpl implements AlertDomainService {
     private final AlertRepository repo;
+    private final RealtimeEventPublisher events;
 
-    public AlertDomainServiceImpl(AlertRepository repo) {
+    public AlertDomainServiceImpl(AlertRepository repo, RealtimeEventPublisher events) {
         this.repo = repo;
+        this.events = events;
     }
 
     @Override
@@ -37,7 +39,9 @@ public class AlertDomainServiceImpl implements AlertDomainService {
         a.setStatus(AlertStatus.OPEN);
         a.setCreatedAt(now);
         a.setUpdatedAt(now);
-        return repo.save(a);
+        Alert saved = repo.save(a);
+        events.created(saved);
+        return saved;
     }
 
     @Override
@@ -53,7 +57,9 @@ public class AlertDomainServiceImpl implements AlertDomainService {
         a.setHelperId(helperId);
         a.setStatus(AlertStatus.ASSIGNED);
         a.setUpdatedAt(Instant.now());
-        return repo.save(a);
+        Alert saved = repo.save(a);
+        events.assigned(saved);
+        return saved;
     }
 
     @Override
@@ -73,7 +79,9 @@ public class AlertDomainServiceImpl implements AlertDomainService {
         a.setStatus(AlertStatus.RESOLVED);
         a.setResolvedAt(Instant.now());
         a.setUpdatedAt(Instant.now());
-        return repo.save(a);
+        Alert saved = repo.save(a);
+        events.resolved(saved);
+        return saved;
     }
 
     @Override
@@ -0,0 +1,114 @@
+package com.codistrib.alertservice.service.impl;
+
+import com.codistrib.alertservice.domain.model.Alert;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Publie les changements d'état des alertes sur les canaux temps réel
+ * relayés par l'api-gateway (WebSocket, topics "alerts:*" et "location:person:*").
+ *
+ * Au mieux : une indisponibilité de Redis ne fait jamais échouer l'opération
+ * métier, les clients se resynchronisent par une lecture à la reconnexion.
+ */
+@Service
+public class RealtimeEventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(RealtimeEventPublisher.class);
+
+    // Préfixe des canaux, identique à realtime.channel-prefix de l'api-gateway
+    public static final String CHANNEL_PREFIX = "rt:";
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+
+    public RealtimeEventPublisher(StringRedisTemplate redis, ObjectMapper objectMapper) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+    }
+
+    // Nouvelle alerte : aidants (alerts:open), la personne, et sa position si connue
+    public void created(Alert a) {
+        String payload = alertEvent("created", a);
+        publish("alerts:open", payload);
+        publish("alerts:person:" + a.getPersonId(), payload);
+        // (0, 0) : coordonnées absentes dans la requête gRPC (valeurs par défaut proto3)
+        if (a.getLat() != null && a.getLon() != null && (a.getLat() != 0 || a.getLon() != 0)) {
+            publish("location:person:" + a.getPersonId(), locationEvent(a));
+        }
+    }
+
+    // Prise en charge : l'alerte quitte alerts:open, l'aidant et la personne sont notifiés
+    public void assigned(Alert a) {
+        String payload = alertEvent("assigned", a);
+        publish("alerts:open", payload);
+        publish("alerts:helper:" + a.getHelperId(), payload);
+        publish("alerts:person:" + a.getPersonId(), payload);
+    }
+
+    // Résolution : l'aidant et la personne sont notifiés
+    public void resolved(Alert a) {
+        String payload = alertEvent("resolved", a);
+        publish("alerts:helper:" + a.getHelperId(), payload);
+        publish("alerts:person:" + a.getPersonId(), payload);
+    }
+
+    private void publish(String topic, String payload) {
+        if (payload == null) {
+            return;
+        }
+        try {
+            redis.convertAndSend(CHANNEL_PREFIX + topic, payload);
+        } catch (Exception e) {
+            log.warn("Événement temps réel non publié sur {}: {}", topic, e.getMessage());
+        }
+    }
+
+    private String alertEvent(String event, Alert a) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("event", event);
+        ObjectNode alert = json.putObject("alert");
+        alert.put("id", a.getId());
+        alert.put("personId", a.getPersonId());
+        alert.put("helperId", a.getHelperId());
+        alert.put("type", a.getType());
+        alert.put("message", a.getMessage());
+        alert.put("lat", a.getLat());
+        alert.put("lon", a.getLon());
+        alert.put("status", a.getStatus() != null ? a.getStatus().name() : null);
+        alert.put("createdAt", iso(a.getCreatedAt()));
+        alert.put("updatedAt", iso(a.getUpdatedAt()));
+        alert.put("resolvedAt", iso(a.getResolvedAt()));
+        return write(json);
+    }
+
+    private String locationEvent(Alert a) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("event", "location");
+        json.put("personId", a.getPersonId());
+        json.put("lat", a.getLat());
+        json.put("lon", a.getLon());
+        json.put("at", iso(a.getCreatedAt()));
+        json.put("alertId", a.getId());
+        return write(json);
+    }
+
+    private String write(ObjectNode json) {
+        try {
+            return objectMapper.writeValueAsString(json);
+        } catch (Exception e) {
+            log.warn("Événement temps réel non sérialisable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String iso(Instant instant) {
+        return instant != null ? instant.toString() : null;
+    }
+}
@@ -0,0 +1,250 @@
+package com.codistrib.apigateway.batch;
+
+import com.codistrib.apigateway.config.BatchProperties;
+import com.codistrib.apigateway.dto.batch.BatchRequest;
+import com.codistrib.apigateway.dto.batch.BatchRequest.SubRequest;
+import com.codistrib.apigateway.dto.batch.BatchResponse;
+import com.codistrib.apigateway.dto.batch.BatchResponse.SubResponse;
+import com.codistrib.apigateway.grpc.RequestDeadline;
+import com.codistrib.apigateway.loopback.LoopbackClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.grpc.Deadline;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+/**
+ * Exécution des sous-requêtes d'un batch.
+ *
+ * Chaque sous-requête est rejouée sur la boucle locale ({@link LoopbackClient})
+ * avec le token du batch : elle traverse toute la chaîne de filtres
+ * (JwtAuthFilter, RouteValidator, rate limiting, quotas, délestage) comme une
+ * requête isolée. Un batch n'ouvre donc aucun droit supplémentaire, et un
+ * refus (401, 403, 429) ne concerne que la sous-requête.
+ *
+ * Les sous-requêtes partagent le deadline du batch (X-Request-Timeout = temps
+ * restant) et au plus batch.concurrency s'exécutent en même temps.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BatchExecutor {
+
+    private static final Set<HttpMethod> METHODS =
+        Set.of(HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final BatchProperties properties;
+    private final LoopbackClient loopbackClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.header}")
+    private String authHeader;
+
+    @Value("${request-deadline.header:X-Request-Timeout}")
+    private String timeoutHeader;
+
+    private Set<String> forwardedHeaders;
+    private DistributionSummary batchSize;
+
+    @PostConstruct
+    public void init() {
+        forwardedHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        forwardedHeaders.addAll(properties.getForwardedHeaders());
+        batchSize = DistributionSummary.builder("gateway.batch.size")
+            .description("Sous-requêtes par batch")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Vérifie le nombre de sous-requêtes, les méthodes et les chemins.
+     *
+     * @throws IllegalArgumentException si le batch est refusé
+     */
+    public void validate(BatchRequest batch) {
+        if (batch.requests().size() > properties.getMaxRequests()) {
+            throw new IllegalArgumentException("Au plus " + properties.getMaxRequests() + " sous-requêtes par batch");
+        }
+        for (SubRequest sub : batch.requests()) {
+            HttpMethod method = HttpMethod.valueOf(sub.method().toUpperCase());
+            if (!METHODS.contains(method)) {
+                throw new IllegalArgumentException("Méthode non autorisée: " + sub.method());
+            }
+            String path = sub.path();
+            try {
+                URI.create(path);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Chemin invalide: " + path);
+            }
+            // Ni ".." ni URL absolue : le chemin reste sous les préfixes autorisés
+            if (!path.startsWith("/") || path.contains("..") || path.contains("//")
+                || properties.getAllowedPrefixes().stream().noneMatch(path::startsWith)
+                || properties.getDeniedPrefixes().stream().anyMatch(path::startsWith)) {
+                throw new IllegalArgumentException("Chemin non autorisé dans un batch: " + path);
+            }
+        }
+    }
+
+    public Mono<BatchResponse> execute(BatchRequest batch, ServerHttpRequest origin) {
+        WebClient client = loopbackClient.webClient();
+        if (client == null) {
+            return Mono.error(new IllegalStateException("Serveur non démarré"));
+        }
+        HttpHeaders common = commonHeaders(origin);
+        List<SubRequest> requests = batch.requests();
+        batchSize.record(requests.size());
+
+        return Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(RequestDeadline.KEY, null);
+            return Flux.fromStream(IntStream.range(0, requests.size()).boxed())
+                .flatMapSequential(index -> {
+                    SubRequest sub = requests.get(index);
+                    String id = sub.id() != null ? sub.id() : String.valueOf(index);
+                    return execute(client, sub, id, common, deadline);
+                }, Math.max(1, properties.getConcurrency()))
+                .collectList()
+                .map(BatchResponse::new);
+        });
+    }
+
+    private Mono<SubResponse> execute(WebClient client, SubRequest sub, String id,
+                                      HttpHeaders common, Deadline deadline) {
+        long remainingMs = deadline != null ? deadline.timeRemaining(TimeUnit.MILLISECONDS) : -1;
+        if (deadline != null && remainingMs <= 0) {
+            return Mono.just(error(id, HttpStatus.GATEWAY_TIMEOUT, "Deadline du batch dépassé"));
+        }
+
+        WebClient.RequestBodySpec spec = client.method(HttpMethod.valueOf(sub.method().toUpperCase()))
+            .uri(loopbackClient.uri(sub.path()))
+            .headers(headers -> {
+                headers.addAll(common);
+                if (sub.headers() != null) {
+                    sub.headers().forEach((name, value) -> {
+                        if (forwardedHeaders.contains(name)) {
+                            headers.set(name, value);
+                        }
+                    });
+                }
+                // Réponses toujours en JSON : elles sont intégrées au corps du batch
+                headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+                if (deadline != null) {
+                    headers.set(timeoutHeader, remainingMs + "ms");
+                }
+            });
+
+        Mono<SubResponse> call = (sub.body() != null && !sub.body().isNull()
+                ? spec.contentType(MediaType.APPLICATION_JSON).bodyValue(toBytes(sub.body()))
+                : spec)
+            .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .map(body -> toSubResponse(id, response, body)));
+
+        if (deadline != null) {
+            call = call.timeout(Duration.ofMillis(remainingMs));
+        }
+        return call.onErrorResume(e -> {
+            if (e instanceof TimeoutException) {
+                return Mono.just(error(id, HttpStatus.GATEWAY_TIMEOUT, "Deadline du batch dépassé"));
+            }
+            log.warn("Batch - sous-requête {} {} en échec: {}", sub.method(), sub.path(), e.getMessage());
+            return Mono.just(error(id, HttpStatus.BAD_GATEWAY, "Sous-requête en échec"));
+        });
+    }
+
+    /**
+     * En-têtes communs à toutes les sous-requêtes : identité et IP du client.
+     */
+    private HttpHeaders commonHeaders(ServerHttpRequest origin) {
+        HttpHeaders headers = new HttpHeaders();
+        String authorization = origin.getHeaders().getFirst(authHeader);
+        if (authorization != null) {
+            headers.set(authHeader, authorization);
+        }
+        // Rate limiting par IP : l'IP du client, pas celle de la boucle locale
+        String forwardedFor = origin.getHeaders().getFirst("X-Forwarded-For");
+        if (forwardedFor == null) {
+            InetSocketAddress remote = origin.getRemoteAddress();
+            if (remote != null && remote.getAddress() != null) {
+                forwardedFor = remote.getAddress().getHostAddress();
+            }
+        }
+        if (forwardedFor != null) {
+            headers.set("X-Forwarded-For", forwardedFor);
+        }
+        String language = origin.getHeaders().getFirst(HttpHeaders.ACCEPT_LANGUAGE);
+        if (language != null) {
+            headers.set(HttpHeaders.ACCEPT_LANGUAGE, language);
+        }
+        return headers;
+    }
+
+    private SubResponse toSubResponse(String id, ClientResponse response, byte[] body) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : properties.getResponseHeaders()) {
+            response.headers().header(name).stream().findFirst().ifPresent(value -> headers.put(name, value));
+        }
+        return new SubResponse(id, response.statusCode().value(), headers, toJson(response, body));
+    }
+
+    private JsonNode toJson(ClientResponse response, byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        boolean json = response.headers().contentType()
+            .map(type -> type.isCompatibleWith(MediaType.APPLICATION_JSON) || type.getSubtype().endsWith("+json"))
+            .orElse(false);
+        if (json) {
+            try {
+                return objectMapper.readTree(body);
+            } catch (IOException e) {
+                log.debug("Batch - réponse JSON illisible, renvoyée en texte: {}", e.getMessage());
+            }
+        }
+        return TextNode.valueOf(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private byte[] toBytes(JsonNode body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corps de sous-requête invalide", e);
+        }
+    }
+
+    private SubResponse error(String id, HttpStatus status, String message) {
+        ObjectNode body = objectMapper.createObjectNode()
+            .put("error", status.getReasonPhrase())
+            .put("message", message);
+        return new SubResponse(id, status.value(), Map.of(), body);
+    }
+}
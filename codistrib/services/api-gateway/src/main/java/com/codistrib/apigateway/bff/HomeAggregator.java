@@ -0,0 +1,214 @@
+package com.codistrib.apigateway.bff;
+
+import com.codistrib.apigateway.config.BffProperties;
+import com.codistrib.apigateway.dto.bff.AlertSummary;
+import com.codistrib.apigateway.dto.bff.HelperHomeDto;
+import com.codistrib.apigateway.dto.bff.PersonHomeDto;
+import com.codistrib.apigateway.dto.bff.UserSummary;
+import com.codistrib.apigateway.grpc.AlertServiceGrpcClient;
+import com.codistrib.apigateway.grpc.RequestDeadline;
+import com.codistrib.apigateway.grpc.UserServiceGrpcClient;
+import com.codistrib.proto.alert.AlertProto.Alert;
+import com.codistrib.proto.alert.AlertProto.ListAlertsResponse;
+import com.codistrib.proto.user.UserSnapshotResponse;
+import io.grpc.Deadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Agrégation des écrans d'accueil (BFF).
+ *
+ * Les appels vers user-service et alert-service partent en parallèle et
+ * partagent un même deadline gRPC (bff.deadline). Une partie en échec ou trop
+ * lente est omise et nommée dans "missing" : l'écran s'affiche quand même.
+ * Si toutes les parties de la première vague échouent, l'erreur est propagée.
+ *
+ * Seconde vague : les fiches des personnes / de l'aidant liés aux alertes,
+ * lancée seulement s'il reste au moins bff.min-remaining sur le deadline.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HomeAggregator {
+
+    private static final Set<String> PERSON_ACTIVE_STATUSES = Set.of("OPEN", "ASSIGNED");
+
+    private final UserServiceGrpcClient userClient;
+    private final AlertServiceGrpcClient alertClient;
+    private final BffProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Accueil aidant : profil, alertes assignées, alertes ouvertes à prendre,
+     * fiches des personnes concernées et compteurs.
+     */
+    public Mono<HelperHomeDto> helperHome(String helperId) {
+        return Mono.deferContextual(context -> helperHome(helperId, new Fanout(context)));
+    }
+
+    private Mono<HelperHomeDto> helperHome(String helperId, Fanout fanout) {
+        return Mono.zip(
+                fanout.part("profile", userClient.getUser(helperId, fanout.deadline)),
+                fanout.part("assigned", alertClient.listByHelper(helperId, fanout.deadline)
+                    .map(ListAlertsResponse::getAlertsList)),
+                fanout.part("open", alertClient.listByStatus("OPEN", fanout.deadline)
+                    .map(ListAlertsResponse::getAlertsList)))
+            .flatMap(parts -> fanout.failIfNothing(3).then(Mono.defer(() -> {
+                List<Alert> assigned = parts.getT2().orElse(List.of());
+                List<Alert> open = parts.getT3().orElse(List.of());
+
+                List<String> personIds = Stream.concat(
+                        assigned.stream().filter(alert -> "ASSIGNED".equals(alert.getStatus())),
+                        open.stream())
+                    .map(Alert::getPersonId)
+                    .filter(id -> !id.isEmpty())
+                    .distinct()
+                    .limit(properties.getMaxSnapshots())
+                    .toList();
+
+                return fanout.snapshots("persons", personIds)
+                    .map(persons -> new HelperHomeDto(
+                        parts.getT1().map(UserSummary::of).orElse(null),
+                        parts.getT2().map(this::summarize).orElse(null),
+                        parts.getT3().map(this::summarize).orElse(null),
+                        persons,
+                        helperStats(parts.getT2(), parts.getT3()),
+                        fanout.isPartial("helper"),
+                        fanout.missing));
+            })));
+    }
+
+    /**
+     * Accueil PersonDI : profil, alerte en cours et aidant assigné, historique récent.
+     */
+    public Mono<PersonHomeDto> personHome(String personId) {
+        return Mono.deferContextual(context -> personHome(personId, new Fanout(context)));
+    }
+
+    private Mono<PersonHomeDto> personHome(String personId, Fanout fanout) {
+        return Mono.zip(
+                fanout.part("profile", userClient.getUser(personId, fanout.deadline)),
+                fanout.part("alerts", alertClient.listByPerson(personId, fanout.deadline)
+                    .map(ListAlertsResponse::getAlertsList)))
+            .flatMap(parts -> fanout.failIfNothing(2).then(Mono.defer(() -> {
+                Optional<Alert> active = parts.getT2().orElse(List.of()).stream()
+                    .filter(alert -> PERSON_ACTIVE_STATUSES.contains(alert.getStatus()))
+                    .max(Comparator.comparing(Alert::getCreatedAt));
+
+                List<String> helperIds = active.map(Alert::getHelperId)
+                    .filter(id -> !id.isEmpty())
+                    .map(List::of)
+                    .orElse(List.of());
+
+                return fanout.snapshots("helper", helperIds)
+                    .map(helpers -> new PersonHomeDto(
+                        parts.getT1().map(UserSummary::of).orElse(null),
+                        active.map(AlertSummary::of).orElse(null),
+                        helpers.values().stream().findFirst().orElse(null),
+                        parts.getT2().map(this::summarize).orElse(null),
+                        fanout.isPartial("person"),
+                        fanout.missing));
+            })));
+    }
+
+    /**
+     * Alertes les plus récentes d'abord, bornées à bff.max-alerts.
+     */
+    private List<AlertSummary> summarize(List<Alert> alerts) {
+        return alerts.stream()
+            .sorted(Comparator.comparing(Alert::getCreatedAt).reversed())
+            .limit(properties.getMaxAlerts())
+            .map(AlertSummary::of)
+            .toList();
+    }
+
+    private static Map<String, Integer> helperStats(Optional<List<Alert>> assigned, Optional<List<Alert>> open) {
+        Map<String, Integer> stats = new ConcurrentHashMap<>();
+        assigned.ifPresent(alerts -> {
+            stats.put("inProgress", count(alerts, "ASSIGNED"));
+            stats.put("resolved", count(alerts, "RESOLVED"));
+        });
+        open.ifPresent(alerts -> stats.put("open", alerts.size()));
+        return stats;
+    }
+
+    private static int count(List<Alert> alerts, String status) {
+        return (int) alerts.stream().filter(alert -> status.equals(alert.getStatus())).count();
+    }
+
+    /**
+     * État d'une agrégation : deadline commun, parties manquantes, dernière erreur.
+     */
+    private final class Fanout {
+
+        private final Deadline deadline;
+        private final Set<String> missing = ConcurrentHashMap.newKeySet();
+        private volatile Throwable lastError;
+
+        /**
+         * Le deadline de l'écran ne dépasse pas celui de la requête HTTP.
+         */
+        private Fanout(ContextView context) {
+            deadline = RequestDeadline.within(
+                Deadline.after(properties.getDeadline().toMillis(), TimeUnit.MILLISECONDS), context);
+        }
+
+        /**
+         * Une erreur (deadline dépassé, service indisponible...) rend la partie vide.
+         */
+        private <T> Mono<Optional<T>> part(String name, Mono<T> call) {
+            return call
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    log.debug("BFF - partie '{}' indisponible: {}", name, e.getMessage());
+                    missing.add(name);
+                    lastError = e;
+                    return Mono.just(Optional.empty());
+                });
+        }
+
+        /**
+         * Fiches (snapshots) des utilisateurs donnés, dans l'ordre, sans doublon.
+         */
+        private Mono<Map<String, UserSummary>> snapshots(String name, List<String> userIds) {
+            if (userIds.isEmpty()) {
+                return Mono.just(Map.of());
+            }
+            if (deadline.timeRemaining(TimeUnit.MILLISECONDS) < properties.getMinRemaining().toMillis()) {
+                missing.add(name);
+                return Mono.just(Map.of());
+            }
+            return Flux.fromIterable(userIds)
+                .flatMapSequential(userId -> part(name, userClient.getUserSnapshot(userId, deadline))
+                    .flatMap(Mono::justOrEmpty))
+                .collectMap(UserSnapshotResponse::getUserId, UserSummary::of);
+        }
+
+        private Mono<Void> failIfNothing(int parts) {
+            return missing.size() >= parts && lastError != null ? Mono.error(lastError) : Mono.empty();
+        }
+
+        private boolean isPartial(String screen) {
+            boolean partial = !missing.isEmpty();
+            if (partial) {
+                meterRegistry.counter("gateway.bff.partial", "screen", screen).increment();
+                log.info("BFF - réponse partielle ({}), manquant: {}", screen, missing);
+            }
+            return partial;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.codistrib.apigateway.cache;
+
+/**
+ * Réponse GET mise en cache par la gateway.
+ *
+ * @param body        corps de la réponse (déjà sérialisé)
+ * @param contentType type du contenu, ou null
+ * @param etag        ETag (faible), guillemets inclus
+ * @param ttlNanos    durée de vie de l'entrée
+ */
+public record CachedResponse(byte[] body, String contentType, String etag, long ttlNanos) {
+
+    /**
+     * Vérifie un en-tête If-None-Match (liste d'ETags, "*" ou ETags faibles).
+     */
+    public boolean matches(String ifNoneMatch) {
+        return ETags.matches(ifNoneMatch, etag);
+    }
+}
@@ -0,0 +1,54 @@
+package com.codistrib.apigateway.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Génération et comparaison d'ETags.
+ */
+public final class ETags {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    });
+
+    private ETags() {
+    }
+
+    /**
+     * ETag dérivé du contenu : deux corps identiques ont le même ETag.
+     * Faible ("W/") car la réponse peut ensuite être compressée (gzip, br)
+     * par le serveur : le même ETag couvre toutes les versions encodées.
+     */
+    public static String of(byte[] body) {
+        byte[] hash = SHA_256.get().digest(body);
+        return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+    }
+
+    /**
+     * Comparaison faible (RFC 9110 §13.1.2) : "W/" est ignoré.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if ("*".equals(value) || opaque(value).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
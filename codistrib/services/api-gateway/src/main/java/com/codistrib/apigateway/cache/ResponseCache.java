@@ -0,0 +1,76 @@
+package com.codistrib.apigateway.cache;
+
+import com.codistrib.apigateway.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache en mémoire des réponses GET.
+ *
+ * Borné en octets (et non en nombre d'entrées) ; chaque entrée expire selon
+ * le TTL de sa route.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResponseCache {
+
+    private final ResponseCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private Cache<String, CachedResponse> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(properties.getMaxBytes())
+            .weigher((String key, CachedResponse value) -> key.length() + value.body().length)
+            .expireAfter(new ResponseExpiry())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response");
+
+        log.info("Cache de réponses initialisé - {} route(s), {} octets max",
+            properties.getRoutes().size(), properties.getMaxBytes());
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        // TTL nul : route regroupée (coalesce) mais non mise en cache
+        if (response.ttlNanos() <= 0 || response.body().length > properties.getMaxEntryBytes()) {
+            return;
+        }
+        cache.put(key, response);
+    }
+
+    /**
+     * Chaque entrée vit le TTL de sa route.
+     */
+    private static final class ResponseExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
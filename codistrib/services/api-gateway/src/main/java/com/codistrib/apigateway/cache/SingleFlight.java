@@ -0,0 +1,105 @@
+package com.codistrib.apigateway.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Regroupe les lectures identiques en cours (single-flight).
+ *
+ * La première requête pour une clé devient le "leader" et appelle le service ;
+ * les suivantes attendent son résultat au lieu de déclencher leur propre
+ * appel gRPC. Si le leader échoue (erreur, statut autre que 200, annulation),
+ * les suiveurs reçoivent un résultat vide et font leur propre appel.
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlight {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter leaders;
+    private Counter collapsed;
+
+    @PostConstruct
+    public void init() {
+        leaders = Counter.builder("gateway.singleflight.calls")
+            .description("Requêtes GET selon qu'elles ont appelé le service ou attendu un appel en cours")
+            .tag("outcome", "leader")
+            .register(meterRegistry);
+        collapsed = Counter.builder("gateway.singleflight.calls")
+            .description("Requêtes GET selon qu'elles ont appelé le service ou attendu un appel en cours")
+            .tag("outcome", "collapsed")
+            .register(meterRegistry);
+        Gauge.builder("gateway.singleflight.in_flight", inFlight, Map::size)
+            .description("Appels regroupés actuellement en cours")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Rejoint l'appel en cours pour la clé, ou en devient le leader.
+     */
+    public Flight join(String key) {
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> existing = inFlight.putIfAbsent(key, sink);
+        if (existing != null) {
+            collapsed.increment();
+            return new Flight(key, existing, false);
+        }
+        leaders.increment();
+        return new Flight(key, sink, true);
+    }
+
+    /**
+     * Un appel regroupé : le leader publie, les suiveurs attendent.
+     */
+    public final class Flight {
+
+        private final String key;
+        private final Sinks.One<CachedResponse> sink;
+        private final boolean leader;
+
+        private Flight(String key, Sinks.One<CachedResponse> sink, boolean leader) {
+            this.key = key;
+            this.sink = sink;
+            this.leader = leader;
+        }
+
+        public boolean isLeader() {
+            return leader;
+        }
+
+        /**
+         * Résultat du leader (vide s'il a échoué).
+         */
+        public Mono<CachedResponse> result() {
+            return sink.asMono();
+        }
+
+        /**
+         * Publie la réponse du leader à tous les suiveurs.
+         */
+        public void complete(CachedResponse response) {
+            inFlight.remove(key, sink);
+            sink.tryEmitValue(response);
+        }
+
+        /**
+         * Termine l'appel sans résultat ; sans effet si déjà publié.
+         */
+        public void release() {
+            inFlight.remove(key, sink);
+            sink.tryEmitEmpty();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.codistrib.apigateway.codec;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Négociation JSON / protobuf d'après l'en-tête Accept.
+ *
+ * Les apps qui envoient "Accept: application/x-protobuf" reçoivent les
+ * messages générés depuis protos/*.proto en binaire : plus compacts et plus
+ * rapides à décoder que le JSON sur un téléphone d'entrée de gamme.
+ * Sans demande explicite, la réponse reste en JSON.
+ */
+public final class ProtobufNegotiation {
+
+    public static final MediaType APPLICATION_X_PROTOBUF = new MediaType("application", "x-protobuf");
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "protobuf");
+
+    private ProtobufNegotiation() {
+    }
+
+    /**
+     * True si l'en-tête Accept préfère protobuf. Un en-tête Accept mal formé
+     * est ignoré : la réponse reste en JSON (au lieu d'une erreur 500).
+     */
+    public static boolean acceptsProtobuf(HttpHeaders headers) {
+        List<String> accept = headers.get(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isEmpty()) {
+            return false;
+        }
+        try {
+            return acceptsProtobuf(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * True si le client préfère protobuf à JSON. Protobuf doit être cité
+     * explicitement : les jokers de l'en-tête Accept désignent JSON.
+     */
+    public static boolean acceptsProtobuf(List<MediaType> accept) {
+        double protobuf = 0;
+        double json = 0;
+        for (MediaType mediaType : accept) {
+            double quality = mediaType.getQualityValue();
+            if (isProtobuf(mediaType)) {
+                protobuf = Math.max(protobuf, quality);
+            } else if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                json = Math.max(json, quality);
+            }
+        }
+        return protobuf > 0 && protobuf >= json;
+    }
+
+    /**
+     * True si le corps de la requête est en protobuf.
+     */
+    public static boolean isProtobuf(MediaType mediaType) {
+        return mediaType != null
+            && (APPLICATION_X_PROTOBUF.equalsTypeAndSubtype(mediaType)
+                || APPLICATION_PROTOBUF.equalsTypeAndSubtype(mediaType));
+    }
+}
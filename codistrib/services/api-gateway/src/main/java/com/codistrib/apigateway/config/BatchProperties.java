@@ -0,0 +1,57 @@
+package com.codistrib.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Endpoint batch : plusieurs appels d'API en un aller-retour (batch.*).
+ *
+ * Ex:
+ *   batch:
+ *     max-requests: 10
+ *     concurrency: 4
+ */
+@Component
+@ConfigurationProperties(prefix = "batch")
+@Getter
+@Setter
+public class BatchProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Nombre maximal de sous-requêtes par batch.
+     */
+    private int maxRequests = 10;
+
+    /**
+     * Sous-requêtes exécutées en parallèle pour un même batch.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Préfixes de chemin autorisés pour les sous-requêtes.
+     */
+    private List<String> allowedPrefixes = new ArrayList<>(List.of("/api/v1/"));
+
+    /**
+     * Préfixes refusés (batch imbriqué, WebSocket...).
+     */
+    private List<String> deniedPrefixes = new ArrayList<>(List.of("/api/v1/batch", "/api/v1/realtime"));
+
+    /**
+     * En-têtes de la sous-requête transmis tels quels (en plus de ceux du batch :
+     * Authorization, X-Forwarded-For, Accept-Language).
+     */
+    private List<String> forwardedHeaders = new ArrayList<>(List.of("Content-Type", "If-None-Match"));
+
+    /**
+     * En-têtes de la réponse d'une sous-requête renvoyés au client.
+     */
+    private List<String> responseHeaders = new ArrayList<>(List.of("ETag", "Retry-After", "Location"));
+}
@@ -0,0 +1,44 @@
+package com.codistrib.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Endpoints agrégés "backend for frontend" (bff.*).
+ *
+ * Ex:
+ *   bff:
+ *     deadline: 800ms
+ *     max-alerts: 20
+ */
+@Component
+@ConfigurationProperties(prefix = "bff")
+@Getter
+@Setter
+public class BffProperties {
+
+    /**
+     * Deadline partagé par tous les appels gRPC d'un écran : au-delà, les
+     * parties manquantes sont omises et la réponse est marquée partielle.
+     */
+    private Duration deadline = Duration.ofMillis(800);
+
+    /**
+     * Nombre maximal d'alertes par liste dans la réponse.
+     */
+    private int maxAlerts = 20;
+
+    /**
+     * Nombre maximal de fiches utilisateur (snapshots) chargées en second temps.
+     */
+    private int maxSnapshots = 10;
+
+    /**
+     * Budget minimal restant pour lancer la seconde vague d'appels (snapshots).
+     */
+    private Duration minRemaining = Duration.ofMillis(50);
+}
@@ -0,0 +1,307 @@
+package com.codistrib.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration des clients gRPC (grpc.client.*).
+ *
+ * Ex:
+ *   grpc:
+ *     client:
+ *       alert-service:
+ *         host: localhost
+ *         port: 9005
+ *         deadline: 3s
+ *         channels: 2
+ *         addresses: ["alert-1:9005", "alert-2:9005"]
+ *         load-balancing:
+ *           policy: LEAST_OUTSTANDING
+ *         limiter:
+ *           max-limit: 100
+ *         circuit-breaker:
+ *           open-duration: 10s
+ *     hedging:
+ *       methods:
+ *         - com.codistrib.proto.user.UserService/GetUser
+ *     shadow:
+ *       enabled: true
+ *       targets:
+ *         user-service: user-candidate:9002
+ *       methods:
+ *         - com.codistrib.proto.user.UserService/GetUser
+ */
+@Component
+@ConfigurationProperties(prefix = "grpc")
+@Getter
+@Setter
+public class GrpcClientProperties {
+
+    private Map<String, Client> client = new HashMap<>();
+
+    private Hedging hedging = new Hedging();
+
+    private Shadow shadow = new Shadow();
+
+    @Getter
+    @Setter
+    public static class Client {
+
+        private String host = "localhost";
+
+        private int port;
+
+        /**
+         * Replicas du service ("hôte:port"). Vide : host/port seul.
+         */
+        private List<String> addresses = new ArrayList<>();
+
+        /**
+         * Fichier listant les replicas (un "hôte:port" par ligne, # pour les
+         * commentaires), relu à chaque modification. Prioritaire sur addresses.
+         */
+        private String addressesFile;
+
+        /**
+         * Intervalle de vérification du fichier d'adresses.
+         */
+        private Duration addressesRefresh = Duration.ofSeconds(5);
+
+        /**
+         * Deadline par défaut d'un appel vers ce service.
+         */
+        private Duration deadline = Duration.ofSeconds(5);
+
+        /**
+         * Nombre de channels HTTP/2 partagés vers ce service (1 suffit en général,
+         * chaque channel multiplexe les appels).
+         */
+        private int channels = 1;
+
+        /**
+         * Intervalle des pings keepalive (le serveur doit l'autoriser).
+         */
+        private Duration keepAliveTime = Duration.ofSeconds(60);
+
+        private Duration keepAliveTimeout = Duration.ofSeconds(10);
+
+        private Limiter limiter = new Limiter();
+
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+        private LoadBalancing loadBalancing = new LoadBalancing();
+    }
+
+    /**
+     * Répartition des appels entre les replicas d'un service.
+     */
+    @Getter
+    @Setter
+    public static class LoadBalancing {
+
+        private Policy policy = Policy.ROUND_ROBIN;
+
+        private HealthCheck healthCheck = new HealthCheck();
+
+        public enum Policy {
+            ROUND_ROBIN,
+            /**
+             * Le moins d'appels en cours parmi deux replicas tirés au hasard.
+             */
+            LEAST_OUTSTANDING
+        }
+    }
+
+    /**
+     * Vérification de santé des replicas (service standard grpc.health.v1.Health).
+     */
+    @Getter
+    @Setter
+    public static class HealthCheck {
+
+        private boolean enabled = true;
+
+        private Duration interval = Duration.ofSeconds(5);
+
+        private Duration timeout = Duration.ofSeconds(1);
+
+        /**
+         * Service interrogé ("" : état global du serveur).
+         */
+        private String serviceName = "";
+
+        /**
+         * Échecs consécutifs avant d'écarter un replica.
+         */
+        private int unhealthyThreshold = 2;
+
+        /**
+         * Succès consécutifs avant de réintégrer un replica.
+         */
+        private int healthyThreshold = 1;
+    }
+
+    /**
+     * Limite de concurrence adaptative (AIMD) vers un service.
+     */
+    @Getter
+    @Setter
+    public static class Limiter {
+
+        private int initialLimit = 20;
+
+        private int minLimit = 2;
+
+        private int maxLimit = 200;
+
+        /**
+         * Un appel plus lent que RTT minimal x tolérance réduit la limite.
+         */
+        private double latencyTolerance = 2.0;
+
+        /**
+         * Facteur de réduction multiplicative.
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * Fenêtre après laquelle le RTT minimal de référence est réinitialisé.
+         */
+        private Duration rttWindow = Duration.ofSeconds(30);
+
+        /**
+         * Retry-After renvoyé quand la limite est atteinte.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    /**
+     * Disjoncteur vers un service.
+     */
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+
+        /**
+         * Nombre de derniers appels pris en compte.
+         */
+        private int windowSize = 50;
+
+        /**
+         * Nombre minimal d'appels avant de pouvoir ouvrir le circuit.
+         */
+        private int minimumCalls = 20;
+
+        /**
+         * Taux d'échec (en %) qui ouvre le circuit.
+         */
+        private int failureRateThreshold = 50;
+
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        /**
+         * Appels d'essai autorisés en semi-ouvert.
+         */
+        private int halfOpenCalls = 3;
+    }
+
+    /**
+     * Requêtes couvertes (hedging) pour les lectures idempotentes.
+     */
+    @Getter
+    @Setter
+    public static class Hedging {
+
+        private boolean enabled = true;
+
+        /**
+         * Méthodes idempotentes ("package.Service/Methode") : seules celles-ci sont couvertes.
+         */
+        private List<String> methods = new ArrayList<>();
+
+        /**
+         * Percentile de latence après lequel la seconde tentative part.
+         */
+        private double percentile = 0.95;
+
+        private Duration minDelay = Duration.ofMillis(5);
+
+        private Duration maxDelay = Duration.ofMillis(500);
+
+        /**
+         * Mesures nécessaires avant de couvrir une méthode.
+         */
+        private int minSamples = 50;
+
+        /**
+         * Nombre de dernières latences conservées par méthode.
+         */
+        private int sampleWindow = 512;
+
+        /**
+         * Part du trafic d'un service pouvant être doublée (0.1 = 10 %).
+         */
+        private double budgetRatio = 0.1;
+
+        /**
+         * Réserve maximale de tentatives supplémentaires (rafale).
+         */
+        private int budgetMaxTokens = 20;
+    }
+
+    /**
+     * Trafic miroir vers une version candidate d'un service (lectures seules).
+     */
+    @Getter
+    @Setter
+    public static class Shadow {
+
+        private boolean enabled = false;
+
+        /**
+         * Cible miroir par service ("hôte:port"), ex: user-service -> user-candidate:9002.
+         */
+        private Map<String, String> targets = new HashMap<>();
+
+        /**
+         * Méthodes en lecture seule ("package.Service/Methode") : seules celles-ci sont dupliquées.
+         */
+        private List<String> methods = new ArrayList<>();
+
+        /**
+         * Part des appels dupliqués (0..1).
+         */
+        private double sampleRate = 0.1;
+
+        /**
+         * Appels en attente d'envoi vers la cible ; au-delà, ils ne sont pas dupliqués.
+         */
+        private int queueSize = 1000;
+
+        /**
+         * Appels simultanés maximum vers la cible.
+         */
+        private int maxInFlight = 32;
+
+        private Duration deadline = Duration.ofSeconds(3);
+
+        /**
+         * Champs ignorés dans la comparaison des réponses, à toute profondeur
+         * (ex: updatedAt), ou seulement à un chemin pointé (ex: alert.updatedAt).
+         */
+        private List<String> ignoredFields = new ArrayList<>();
+
+        /**
+         * Intervalle du résumé comparatif dans les logs.
+         */
+        private Duration summaryInterval = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.codistrib.apigateway.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Serveur Netty de la gateway : HTTP/2 et métriques de connexion.
+ *
+ * HTTP/2 est activé par server.http2.enabled :
+ * - avec TLS (server.ssl.*) : h2 négocié par ALPN, HTTP/1.1 en repli
+ * - sans TLS (dev local) : h2c (prior knowledge ou upgrade) et HTTP/1.1
+ *
+ * Les apps mobiles multiplexent alors leurs requêtes sur une seule connexion
+ * au lieu d'en ouvrir plusieurs en parallèle.
+ */
+@Slf4j
+@Configuration
+public class HttpServerConfig {
+
+    @Value("${http-server.http2.max-concurrent-streams:250}")
+    private long maxConcurrentStreams;
+
+    @Value("${http-server.http2.initial-window-size:1048576}")
+    private int initialWindowSize;
+
+    @Value("${http-server.idle-timeout:120s}")
+    private Duration idleTimeout;
+
+    @Value("${http-server.metrics.enabled:true}")
+    private boolean metricsEnabled;
+
+    /**
+     * Réglages HTTP/2 et métriques Reactor Netty
+     * (reactor.netty.http.server.connections.active, streams.active, ...).
+     */
+    @Bean
+    public NettyServerCustomizer http2ServerCustomizer() {
+        log.info("Serveur HTTP - {} stream(s) HTTP/2 max par connexion, idle timeout {}s",
+            maxConcurrentStreams, idleTimeout.toSeconds());
+
+        return httpServer -> httpServer
+            .idleTimeout(idleTimeout)
+            .http2Settings(settings -> settings
+                .maxConcurrentStreams(maxConcurrentStreams)
+                .initialWindowSize(initialWindowSize))
+            // URI regroupée : la latence par route est déjà dans http.server.requests
+            .metrics(metricsEnabled, uri -> "/**");
+    }
+
+    /**
+     * Nombre moyen de streams HTTP/2 actifs par connexion active.
+     */
+    @Bean
+    public Gauge http2StreamsPerConnection(MeterRegistry meterRegistry) {
+        return Gauge.builder("gateway.http2.streams_per_connection", meterRegistry, HttpServerConfig::streamsPerConnection)
+            .description("Streams HTTP/2 actifs par connexion active")
+            .register(meterRegistry);
+    }
+
+    private static double streamsPerConnection(MeterRegistry registry) {
+        double streams = sum(registry, "reactor.netty.http.server.streams.active");
+        double connections = sum(registry, "reactor.netty.http.server.connections.active");
+        return connections > 0 ? streams / connections : 0;
+    }
+
+    private static double sum(MeterRegistry registry, String name) {
+        return registry.find(name).gauges().stream()
+            .mapToDouble(Gauge::value)
+            .filter(Double::isFinite)
+            .sum();
+    }
+}
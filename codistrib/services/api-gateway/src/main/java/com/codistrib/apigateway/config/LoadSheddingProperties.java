@@ -0,0 +1,87 @@
+package com.codistrib.apigateway.config;
+
+import com.codistrib.apigateway.shedding.RequestPriority;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Délestage par priorité (load-shedding.*).
+ *
+ * Ex:
+ *   load-shedding:
+ *     routes:
+ *       - pattern: "POST /api/v1/alerts/create"
+ *         priority: EMERGENCY
+ *     roles:
+ *       ADMINISTRATOR: BATCH
+ */
+@Component
+@ConfigurationProperties(prefix = "load-shedding")
+@Getter
+@Setter
+public class LoadSheddingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Requêtes traitées simultanément par l'instance, toutes classes confondues.
+     */
+    private int maxInFlight = 2000;
+
+    /**
+     * Part de maxInFlight réservée aux requêtes EMERGENCY.
+     */
+    private double emergencyReservedShare = 0.2;
+
+    /**
+     * Charge CPU (0..1) au-delà de laquelle l'instance est en surcharge.
+     */
+    private double cpuThreshold = 0.85;
+
+    /**
+     * Délai d'attente dans les event-loops Netty au-delà duquel l'instance est en surcharge.
+     */
+    private Duration queueDelayThreshold = Duration.ofMillis(50);
+
+    private Duration sampleInterval = Duration.ofMillis(100);
+
+    /**
+     * Échantillons consécutifs en surcharge avant de délester une classe de plus
+     * (y compris la première) : un pic isolé (pause GC) ne déleste rien.
+     */
+    private int overloadSamples = 5;
+
+    /**
+     * Échantillons consécutifs sous les seuils avant de réadmettre une classe.
+     */
+    private int recoverySamples = 10;
+
+    /**
+     * Priorité par route (première correspondance), préfixe de méthode optionnel.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    /**
+     * Priorité par rôle, si aucune route ne correspond.
+     */
+    private Map<String, RequestPriority> roles = new HashMap<>();
+
+    private RequestPriority defaultPriority = RequestPriority.INTERACTIVE;
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        private String pattern;
+
+        private RequestPriority priority;
+    }
+}
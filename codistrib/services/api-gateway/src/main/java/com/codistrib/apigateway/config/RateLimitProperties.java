@@ -0,0 +1,73 @@
+package com.codistrib.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Politiques de rate limiting par route.
+ *
+ * Chargées depuis application.yml (rate-limit.routes). Une route qui ne
+ * correspond à aucune politique utilise rate-limit.default.
+ *
+ * Ex:
+ *   rate-limit:
+ *     routes:
+ *       - id: auth-login
+ *         pattern: "/api/v1/auth/login"
+ *         requests-per-second: 1
+ *         burst-capacity: 5
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+
+    private List<RoutePolicy> routes = new ArrayList<>();
+
+    /**
+     * Plafond par IP des routes d'urgence (load-shedding.routes EMERGENCY)
+     * quand l'appelant n'a pas de token PERSON_DI valide. Les PersonDI
+     * vérifiées ne sont pas limitées.
+     */
+    private EmergencyPolicy emergency = new EmergencyPolicy();
+
+    @Getter
+    @Setter
+    public static class RoutePolicy {
+
+        /**
+         * Identifiant de la politique (utilisé dans la clé Redis du bucket).
+         */
+        private String id;
+
+        /**
+         * Pattern Ant de la route (ex: /api/v1/auth/**).
+         */
+        private String pattern;
+
+        /**
+         * Débit de remplissage du bucket.
+         */
+        private int requestsPerSecond;
+
+        /**
+         * Nombre maximum de requêtes acceptées en rafale.
+         */
+        private int burstCapacity;
+    }
+
+    @Getter
+    @Setter
+    public static class EmergencyPolicy {
+
+        private int requestsPerSecond = 20;
+
+        private int burstCapacity = 400;
+    }
+}
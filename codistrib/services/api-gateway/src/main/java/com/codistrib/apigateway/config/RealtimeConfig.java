@@ -0,0 +1,35 @@
+package com.codistrib.apigateway.config;
+
+import com.codistrib.apigateway.realtime.RealtimeWebSocketHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Enregistre l'endpoint WebSocket temps réel.
+ *
+ * Le handshake est une requête GET classique : elle traverse la chaîne de
+ * filtres (rate limiting, JwtAuthFilter, quotas, délestage) avant l'upgrade.
+ */
+@Slf4j
+@Configuration
+public class RealtimeConfig {
+
+    @Bean
+    public HandlerMapping realtimeHandlerMapping(RealtimeProperties properties,
+                                                 RealtimeWebSocketHandler handler) {
+        if (!properties.isEnabled()) {
+            log.info("Canal temps réel désactivé");
+            return new SimpleUrlHandlerMapping(Map.of(), Ordered.LOWEST_PRECEDENCE);
+        }
+
+        log.info("Canal temps réel WebSocket sur {}", properties.getPath());
+        // Avant le routeur de transcodage
+        return new SimpleUrlHandlerMapping(Map.of(properties.getPath(), handler), Ordered.HIGHEST_PRECEDENCE);
+    }
+}
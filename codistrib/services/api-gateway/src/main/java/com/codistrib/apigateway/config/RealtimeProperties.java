@@ -0,0 +1,56 @@
+package com.codistrib.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Canal temps réel WebSocket (realtime.*).
+ *
+ * Ex:
+ *   realtime:
+ *     path: /api/v1/realtime/ws
+ *     send-queue-size: 256
+ */
+@Component
+@ConfigurationProperties(prefix = "realtime")
+@Getter
+@Setter
+public class RealtimeProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Chemin de l'endpoint WebSocket (authentifié par JwtAuthFilter au handshake).
+     */
+    private String path = "/api/v1/realtime/ws";
+
+    /**
+     * Préfixe des canaux Redis pub/sub : un topic "alerts:open" est publié sur "rt:alerts:open".
+     */
+    private String channelPrefix = "rt:";
+
+    /**
+     * Nombre maximal de topics par connexion.
+     */
+    private int maxTopicsPerConnection = 32;
+
+    /**
+     * Messages en attente d'envoi par connexion : au-delà, le client est jugé
+     * trop lent et la connexion est fermée.
+     */
+    private int sendQueueSize = 256;
+
+    /**
+     * Intervalle des pings serveur (et de la vérification d'expiration du token).
+     */
+    private Duration heartbeat = Duration.ofSeconds(30);
+
+    /**
+     * Deadline des vérifications d'autorisation (appel à alert-service).
+     */
+    private Duration authorizationTimeout = Duration.ofSeconds(2);
+}
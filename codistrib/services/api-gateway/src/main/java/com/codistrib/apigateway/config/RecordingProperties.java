@@ -0,0 +1,92 @@
+package com.codistrib.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enregistrement du trafic pour le rejeu en test de charge (traffic-recording.*).
+ *
+ * Désactivé par défaut. Ex:
+ *   traffic-recording:
+ *     enabled: true
+ *     directory: /var/lib/gateway/recordings
+ *     segment-size: 64MB
+ *     max-segments: 20
+ */
+@Component
+@ConfigurationProperties(prefix = "traffic-recording")
+@Getter
+@Setter
+public class RecordingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Répertoire des segments (un répertoire par instance).
+     */
+    private String directory = "recordings";
+
+    /**
+     * Taille d'un segment (fichier projeté en mémoire) avant rotation.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Segments conservés : les plus anciens sont supprimés.
+     */
+    private int maxSegments = 20;
+
+    /**
+     * Part des requêtes enregistrées (0..1).
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Requêtes en attente d'écriture ; au-delà, elles ne sont pas enregistrées.
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Corps plus gros : seule leur taille est enregistrée.
+     */
+    private DataSize maxBodySize = DataSize.ofKilobytes(8);
+
+    /**
+     * Routes jamais enregistrées.
+     */
+    private List<String> excludedPaths = new ArrayList<>(List.of("/actuator/**", "/api/v1/realtime/**"));
+
+    /**
+     * En-têtes conservés (Authorization et l'IP ne sont jamais enregistrés tels quels).
+     */
+    private List<String> headers = new ArrayList<>(List.of(
+        "Content-Type", "Accept", "Accept-Encoding", "Accept-Language", "If-None-Match", "X-Request-Timeout"));
+
+    /**
+     * Champs JSON dont la valeur est masquée dans les corps enregistrés :
+     * secrets, données personnelles et coordonnées.
+     */
+    private List<String> redactedFields = new ArrayList<>(List.of(
+        "password", "newPassword", "currentPassword", "accessToken", "refreshToken", "token", "secret",
+        "identifier", "email", "username", "firstName", "lastName", "phoneNumber", "address",
+        "lat", "lon", "lng", "latitude", "longitude"));
+
+    /**
+     * Champs JSON d'identifiants remplacés par un pseudonyme, le même que dans
+     * les chemins et le token : le rejeu garde les liens entre requêtes.
+     */
+    private List<String> pseudonymizedFields = new ArrayList<>(List.of(
+        "userId", "personId", "helperId", "alertId"));
+
+    /**
+     * Paramètres de query string enregistrés avec leur valeur ; la valeur des
+     * autres est masquée.
+     */
+    private List<String> queryParams = new ArrayList<>(List.of("page", "size", "limit", "offset", "sort"));
+}
@@ -2,11 +2,16 @@ package com.codistrib.apigateway.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.List;
+
 @Configuration
 public class RedisConfig {
 
@@ -32,4 +37,38 @@ public class RedisConfig {
         
         return new ReactiveRedisTemplate<>(connectionFactory, context);
     }
-}
\ No newline at end of file
+
+    /**
+     * Script Lua du token bucket utilisé par le RateLimitFilter.
+     * 
+     * Exécuté côté serveur en un seul aller-retour : remplissage, consommation
+     * et expiration du bucket sont atomiques.
+     */
+    @Bean
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RedisScript<List<Long>> tokenBucketScript() {
+        return (RedisScript) RedisScript.of(new ClassPathResource("scripts/token_bucket.lua"), List.class);
+    }
+
+    /**
+     * Script Lua des quotas par utilisateur (UserQuotaFilter).
+     *
+     * Compteurs stockés en champs de hash par fenêtre de temps : une seule clé
+     * par utilisateur, deux champs par classe de route.
+     */
+    @Bean
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RedisScript<List<Long>> userQuotaScript() {
+        return (RedisScript) RedisScript.of(new ClassPathResource("scripts/user_quota.lua"), List.class);
+    }
+
+    /**
+     * Container pub/sub partagé : tous les abonnements dynamiques (canal temps
+     * réel) passent par une seule connexion Redis.
+     */
+    @Bean(destroyMethod = "destroy")
+    public ReactiveRedisMessageListenerContainer redisMessageListenerContainer(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        return new ReactiveRedisMessageListenerContainer(connectionFactory);
+    }
+}
@@ -0,0 +1,60 @@
+package com.codistrib.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deadline de bout en bout des requêtes HTTP (request-deadline.*).
+ *
+ * Ex:
+ *   request-deadline:
+ *     default-timeout: 10s
+ *     routes:
+ *       - pattern: "/api/v1/auth/**"
+ *         timeout: 5s
+ */
+@Component
+@ConfigurationProperties(prefix = "request-deadline")
+@Getter
+@Setter
+public class RequestDeadlineProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * En-tête par lequel le client indique son propre délai ("800", "800ms", "2s").
+     */
+    private String header = "X-Request-Timeout";
+
+    /**
+     * Délai si aucune route ne correspond et sans en-tête.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Bornes appliquées au délai demandé par le client.
+     */
+    private Duration minTimeout = Duration.ofMillis(50);
+
+    private Duration maxTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Délai par route (première correspondance).
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        private String pattern;
+
+        private Duration timeout;
+    }
+}
@@ -0,0 +1,71 @@
+package com.codistrib.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache des réponses GET à la gateway (response-cache.*).
+ *
+ * Ex:
+ *   response-cache:
+ *     routes:
+ *       - pattern: "/api/v1/alerts/helper/*"
+ *         ttl: 5s
+ *         scope: USER
+ *         coalesce: true
+ */
+@Component
+@ConfigurationProperties(prefix = "response-cache")
+@Getter
+@Setter
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Taille maximale totale des corps en cache.
+     */
+    private long maxBytes = 32L * 1024 * 1024;
+
+    /**
+     * Les réponses plus grandes ne sont pas mises en cache.
+     */
+    private int maxEntryBytes = 256 * 1024;
+
+    private List<Route> routes = new ArrayList<>();
+
+    /**
+     * Portée d'une entrée : partagée, par rôle ou par utilisateur.
+     */
+    public enum Scope {
+        PUBLIC,
+        ROLE,
+        USER
+    }
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        /**
+         * Pattern Ant de la route.
+         */
+        private String pattern;
+
+        private Duration ttl = Duration.ofSeconds(5);
+
+        private Scope scope = Scope.USER;
+
+        /**
+         * Regroupe les requêtes identiques en cours en un seul appel au service.
+         * Avec ttl: 0, la route est regroupée sans être mise en cache.
+         */
+        private boolean coalesce = false;
+    }
+}
@@ -0,0 +1,105 @@
+package com.codistrib.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes REST transcodées vers des méthodes gRPC (transcoding.routes).
+ *
+ * Le message gRPC est construit à partir :
+ * 1. du corps JSON de la requête
+ * 2. des variables de chemin et paramètres de requête (même nom que le champ proto)
+ * 3. des bindings explicites, appliqués en dernier (ex: personId <- header:X-User-Id)
+ *
+ * Ex:
+ *   transcoding:
+ *     routes:
+ *       - method: GET
+ *         path: "/api/v1/alerts/{alertId}"
+ *         service: alert-service
+ *         rpc: com.codistrib.proto.alert.AlertService/GetAlert
+ *         owner-field: alert.personId
+ *         assigned-helper: true
+ *       - method: GET
+ *         path: "/api/v1/users/{userId}"
+ *         excluded-paths: ["/api/v1/users/all"]
+ *         owner: userId
+ *         assigned-helper: true
+ *
+ * Une route avec owner n'est servie que si la variable de chemin vaut le
+ * X-User-Id de l'appelant (ADMINISTRATOR exempté ; HELPER assigné à la
+ * PersonDI si assigned-helper), sinon 403. owner-field applique le même
+ * contrôle au propriétaire lu dans la réponse, quand le chemin ne porte
+ * que l'identifiant de la ressource.
+ */
+@Component
+@ConfigurationProperties(prefix = "transcoding")
+@Getter
+@Setter
+public class TranscodingProperties {
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        /**
+         * Méthode HTTP (GET, POST, ...).
+         */
+        private String method;
+
+        /**
+         * Pattern du chemin REST, avec variables (ex: /api/v1/alerts/{alertId}).
+         */
+        private String path;
+
+        /**
+         * Nom du client gRPC (clé de grpc.client.*).
+         */
+        private String service;
+
+        /**
+         * Nom complet de la méthode gRPC : package.Service/Methode.
+         */
+        private String rpc;
+
+        /**
+         * Statut HTTP en cas de succès.
+         */
+        private int status = 200;
+
+        /**
+         * Champ proto -> source (header:Nom, path:nom, query:nom).
+         */
+        private Map<String, String> bindings = new HashMap<>();
+
+        /**
+         * Chemins qui correspondent au pattern mais ne sont pas transcodés (ex: /api/v1/users/all).
+         */
+        private List<String> excludedPaths = new ArrayList<>();
+
+        /**
+         * Variable de chemin désignant le propriétaire de la ressource (comparée à X-User-Id).
+         */
+        private String owner;
+
+        /**
+         * Champ de la réponse désignant le propriétaire, en notation pointée
+         * (ex: alert.personId). Exclusif avec owner.
+         */
+        private String ownerField;
+
+        /**
+         * Un HELPER assigné à la PersonDI propriétaire y a aussi accès.
+         */
+        private boolean assignedHelper = false;
+    }
+}
@@ -0,0 +1,64 @@
+package com.codistrib.apigateway.config;
+
+import com.codistrib.apigateway.grpc.GrpcChannelRegistry;
+import com.codistrib.apigateway.grpc.hedging.HedgingExecutor;
+import com.codistrib.apigateway.security.HelperAssignments;
+import com.codistrib.apigateway.transcoding.GrpcTranscoder;
+import com.codistrib.apigateway.transcoding.ProtoServiceCatalog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Configuration
+public class TranscodingRouterConfig {
+
+    /**
+     * Routes REST -> gRPC déclarées dans transcoding.routes.
+     * 
+     * Chaque route est vérifiée au démarrage (méthode gRPC existante, unaire,
+     * service configuré) : une erreur de configuration empêche le démarrage.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> transcodingRoutes(TranscodingProperties properties,
+                                                            ProtoServiceCatalog catalog,
+                                                            GrpcChannelRegistry channels,
+                                                            HedgingExecutor hedging,
+                                                            HelperAssignments assignments) {
+        if (properties.getRoutes().isEmpty()) {
+            return request -> Mono.empty();
+        }
+
+        RouterFunctions.Builder builder = RouterFunctions.route();
+        for (TranscodingProperties.Route route : properties.getRoutes()) {
+            if (!channels.services().contains(route.getService())) {
+                throw new IllegalStateException("Service gRPC non configuré pour " + route.getPath()
+                    + ": " + route.getService());
+            }
+            if (route.getOwner() != null && !route.getPath().contains("{" + route.getOwner() + "}")) {
+                throw new IllegalStateException("Variable owner absente du chemin " + route.getPath()
+                    + ": " + route.getOwner());
+            }
+            if (route.getOwner() != null && route.getOwnerField() != null) {
+                throw new IllegalStateException("owner et owner-field sont exclusifs pour " + route.getPath());
+            }
+            GrpcTranscoder transcoder = new GrpcTranscoder(route, catalog.find(route.getRpc()), channels, hedging,
+                assignments);
+            RequestPredicate predicate = RequestPredicates.method(HttpMethod.valueOf(route.getMethod().toUpperCase()))
+                .and(RequestPredicates.path(route.getPath()));
+            for (String excluded : route.getExcludedPaths()) {
+                predicate = predicate.and(RequestPredicates.path(excluded).negate());
+            }
+            builder.route(predicate, transcoder);
+            log.info("Route transcodée: {}", transcoder);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.codistrib.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quotas par utilisateur authentifié (user-quota.*).
+ *
+ * Complète le rate limiting par IP : la clé est le userId du token, la limite
+ * dépend du rôle et de la classe de la route. Une classe sans limite pour le
+ * rôle utilise la limite "default" du rôle ; un rôle sans limite n'a pas de quota.
+ *
+ * Ex:
+ *   user-quota:
+ *     window: 1m
+ *     route-classes:
+ *       - name: write
+ *         pattern: "POST /api/v1/**"
+ *     limits:
+ *       PERSON_DI:
+ *         write: 30
+ *         default: 300
+ */
+@Component
+@ConfigurationProperties(prefix = "user-quota")
+@Getter
+@Setter
+public class UserQuotaProperties {
+
+    public static final String DEFAULT_CLASS = "default";
+
+    private boolean enabled = true;
+
+    /**
+     * Durée d'une fenêtre de comptage.
+     */
+    private Duration window = Duration.ofMinutes(1);
+
+    /**
+     * Au-delà, Redis est considéré lent et la requête passe (le rate limiting par IP reste actif).
+     */
+    private Duration redisTimeout = Duration.ofMillis(50);
+
+    /**
+     * Durée pendant laquelle Redis est ignoré après une erreur.
+     */
+    private Duration redisRetryAfter = Duration.ofSeconds(5);
+
+    /**
+     * Classes de route, première correspondance gagnante ("METHODE /pattern" ou "/pattern").
+     */
+    private List<RouteClass> routeClasses = new ArrayList<>();
+
+    /**
+     * Limites par rôle puis par classe (requêtes par fenêtre).
+     */
+    private Map<String, Map<String, Integer>> limits = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class RouteClass {
+
+        private String name;
+
+        private String pattern;
+    }
+}
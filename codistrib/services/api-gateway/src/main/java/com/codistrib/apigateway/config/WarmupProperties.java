@@ -0,0 +1,59 @@
+package com.codistrib.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warm-up au démarrage (warmup.*).
+ *
+ * Tant que le warm-up n'est pas terminé, /actuator/health (et la sonde
+ * readiness) répond OUT_OF_SERVICE : le load balancer n'envoie pas encore de trafic.
+ */
+@Component
+@ConfigurationProperties(prefix = "warmup")
+@Getter
+@Setter
+public class WarmupProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Au-delà, le warm-up est interrompu et l'instance déclarée prête quand même.
+     */
+    private Duration maxDuration = Duration.ofSeconds(60);
+
+    /**
+     * Attente maximale de la connexion des channels gRPC.
+     */
+    private Duration grpcConnectTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Vérifications de tokens JWT (cache manqué puis cache touché).
+     */
+    private int jwtIterations = 20000;
+
+    /**
+     * Tokens synthétiques distincts utilisés.
+     */
+    private int jwtTokens = 256;
+
+    /**
+     * Requêtes synthétiques envoyées à la gateway elle-même (boucle locale),
+     * à garder sous le burst du rate limiting par défaut.
+     */
+    private int requests = 150;
+
+    private int concurrency = 8;
+
+    /**
+     * Chemins appelés : non routés (404), ils traversent toute la chaîne de
+     * filtres sans appeler de service.
+     */
+    private List<String> paths = new ArrayList<>(List.of("/api/v1/warmup"));
+}
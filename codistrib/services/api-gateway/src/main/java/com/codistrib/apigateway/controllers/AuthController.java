@@ -1,16 +1,22 @@
 package com.codistrib.apigateway.controllers;
 
+import com.codistrib.apigateway.codec.ProtobufNegotiation;
 import com.codistrib.apigateway.dto.auth.*;
 import com.codistrib.apigateway.grpc.AuthServiceGrpcClient;
+import com.codistrib.apigateway.grpc.GrpcStatusMapper;
 import com.codistrib.proto.auth.*;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
@@ -18,12 +24,17 @@ import java.util.Map;
  * Controller REST pour les opérations d'authentification.
  zzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzz
  * Reçoit les requêtes JSON et les transmet au auth-service via gRPC.
+ * Les appels sont non bloquants : chaque endpoint retourne un {@link Mono}.
  * 
  * Endpoints :
  * - POST /api/v1/auth/register  - Inscription
  * - POST /api/v1/auth/login     - Connexion
  * - POST /api/v1/auth/refresh   - Rafraîchir le token
  * - POST /api/v1/auth/logout    - Déconnexion
+ *
+ * Les réponses sont en JSON, ou directement le message protobuf (TokenResponse,
+ * LogoutResponse) si le client envoie "Accept: application/x-protobuf".
+ * Les erreurs restent toujours en JSON.
  */
 @Slf4j
 @RestController
@@ -37,121 +48,103 @@ public class AuthController {
      * Inscription d'un nouvel utilisateur.
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequestDto request) {
+    public Mono<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequestDto request,
+                                            ServerHttpRequest httpRequest) {
         log.info("POST /api/v1/auth/register - username: {}, email: {}", 
             request.getUsername(), request.getEmail());
         
-        try {
-            // Convertir le rôle string en enum
-            UserRole role = convertRole(request.getRole());
-            
-            // Construire la requête gRPC
-            RegisterRequest grpcRequest = RegisterRequest.newBuilder()
-                .setUsername(request.getUsername())
-                .setEmail(request.getEmail())
-                .setPassword(request.getPassword())
-                .setRole(role)
-                .build();
-            
+        return Mono.fromSupplier(() -> 
+                // Construire la requête gRPC (le rôle string est converti en enum)
+                RegisterRequest.newBuilder()
+                    .setUsername(request.getUsername())
+                    .setEmail(request.getEmail())
+                    .setPassword(request.getPassword())
+                    .setRole(convertRole(request.getRole()))
+                    .build())
             // Appeler le service gRPC
-            TokenResponse grpcResponse = authServiceClient.register(grpcRequest);
-            
+            .flatMap(authServiceClient::register)
             // Convertir la réponse en DTO
-            TokenResponseDto response = convertTokenResponse(grpcResponse);
-            
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-            
-        } catch (StatusRuntimeException e) {
-            return handleGrpcError(e);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of(
-                "error", "Bad Request",
-                "message", e.getMessage()
-            ));
-        }
+            .<ResponseEntity<?>>map(grpcResponse -> 
+                ResponseEntity.status(HttpStatus.CREATED).body(tokenBody(grpcResponse, httpRequest)))
+            .onErrorResume(StatusRuntimeException.class, e -> Mono.just(handleGrpcError(e)))
+            .onErrorResume(IllegalArgumentException.class, e -> Mono.just(
+                ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(Map.of(
+                    "error", "Bad Request",
+                    "message", e.getMessage()
+                ))));
     }
 
     /**
      * Connexion d'un utilisateur.
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequestDto request) {
+    public Mono<ResponseEntity<?>> login(@Valid @RequestBody LoginRequestDto request,
+                                         ServerHttpRequest httpRequest) {
         log.info("POST /api/v1/auth/login - identifier: {}", request.getIdentifier());
         
-        try {
-            // Construire la requête gRPC
-            LoginRequest grpcRequest = LoginRequest.newBuilder()
-                .setIdentifier(request.getIdentifier())
-                .setPassword(request.getPassword())
-                .build();
-            
-            // Appeler le service gRPC
-            TokenResponse grpcResponse = authServiceClient.login(grpcRequest);
-            
-            // Convertir la réponse en DTO
-            TokenResponseDto response = convertTokenResponse(grpcResponse);
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (StatusRuntimeException e) {
-            return handleGrpcError(e);
-        }
+        // Construire la requête gRPC
+        LoginRequest grpcRequest = LoginRequest.newBuilder()
+            .setIdentifier(request.getIdentifier())
+            .setPassword(request.getPassword())
+            .build();
+        
+        return authServiceClient.login(grpcRequest)
+            .<ResponseEntity<?>>map(grpcResponse -> ResponseEntity.ok(tokenBody(grpcResponse, httpRequest)))
+            .onErrorResume(StatusRuntimeException.class, e -> Mono.just(handleGrpcError(e)));
     }
 
     /**
      * Rafraîchissement du token.
      */
     @PostMapping("/refresh")
-    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequestDto request) {
+    public Mono<ResponseEntity<?>> refreshToken(@Valid @RequestBody RefreshTokenRequestDto request,
+                                                ServerHttpRequest httpRequest) {
         log.info("POST /api/v1/auth/refresh");
         
-        try {
-            // Construire la requête gRPC
-            RefreshTokenRequest grpcRequest = RefreshTokenRequest.newBuilder()
-                .setRefreshToken(request.getRefreshToken())
-                .build();
-            
-            // Appeler le service gRPC
-            TokenResponse grpcResponse = authServiceClient.refreshToken(grpcRequest);
-            
-            // Convertir la réponse en DTO
-            TokenResponseDto response = convertTokenResponse(grpcResponse);
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (StatusRuntimeException e) {
-            return handleGrpcError(e);
-        }
+        // Construire la requête gRPC
+        RefreshTokenRequest grpcRequest = RefreshTokenRequest.newBuilder()
+            .setRefreshToken(request.getRefreshToken())
+            .build();
+        
+        return authServiceClient.refreshToken(grpcRequest)
+            .<ResponseEntity<?>>map(grpcResponse -> ResponseEntity.ok(tokenBody(grpcResponse, httpRequest)))
+            .onErrorResume(StatusRuntimeException.class, e -> Mono.just(handleGrpcError(e)));
     }
 
     /**
      * Déconnexion d'un utilisateur.
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(@Valid @RequestBody LogoutRequestDto request) {
+    public Mono<ResponseEntity<?>> logout(@Valid @RequestBody LogoutRequestDto request,
+                                          ServerHttpRequest httpRequest) {
         log.info("POST /api/v1/auth/logout");
         
-        try {
-            // Construire la requête gRPC
-            LogoutRequest grpcRequest = LogoutRequest.newBuilder()
-                .setAccessToken(request.getAccessToken())
-                .setRefreshToken(request.getRefreshToken())
-                .build();
-            
-            // Appeler le service gRPC
-            LogoutResponse grpcResponse = authServiceClient.logout(grpcRequest);
-            
-            // Construire la réponse
-            LogoutResponseDto response = LogoutResponseDto.builder()
-                .success(grpcResponse.getSuccess())
-                .message(grpcResponse.getSuccess() ? "Déconnexion réussie" : "Échec de la déconnexion")
-                .build();
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (StatusRuntimeException e) {
-            return handleGrpcError(e);
+        // Construire la requête gRPC
+        LogoutRequest grpcRequest = LogoutRequest.newBuilder()
+            .setAccessToken(request.getAccessToken())
+            .setRefreshToken(request.getRefreshToken())
+            .build();
+        
+        return authServiceClient.logout(grpcRequest)
+            .<ResponseEntity<?>>map(grpcResponse -> ResponseEntity.ok(
+                ProtobufNegotiation.acceptsProtobuf(httpRequest.getHeaders())
+                    ? grpcResponse
+                    : LogoutResponseDto.builder()
+                        .success(grpcResponse.getSuccess())
+                        .message(grpcResponse.getSuccess() ? "Déconnexion réussie" : "Échec de la déconnexion")
+                        .build()))
+            .onErrorResume(StatusRuntimeException.class, e -> Mono.just(handleGrpcError(e)));
+    }
+
+    /**
+     * Corps d'une réponse de token : le message protobuf tel quel si le client
+     * le demande, sinon le DTO JSON.
+     */
+    private Object tokenBody(TokenResponse grpcResponse, ServerHttpRequest httpRequest) {
+        if (ProtobufNegotiation.acceptsProtobuf(httpRequest.getHeaders())) {
+            return grpcResponse;
         }
+        return convertTokenResponse(grpcResponse);
     }
 
     /**
@@ -205,19 +198,19 @@ public class AuthController {
             ? status.getDescription() 
             : "Une erreur est survenue";
         
-        HttpStatus httpStatus = switch (status.getCode()) {
-            case NOT_FOUND -> HttpStatus.NOT_FOUND;
-            case ALREADY_EXISTS -> HttpStatus.CONFLICT;
-            case INVALID_ARGUMENT -> HttpStatus.BAD_REQUEST;
-            case UNAUTHENTICATED -> HttpStatus.UNAUTHORIZED;
-            case PERMISSION_DENIED -> HttpStatus.FORBIDDEN;
-            case UNAVAILABLE -> HttpStatus.SERVICE_UNAVAILABLE;
-            default -> HttpStatus.INTERNAL_SERVER_ERROR;
-        };
+        HttpStatus httpStatus = GrpcStatusMapper.toHttpStatus(status.getCode());
         
         log.error("Erreur gRPC - code: {}, message: {}", status.getCode(), description);
         
-        return ResponseEntity.status(httpStatus).body(Map.of(
+        // Type fixé : une erreur est toujours renvoyée en JSON, même si le client accepte protobuf
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(httpStatus)
+            .contentType(MediaType.APPLICATION_JSON);
+        String retryAfter = GrpcStatusMapper.retryAfterSeconds(e);
+        if (retryAfter != null) {
+            builder.header(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+
+        return builder.body(Map.of(
             "error", httpStatus.getReasonPhrase(),
             "message", description,
             "grpcCode", status.getCode().name()
@@ -0,0 +1,59 @@
+package com.codistrib.apigateway.controllers;
+
+import com.codistrib.apigateway.batch.BatchExecutor;
+import com.codistrib.apigateway.config.BatchProperties;
+import com.codistrib.apigateway.dto.batch.BatchRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Controller REST de l'endpoint batch.
+ *
+ * Sur un réseau mobile lent, chaque requête coûte un aller-retour complet.
+ * Après le login, l'app envoie ses appels indépendants en un seul batch et
+ * reçoit tous les résultats ensemble : un aller-retour au lieu de cinq.
+ *
+ * Endpoint :
+ * - POST /api/v1/batch  - Sous-requêtes exécutées en parallèle (batch.concurrency)
+ *
+ * Chaque sous-requête est autorisée comme une requête isolée
+ * ({@link BatchExecutor}) : la réponse est toujours 200, avec le statut
+ * propre de chaque sous-requête.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/batch")
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchExecutor batchExecutor;
+    private final BatchProperties properties;
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> batch(@Valid @RequestBody BatchRequest request,
+                                         ServerHttpRequest httpRequest) {
+        log.debug("POST /api/v1/batch - {} sous-requête(s)", request.requests().size());
+
+        if (!properties.isEnabled()) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+
+        return Mono.fromRunnable(() -> batchExecutor.validate(request))
+            .then(Mono.defer(() -> batchExecutor.execute(request, httpRequest)))
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .onErrorResume(IllegalArgumentException.class, e -> Mono.just(
+                ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(Map.of(
+                    "error", HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                    "message", e.getMessage()
+                ))));
+    }
+}
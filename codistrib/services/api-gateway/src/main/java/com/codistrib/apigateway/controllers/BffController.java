@@ -0,0 +1,89 @@
+package com.codistrib.apigateway.controllers;
+
+import com.codistrib.apigateway.bff.HomeAggregator;
+import com.codistrib.apigateway.grpc.GrpcStatusMapper;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Controller REST des écrans agrégés (backend for frontend).
+ *
+ * Un seul aller-retour mobile par écran : la gateway interroge user-service
+ * et alert-service en parallèle ({@link HomeAggregator}) et renvoie une
+ * réponse compacte, éventuellement partielle ("partial": true, "missing": [...]).
+ *
+ * Endpoints :
+ * - GET /api/v1/bff/helper/home  - Accueil aidant (rôle HELPER)
+ * - GET /api/v1/bff/person/home  - Accueil PersonDI (rôle PERSON_DI)
+ *
+ * L'utilisateur est celui du token (header X-User-Id posé par JwtAuthFilter).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/bff")
+@RequiredArgsConstructor
+public class BffController {
+
+    private final HomeAggregator homeAggregator;
+
+    /**
+     * Accueil aidant.
+     */
+    @GetMapping("/helper/home")
+    public Mono<ResponseEntity<?>> helperHome(@RequestHeader("X-User-Id") String userId) {
+        log.debug("GET /api/v1/bff/helper/home - userId: {}", userId);
+
+        return homeAggregator.helperHome(userId)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .onErrorResume(StatusRuntimeException.class, e -> Mono.just(handleGrpcError(e)));
+    }
+
+    /**
+     * Accueil PersonDI.
+     */
+    @GetMapping("/person/home")
+    public Mono<ResponseEntity<?>> personHome(@RequestHeader("X-User-Id") String userId) {
+        log.debug("GET /api/v1/bff/person/home - userId: {}", userId);
+
+        return homeAggregator.personHome(userId)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .onErrorResume(StatusRuntimeException.class, e -> Mono.just(handleGrpcError(e)));
+    }
+
+    /**
+     * Aucune partie n'a pu être chargée : statut HTTP de la dernière erreur gRPC.
+     */
+    private ResponseEntity<?> handleGrpcError(StatusRuntimeException e) {
+        Status status = e.getStatus();
+        String description = status.getDescription() != null
+            ? status.getDescription()
+            : "Une erreur est survenue";
+
+        HttpStatus httpStatus = GrpcStatusMapper.toHttpStatus(status.getCode());
+
+        log.error("Erreur gRPC (BFF) - code: {}, message: {}", status.getCode(), description);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(httpStatus)
+            .contentType(MediaType.APPLICATION_JSON);
+        String retryAfter = GrpcStatusMapper.retryAfterSeconds(e);
+        if (retryAfter != null) {
+            builder.header(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+
+        return builder.body(Map.of(
+            "error", httpStatus.getReasonPhrase(),
+            "message", description,
+            "grpcCode", status.getCode().name()
+        ));
+    }
+}
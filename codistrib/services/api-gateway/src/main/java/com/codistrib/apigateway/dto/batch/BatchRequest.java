@@ -0,0 +1,38 @@
+package com.codistrib.apigateway.dto.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Liste de sous-requêtes exécutées en un seul aller-retour.
+ *
+ * Ex:
+ *   {"requests": [
+ *     {"id": "me", "method": "GET", "path": "/api/v1/users/42"},
+ *     {"id": "home", "method": "GET", "path": "/api/v1/bff/helper/home"}
+ *   ]}
+ */
+public record BatchRequest(
+    @NotEmpty(message = "Au moins une sous-requête est requise")
+    List<@Valid SubRequest> requests
+) {
+
+    /**
+     * @param id      identifiant libre, repris dans la réponse (sinon l'index)
+     * @param headers en-têtes supplémentaires (liste blanche batch.forwarded-headers)
+     * @param body    corps JSON éventuel
+     */
+    public record SubRequest(
+        String id,
+        @NotBlank(message = "La méthode HTTP est requise") String method,
+        @NotBlank(message = "Le chemin est requis") String path,
+        Map<String, String> headers,
+        JsonNode body
+    ) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.codistrib.apigateway.dto.batch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Résultats d'un batch, dans l'ordre des sous-requêtes.
+ */
+public record BatchResponse(List<SubResponse> responses) {
+
+    /**
+     * @param status statut HTTP de la sous-requête (ses propres 401, 403, 429...)
+     * @param body   corps JSON, ou texte si la réponse n'est pas du JSON
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public record SubResponse(
+        String id,
+        int status,
+        Map<String, String> headers,
+        JsonNode body
+    ) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.codistrib.apigateway.dto.bff;
+
+import com.codistrib.proto.alert.AlertProto.Alert;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Vue compacte d'une alerte pour les écrans d'accueil.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record AlertSummary(
+    String id,
+    String personId,
+    String helperId,
+    String type,
+    String status,
+    double lat,
+    double lon,
+    String createdAt
+) {
+
+    public static AlertSummary of(Alert alert) {
+        return new AlertSummary(alert.getId(), alert.getPersonId(), alert.getHelperId(),
+            alert.getType(), alert.getStatus(), alert.getLat(), alert.getLon(), alert.getCreatedAt());
+    }
+}
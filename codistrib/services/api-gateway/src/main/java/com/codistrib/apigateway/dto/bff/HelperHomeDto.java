@@ -0,0 +1,25 @@
+package com.codistrib.apigateway.dto.bff;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Écran d'accueil d'un aidant.
+ *
+ * partial est vrai si au moins une partie (listée dans missing) n'a pas pu
+ * être chargée avant le deadline.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HelperHomeDto(
+    UserSummary profile,
+    List<AlertSummary> assigned,
+    List<AlertSummary> open,
+    Map<String, UserSummary> persons,
+    Map<String, Integer> stats,
+    boolean partial,
+    @JsonInclude(JsonInclude.Include.NON_EMPTY) Set<String> missing
+) {
+}
@@ -0,0 +1,21 @@
+package com.codistrib.apigateway.dto.bff;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Écran d'accueil d'une PersonDI : son alerte en cours (et l'aidant assigné)
+ * et son historique récent.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PersonHomeDto(
+    UserSummary profile,
+    AlertSummary activeAlert,
+    UserSummary helper,
+    List<AlertSummary> recent,
+    boolean partial,
+    @JsonInclude(JsonInclude.Include.NON_EMPTY) Set<String> missing
+) {
+}
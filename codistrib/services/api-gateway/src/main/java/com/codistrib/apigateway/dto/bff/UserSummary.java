@@ -0,0 +1,27 @@
+package com.codistrib.apigateway.dto.bff;
+
+import com.codistrib.proto.user.GetUserResponse;
+import com.codistrib.proto.user.UserSnapshotResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Vue compacte d'un utilisateur (profil ou snapshot).
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record UserSummary(
+    String userId,
+    String name,
+    String status,
+    String role,
+    String pictureUrl
+) {
+
+    public static UserSummary of(GetUserResponse user) {
+        return new UserSummary(user.getUserId(), user.getName(), user.getStatus(), null, null);
+    }
+
+    public static UserSummary of(UserSnapshotResponse snapshot) {
+        return new UserSummary(snapshot.getUserId(), snapshot.getName(), null,
+            snapshot.getRole(), snapshot.getProfilePictureUrl());
+    }
+}
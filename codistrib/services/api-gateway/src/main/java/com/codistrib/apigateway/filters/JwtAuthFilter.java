@@ -1,6 +1,9 @@
 package com.codistrib.apigateway.filters;
 
+import com.codistrib.apigateway.security.JwtClaims;
 import com.codistrib.apigateway.security.JwtUtil;
+import com.codistrib.apigateway.security.RevocationList;
+import com.codistrib.apigateway.security.RouteAccess;
 import com.codistrib.apigateway.security.RouteValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +24,7 @@ import reactor.core.publisher.Mono;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Optional;
 
 @Slf4j
 @Component
@@ -30,6 +34,7 @@ public class JwtAuthFilter implements WebFilter {
 
     private final JwtUtil jwtUtil;
     private final RouteValidator routeValidator;
+    private final RevocationList revocationList;
 
     @Value("${jwt.header}")
     private String authHeader;
@@ -45,8 +50,9 @@ public class JwtAuthFilter implements WebFilter {
         
         log.debug("JwtAuthFilter - {} {}", method, path);
 
-        // ÉTAPE 1 : Route publique ?
-        if (routeValidator.isPublicRoute(path)) {
+        // ÉTAPE 1 : Route publique ? (une seule recherche dans la table de routage)
+        RouteAccess access = routeValidator.resolve(request.getMethod(), path);
+        if (access.isPublic()) {
             log.debug("Route publique, pas d'authentification requise: {}", path);
             return chain.filter(exchange);
         }
@@ -64,28 +70,28 @@ public class JwtAuthFilter implements WebFilter {
             return onError(exchange, "Format du token invalide. Utilisez: Bearer <token>", HttpStatus.UNAUTHORIZED);
         }
 
-        // ÉTAPE 3 : Extraire et valider le token
+        // ÉTAPE 3 : Extraire et valider le token (une seule vérification de signature)
         String token = authHeaderValue.substring(tokenPrefix.length());
 
-        if (!jwtUtil.validateToken(token)) {
+        Optional<JwtClaims> parsed = jwtUtil.parseToken(token);
+        if (parsed.isEmpty()) {
             log.warn("Token JWT invalide ou expiré pour: {}", path);
             return onError(exchange, "Token invalide ou expiré", HttpStatus.UNAUTHORIZED);
         }
 
-        // ÉTAPE 4 : Extraire les informations du token
-        String userId;
-        String role;
-        String email;
-        
-        try {
-            userId = jwtUtil.extractUserId(token);
-            role = jwtUtil.extractRole(token).substring(5);
-            email = jwtUtil.extractEmail(token);
-        } catch (Exception e) {
-            log.error("Erreur lors de l'extraction des claims JWT: {}", e.getMessage());
-            return onError(exchange, "Token malformé", HttpStatus.UNAUTHORIZED);
+        JwtClaims claims = parsed.get();
+
+        // Token révoqué (logout) ? Vérification en mémoire, sans appel à auth-service
+        if (revocationList.isRevoked(claims.tokenId())) {
+            log.warn("Token révoqué utilisé pour: {}", path);
+            return onError(exchange, "Token révoqué", HttpStatus.UNAUTHORIZED);
         }
 
+        // ÉTAPE 4 : Lire les informations du token
+        String userId = claims.userId();
+        String role = claims.simpleRole();
+        String email = claims.email();
+
         if (userId == null || role == null) {
             log.warn("Claims obligatoires manquants dans le token");
             return onError(exchange, "Token incomplet", HttpStatus.UNAUTHORIZED);
@@ -94,10 +100,10 @@ public class JwtAuthFilter implements WebFilter {
         log.debug("Token valide - userId: {}, role: {}", userId, role);
 
         // ÉTAPE 5 : Vérifier l'autorisation par rôle
-        if (!routeValidator.canAccess(path, role)) {
+        if (!access.permits(role)) {
             log.warn("Accès refusé - userId: {}, role: {}, path: {}", userId, role, path);
             return onError(exchange, 
-                "Accès refusé. Rôle requis: " + routeValidator.getAllowedRoles(path), 
+                "Accès refusé. Rôle requis: " + access.allowedRoles(), 
                 HttpStatus.FORBIDDEN);
         }
 
@@ -0,0 +1,93 @@
+package com.codistrib.apigateway.filters;
+
+import com.codistrib.apigateway.shedding.AdmissionController;
+import com.codistrib.apigateway.shedding.PriorityClassifier;
+import com.codistrib.apigateway.shedding.RequestPriority;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Délestage par priorité.
+ *
+ * Placé après JwtAuthFilter (le rôle est connu) et après ResponseCacheFilter
+ * (les réponses en cache restent servies en surcharge). Les requêtes des
+ * classes délestées reçoivent un 503 avec Retry-After.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 4) // Après ResponseCacheFilter
+@RequiredArgsConstructor
+public class LoadSheddingFilter implements WebFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final PriorityClassifier classifier;
+    private final AdmissionController admissionController;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        RequestPriority priority = classifier.classify(exchange);
+
+        if (!admissionController.tryAcquire(priority)) {
+            log.warn("Requête délestée - {} {} (priorité {})",
+                exchange.getRequest().getMethod(), exchange.getRequest().getPath().value(), priority);
+            return onShed(exchange, priority);
+        }
+
+        // WebSocket : l'admission s'applique au handshake, mais une connexion
+        // longue ne doit pas occuper une place de requête en cours
+        if ("websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())) {
+            admissionController.release();
+            return chain.filter(exchange);
+        }
+
+        return chain.filter(exchange)
+            .doFinally(signal -> admissionController.release());
+    }
+
+    private Mono<Void> onShed(ServerWebExchange exchange, RequestPriority priority) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        String path = exchange.getRequest().getPath().value();
+
+        String body = String.format("""
+            {
+                "timestamp": "%s",
+                "status": 503,
+                "error": "Service Unavailable",
+                "message": "Service temporairement surchargé. Veuillez réessayer dans quelques secondes.",
+                "path": "%s",
+                "priority": "%s"
+            }
+            """,
+            timestamp,
+            path,
+            priority
+        );
+
+        DataBuffer buffer = response.bufferFactory()
+            .wrap(body.getBytes(StandardCharsets.UTF_8));
+
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -1,6 +1,7 @@
 package com.codistrib.apigateway.filters;
 
-import lombok.extern.slf4j.Slf4j;
+import com.codistrib.apigateway.logging.AccessLogWriter;
+import lombok.RequiredArgsConstructor;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -11,49 +12,41 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
-import java.time.Instant;
-
 /**
  * Filtre de logging pour tracer toutes les requêtes.
  * Ordre : LOWEST_PRECEDENCE (s'exécute en dernier, après tous les autres filtres)
+ *
+ * Les lignes sont déposées dans l'{@link AccessLogWriter} et écrites hors de
+ * l'event-loop. Les histogrammes de latence par route et par statut sont
+ * fournis par la métrique http.server.requests (voir management.metrics).
  */
-@Slf4j
 @Component
 @Order(Ordered.LOWEST_PRECEDENCE) // Dernier filtre
+@RequiredArgsConstructor
 public class LoggingFilter implements WebFilter {
 
+    private final AccessLogWriter accessLogWriter;
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-        
-        String method = request.getMethod().name();
-        String path = request.getPath().value();
-        String clientIp = getClientIp(request);
-        String requestId = request.getId();
-        
-        Instant startTime = Instant.now();
-        
-        log.info("[{}] ▶ {} {} - IP: {}", requestId, method, path, clientIp);
+        long startNanos = System.nanoTime();
 
         return chain.filter(exchange)
             .doFinally(signalType -> {
+                ServerHttpRequest request = exchange.getRequest();
                 ServerHttpResponse response = exchange.getResponse();
-                Duration duration = Duration.between(startTime, Instant.now());
                 int statusCode = response.getStatusCode() != null 
                     ? response.getStatusCode().value() 
                     : 0;
                 
-                String statusEmoji = getStatusEmoji(statusCode);
-                
-                log.info("[{}] {} {} {} - {}ms - {}", 
-                    requestId, 
-                    statusEmoji, 
-                    method, 
-                    path, 
-                    duration.toMillis(),
-                    statusCode
-                );
+                accessLogWriter.append(new AccessLogWriter.AccessLogEntry(
+                    request.getId(),
+                    request.getMethod().name(),
+                    request.getPath().value(),
+                    getClientIp(request),
+                    statusCode,
+                    System.nanoTime() - startNanos
+                ));
             });
     }
 
@@ -70,17 +63,4 @@ public class LoggingFilter implements WebFilter {
         
         return "unknown";
     }
-
-    private String getStatusEmoji(int statusCode) {
-        if (statusCode >= 200 && statusCode < 300) {
-            return "✅";
-        } else if (statusCode >= 300 && statusCode < 400) {
-            return "↪️";
-        } else if (statusCode >= 400 && statusCode < 500) {
-            return "⚠️";
-        } else if (statusCode >= 500) {
-            return "❌";
-        }
-        return "❓";
-    }
-}
\ No newline at end of file
+}
@@ -1,16 +1,21 @@
 package com.codistrib.apigateway.filters;
 
+import com.codistrib.apigateway.config.RateLimitProperties;
+import com.codistrib.apigateway.ratelimit.RateLimitPolicy;
+import com.codistrib.apigateway.ratelimit.TwoTierRateLimiter;
+import com.codistrib.apigateway.shedding.PriorityClassifier;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
@@ -19,9 +24,9 @@ import reactor.core.publisher.Mono;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 @Slf4j
 @Component
@@ -29,7 +34,9 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class RateLimitFilter implements WebFilter {
 
-    private final ReactiveStringRedisTemplate redisTemplate;
+    private final TwoTierRateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+    private final PriorityClassifier priorityClassifier;
 
     @Value("${rate-limit.enabled:true}")
     private boolean rateLimitEnabled;
@@ -41,7 +48,33 @@ public class RateLimitFilter implements WebFilter {
     private int burstCapacity;
 
     private static final String RATE_LIMIT_PREFIX = "rate_limit:";
-    private static final Duration WINDOW_DURATION = Duration.ofSeconds(1);
+    private static final String DEFAULT_POLICY_ID = "default";
+    private static final String EMERGENCY_POLICY_ID = "emergency";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private RateLimitPolicy defaultPolicy;
+
+    private RateLimitPolicy emergencyPolicy;
+
+    private List<RateLimitPolicy> routePolicies = List.of();
+
+    @PostConstruct
+    public void init() {
+        defaultPolicy = new RateLimitPolicy(DEFAULT_POLICY_ID, null, requestsPerSecond, burstCapacity);
+        routePolicies = rateLimitProperties.getRoutes().stream()
+            .map(route -> new RateLimitPolicy(route.getId(), route.getPattern(),
+                route.getRequestsPerSecond(), route.getBurstCapacity()))
+            .toList();
+        RateLimitProperties.EmergencyPolicy emergency = rateLimitProperties.getEmergency();
+        emergencyPolicy = new RateLimitPolicy(EMERGENCY_POLICY_ID, null,
+            emergency.getRequestsPerSecond(), emergency.getBurstCapacity());
+
+        log.info("RateLimitFilter initialisé - défaut: {}/s (burst {}), urgence non vérifiée: {}/s (burst {}), "
+                + "{} politique(s) par route",
+            requestsPerSecond, burstCapacity, emergencyPolicy.requestsPerSecond(), emergencyPolicy.burstCapacity(),
+            routePolicies.size());
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
@@ -49,38 +82,37 @@ public class RateLimitFilter implements WebFilter {
             return chain.filter(exchange);
         }
 
+        // Un appel d'urgence (SOS) d'une PersonDI au token vérifié n'est jamais limité
+        if (priorityClassifier.isEmergency(exchange)) {
+            log.debug("RateLimitFilter - requête d'urgence exemptée: {}", exchange.getRequest().getPath().value());
+            return chain.filter(exchange);
+        }
+
         String clientIp = getClientIp(exchange);
         String path = exchange.getRequest().getPath().value();
-        int limit = getLimitForPath(path);
-        String key = RATE_LIMIT_PREFIX + clientIp;
+        // Route d'urgence sans token PERSON_DI valide : plafond par IP plus large, mais borné
+        RateLimitPolicy policy = priorityClassifier.isEmergencyRoute(exchange.getRequest())
+            ? emergencyPolicy
+            : getPolicyForPath(path);
+        String key = RATE_LIMIT_PREFIX + policy.id() + ":" + clientIp;
         
-        log.debug("RateLimitFilter - IP: {}, Path: {}, Limite: {}/s", clientIp, path, limit);
-
-        return redisTemplate.opsForValue()
-            .increment(key)
-            .flatMap(count -> {
-                if (count == 1) {
-                    return redisTemplate.expire(key, WINDOW_DURATION)
-                        .thenReturn(count);
-                }
-                return Mono.just(count);
-            })
-            .flatMap(count -> {
-                if (count > limit) {
-                    log.warn("Rate limit dépassé - IP: {}, Count: {}/{}", clientIp, count, limit);
-                    return onRateLimitExceeded(exchange, count, limit);
+        log.debug("RateLimitFilter - IP: {}, Path: {}, Politique: {} ({}/s, burst {})", 
+            clientIp, path, policy.id(), policy.requestsPerSecond(), policy.burstCapacity());
+
+        return rateLimiter.tryAcquire(key, policy)
+            .flatMap(decision -> {
+                if (!decision.allowed()) {
+                    log.warn("Rate limit dépassé - IP: {}, Politique: {}, Retry-After: {}ms", 
+                        clientIp, policy.id(), decision.retryAfterMs());
+                    return onRateLimitExceeded(exchange, policy.burstCapacity(), decision.retryAfterMs());
                 }
                 
                 exchange.getResponse().getHeaders()
-                    .add("X-RateLimit-Limit", String.valueOf(limit));
+                    .add("X-RateLimit-Limit", String.valueOf(policy.burstCapacity()));
                 exchange.getResponse().getHeaders()
-                    .add("X-RateLimit-Remaining", String.valueOf(Math.max(0, limit - count)));
+                    .add("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
                 
                 return chain.filter(exchange);
-            })
-            .onErrorResume(e -> {
-                log.error("Erreur Redis dans RateLimitFilter: {}", e.getMessage());
-                return chain.filter(exchange);
             });
     }
 
@@ -101,21 +133,24 @@ public class RateLimitFilter implements WebFilter {
         return "unknown";
     }
 
-    private int getLimitForPath(String path) {
-        if (path.contains("/auth/login")) {
-            return 5;
-        }
-        if (path.contains("/auth/register")) {
-            return 2;
+    /**
+     * Retourne la première politique dont le pattern correspond à la route,
+     * ou la politique par défaut.
+     */
+    private RateLimitPolicy getPolicyForPath(String path) {
+        for (RateLimitPolicy policy : routePolicies) {
+            if (pathMatcher.match(policy.pattern(), path)) {
+                return policy;
+            }
         }
-        return burstCapacity;
+        return defaultPolicy;
     }
 
-    private Mono<Void> onRateLimitExceeded(ServerWebExchange exchange, Long count, int limit) {
+    private Mono<Void> onRateLimitExceeded(ServerWebExchange exchange, int limit, long retryAfterMs) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
         response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-        response.getHeaders().add("Retry-After", "1");
+        response.getHeaders().add("Retry-After", String.valueOf(Math.max(1, (retryAfterMs + 999) / 1000)));
 
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
         String path = exchange.getRequest().getPath().value();
@@ -128,13 +163,13 @@ public class RateLimitFilter implements WebFilter {
                 "message": "Limite de requêtes dépassée. Veuillez réessayer dans quelques secondes.",
                 "path": "%s",
                 "limit": %d,
-                "current": %d
+                "retryAfterMs": %d
             }
             """, 
             timestamp, 
             path,
             limit,
-            count
+            retryAfterMs
         );
 
         DataBuffer buffer = response.bufferFactory()
@@ -142,4 +177,4 @@ public class RateLimitFilter implements WebFilter {
         
         return response.writeWith(Mono.just(buffer));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.codistrib.apigateway.filters;
+
+import com.codistrib.apigateway.config.RequestDeadlineProperties;
+import com.codistrib.apigateway.grpc.RequestDeadline;
+import io.grpc.Deadline;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixe le deadline de la requête : en-tête X-Request-Timeout (borné), sinon
+ * délai de la route, sinon délai par défaut.
+ *
+ * Le deadline est placé dans le contexte Reactor ({@link RequestDeadline}) :
+ * les clients gRPC l'appliquent à leurs appels et il se propage aux services
+ * appelés. Un téléphone qui abandonne après 3s n'occupe plus auth-service
+ * ou user-service au-delà.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5) // Après LoadSheddingFilter
+@RequiredArgsConstructor
+public class RequestDeadlineFilter implements WebFilter {
+
+    private final RequestDeadlineProperties properties;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private List<RequestDeadlineProperties.Route> routes = List.of();
+
+    @PostConstruct
+    public void init() {
+        routes = List.copyOf(properties.getRoutes());
+        log.info("RequestDeadlineFilter initialisé - défaut {}ms, en-tête {} borné à [{}ms, {}ms], {} route(s)",
+            properties.getDefaultTimeout().toMillis(), properties.getHeader(),
+            properties.getMinTimeout().toMillis(), properties.getMaxTimeout().toMillis(), routes.size());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        // WebSocket : connexion longue, pas de deadline global
+        if (!properties.isEnabled()
+            || "websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())) {
+            return chain.filter(exchange);
+        }
+
+        Duration timeout = timeout(exchange);
+        Deadline deadline = Deadline.after(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        exchange.getAttributes().put(RequestDeadline.KEY, deadline);
+
+        return chain.filter(exchange)
+            .contextWrite(context -> context.put(RequestDeadline.KEY, deadline));
+    }
+
+    private Duration timeout(ServerWebExchange exchange) {
+        String requested = exchange.getRequest().getHeaders().getFirst(properties.getHeader());
+        if (requested != null && !requested.isBlank()) {
+            try {
+                Duration timeout = DurationStyle.detectAndParse(requested.trim(), ChronoUnit.MILLIS);
+                if (timeout.compareTo(properties.getMinTimeout()) < 0) {
+                    return properties.getMinTimeout();
+                }
+                return timeout.compareTo(properties.getMaxTimeout()) > 0 ? properties.getMaxTimeout() : timeout;
+            } catch (IllegalArgumentException e) {
+                log.debug("En-tête {} invalide ignoré: {}", properties.getHeader(), requested);
+            }
+        }
+
+        String path = exchange.getRequest().getPath().value();
+        for (RequestDeadlineProperties.Route route : routes) {
+            if (pathMatcher.match(route.getPattern(), path)) {
+                return route.getTimeout();
+            }
+        }
+        return properties.getDefaultTimeout();
+    }
+}
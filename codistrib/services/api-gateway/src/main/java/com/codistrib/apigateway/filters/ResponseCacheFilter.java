@@ -0,0 +1,256 @@
+package com.codistrib.apigateway.filters;
+
+import com.codistrib.apigateway.cache.CachedResponse;
+import com.codistrib.apigateway.cache.ETags;
+import com.codistrib.apigateway.cache.ResponseCache;
+import com.codistrib.apigateway.cache.SingleFlight;
+import com.codistrib.apigateway.codec.ProtobufNegotiation;
+import com.codistrib.apigateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * GET conditionnels et cache des réponses (ETag / If-None-Match).
+ *
+ * Placé après JwtAuthFilter : la clé de cache inclut X-User-Id ou X-User-Role
+ * (selon la portée de la route), un utilisateur ne reçoit donc jamais la
+ * réponse d'un autre.
+ *
+ * - Hit : la réponse est servie sans appel gRPC (ou 304 si l'ETag correspond)
+ * - Miss : le corps est capturé, son ETag calculé, puis mis en cache si 200
+ * - Coalescing (coalesce: true) : les requêtes identiques arrivées pendant
+ *   un miss attendent la réponse du premier appel au lieu d'appeler le service
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3) // Après UserQuotaFilter
+@RequiredArgsConstructor
+public class ResponseCacheFilter implements WebFilter {
+
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final String USER_ROLE_HEADER = "X-User-Role";
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCache responseCache;
+    private final SingleFlight singleFlight;
+    private final ResponseCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private Counter notModified;
+
+    @PostConstruct
+    public void init() {
+        notModified = Counter.builder("gateway.response.not_modified")
+            .description("Réponses 304 renvoyées par la gateway")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        ResponseCacheProperties.Route route = findRoute(request.getPath().value());
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(request, route.getScope());
+        if (key == null) {
+            return chain.filter(exchange);
+        }
+
+        String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null) {
+            log.debug("Cache HIT - {}", key);
+            return writeCached(exchange.getResponse(), cached, route, ifNoneMatch, "HIT");
+        }
+
+        if (!route.isCoalesce()) {
+            log.debug("Cache MISS - {}", key);
+            return fetch(exchange, chain, key, route, ifNoneMatch, null);
+        }
+
+        SingleFlight.Flight flight = singleFlight.join(key);
+        if (flight.isLeader()) {
+            log.debug("Cache MISS (leader) - {}", key);
+            return fetch(exchange, chain, key, route, ifNoneMatch, flight)
+                .doFinally(signal -> flight.release());
+        }
+
+        // Un appel identique est en cours : on attend son résultat
+        log.debug("Appel regroupé - {}", key);
+        return flight.result()
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(result -> result
+                .map(response -> writeCached(exchange.getResponse(), response, route, ifNoneMatch, "COALESCED"))
+                .orElseGet(() -> fetch(exchange, chain, key, route, ifNoneMatch, null)));
+    }
+
+    /**
+     * Appelle le service en capturant la réponse (cache et/ou suiveurs).
+     */
+    private Mono<Void> fetch(ServerWebExchange exchange, WebFilterChain chain, String key,
+                             ResponseCacheProperties.Route route, String ifNoneMatch,
+                             SingleFlight.Flight flight) {
+        ServerHttpResponse decorated = new CapturingResponse(exchange.getResponse(), key, route, ifNoneMatch, flight);
+        return chain.filter(exchange.mutate().response(decorated).build());
+    }
+
+    /**
+     * Première route dont le pattern correspond, ou null.
+     */
+    private ResponseCacheProperties.Route findRoute(String path) {
+        List<ResponseCacheProperties.Route> routes = properties.getRoutes();
+        for (ResponseCacheProperties.Route route : routes) {
+            if (pathMatcher.match(route.getPattern(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Clé = portée + format négocié + chemin + query. Null si la portée
+     * demande une identité absente.
+     */
+    private String cacheKey(ServerHttpRequest request, ResponseCacheProperties.Scope scope) {
+        String discriminator = switch (scope) {
+            case PUBLIC -> "*";
+            case ROLE -> request.getHeaders().getFirst(USER_ROLE_HEADER);
+            case USER -> request.getHeaders().getFirst(USER_ID_HEADER);
+        };
+        if (discriminator == null) {
+            return null;
+        }
+        String format = ProtobufNegotiation.acceptsProtobuf(request.getHeaders()) ? "pb" : "json";
+        String query = request.getURI().getRawQuery();
+        return scope.name() + ":" + discriminator + " " + format + " " + request.getPath().value()
+            + (query != null ? "?" + query : "");
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached,
+                                   ResponseCacheProperties.Route route, String ifNoneMatch,
+                                   String cacheStatus) {
+        applyValidators(response.getHeaders(), cached.etag(), route);
+        response.getHeaders().set(CACHE_STATUS_HEADER, cacheStatus);
+
+        if (cached.matches(ifNoneMatch)) {
+            notModified.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            response.getHeaders().setContentType(MediaType.parseMediaType(cached.contentType()));
+        }
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static void applyValidators(HttpHeaders headers, String etag, ResponseCacheProperties.Route route) {
+        headers.setETag(etag);
+        headers.setVary(List.of(HttpHeaders.ACCEPT));
+        // "private" : la réponse dépend de l'utilisateur, aucun cache partagé ne doit la garder
+        headers.setCacheControl((route.getScope() == ResponseCacheProperties.Scope.PUBLIC ? "public" : "private")
+            + ", max-age=" + route.getTtl().toSeconds());
+    }
+
+    /**
+     * Capture le corps d'une réponse 200 pour calculer son ETag, la mettre en
+     * cache et la transmettre aux requêtes regroupées.
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final ResponseCacheProperties.Route route;
+        private final String ifNoneMatch;
+        private final SingleFlight.Flight flight;
+
+        private CapturingResponse(ServerHttpResponse delegate, String key,
+                                  ResponseCacheProperties.Route route, String ifNoneMatch,
+                                  SingleFlight.Flight flight) {
+            super(delegate);
+            this.key = key;
+            this.route = route;
+            this.ifNoneMatch = ifNoneMatch;
+            this.flight = flight;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!HttpStatus.OK.equals(getStatusCode())) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body))
+                .flatMap(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+
+                    String etag = ETags.of(bytes);
+                    MediaType contentType = getHeaders().getContentType();
+                    CachedResponse captured = new CachedResponse(bytes,
+                        contentType != null ? contentType.toString() : null,
+                        etag,
+                        route.getTtl().toNanos());
+                    responseCache.put(key, captured);
+                    if (flight != null) {
+                        flight.complete(captured);
+                    }
+
+                    applyValidators(getHeaders(), etag, route);
+                    getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+
+                    if (ETags.matches(ifNoneMatch, etag)) {
+                        notModified.increment();
+                        setStatusCode(HttpStatus.NOT_MODIFIED);
+                        getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                        getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+                        return getDelegate().setComplete();
+                    }
+
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                })
+                .switchIfEmpty(Mono.defer(() -> getDelegate().setComplete()));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).flatMapSequential(p -> p));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.codistrib.apigateway.filters;
+
+import com.codistrib.apigateway.config.UserQuotaProperties;
+import com.codistrib.apigateway.ratelimit.QuotaDecision;
+import com.codistrib.apigateway.ratelimit.UserQuotaLimiter;
+import com.codistrib.apigateway.shedding.PriorityClassifier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Quotas par utilisateur authentifié.
+ *
+ * Placé après JwtAuthFilter : X-User-Id et X-User-Role viennent du token, pas
+ * du client. Plusieurs appareils derrière un même NAT (foyer, établissement)
+ * ont chacun leur quota, et un token abusif reste limité même s'il change d'IP.
+ * Les routes publiques (sans X-User-Id) et les appels d'urgence d'une PersonDI
+ * ne sont pas comptés.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2) // Après JwtAuthFilter
+@RequiredArgsConstructor
+public class UserQuotaFilter implements WebFilter {
+
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final String USER_ROLE_HEADER = "X-User-Role";
+
+    private final UserQuotaLimiter quotaLimiter;
+    private final UserQuotaProperties properties;
+    private final PriorityClassifier priorityClassifier;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String userId = request.getHeaders().getFirst(USER_ID_HEADER);
+
+        if (!properties.isEnabled() || userId == null || priorityClassifier.isEmergency(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        String role = request.getHeaders().getFirst(USER_ROLE_HEADER);
+        String routeClass = quotaLimiter.classify(request);
+
+        return quotaLimiter.tryAcquire(userId, role, routeClass)
+            .flatMap(decision -> {
+                if (!decision.allowed()) {
+                    log.warn("Quota dépassé - userId: {}, rôle: {}, classe: {}, Retry-After: {}ms",
+                        userId, role, routeClass, decision.retryAfterMs());
+                    return onQuotaExceeded(exchange, routeClass, decision);
+                }
+
+                if (decision.limited()) {
+                    exchange.getResponse().getHeaders()
+                        .add("X-Quota-Limit", String.valueOf(decision.limit()));
+                    exchange.getResponse().getHeaders()
+                        .add("X-Quota-Remaining", String.valueOf(decision.remaining()));
+                }
+
+                return chain.filter(exchange);
+            });
+    }
+
+    private Mono<Void> onQuotaExceeded(ServerWebExchange exchange, String routeClass, QuotaDecision decision) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+            String.valueOf(Math.max(1, (decision.retryAfterMs() + 999) / 1000)));
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        String path = exchange.getRequest().getPath().value();
+
+        String body = String.format("""
+            {
+                "timestamp": "%s",
+                "status": 429,
+                "error": "Too Many Requests",
+                "message": "Quota de requêtes atteint pour ce compte. Veuillez réessayer plus tard.",
+                "path": "%s",
+                "quotaClass": "%s",
+                "limit": %d,
+                "retryAfterMs": %d
+            }
+            """,
+            timestamp,
+            path,
+            routeClass,
+            decision.limit(),
+            decision.retryAfterMs()
+        );
+
+        DataBuffer buffer = response.bufferFactory()
+            .wrap(body.getBytes(StandardCharsets.UTF_8));
+
+        return response.writeWith(Mono.just(buffer));
+    }
+}
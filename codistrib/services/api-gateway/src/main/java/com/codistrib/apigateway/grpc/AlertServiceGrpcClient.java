@@ -0,0 +1,87 @@
+package com.codistrib.apigateway.grpc;
+
+import com.codistrib.apigateway.grpc.balancing.ReplicaHint;
+import com.codistrib.apigateway.grpc.hedging.HedgingExecutor;
+import com.codistrib.proto.alert.AlertProto.ListAlertsResponse;
+import com.codistrib.proto.alert.AlertProto.ListByHelperRequest;
+import com.codistrib.proto.alert.AlertProto.ListByPersonRequest;
+import com.codistrib.proto.alert.AlertProto.ListByStatusRequest;
+import com.codistrib.proto.alert.AlertServiceGrpc;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.Deadline;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Client gRPC pour communiquer avec Alert Service (lectures).
+ *
+ * Même principe que {@link UserServiceGrpcClient}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AlertServiceGrpcClient {
+
+    private static final String SERVICE = "alert-service";
+
+    private final GrpcChannelRegistry channels;
+    private final HedgingExecutor hedging;
+
+    private Duration deadline;
+    private AlertServiceGrpc.AlertServiceFutureStub futureStub;
+
+    @PostConstruct
+    public void init() {
+        deadline = channels.deadline(SERVICE);
+        futureStub = AlertServiceGrpc.newFutureStub(channels.channel(SERVICE));
+
+        log.info("Client gRPC Alert Service initialisé (deadline: {}ms)", deadline.toMillis());
+    }
+
+    /**
+     * Alertes assignées à un aidant.
+     */
+    public Mono<ListAlertsResponse> listByHelper(String helperId, Deadline sharedDeadline) {
+        ListByHelperRequest request = ListByHelperRequest.newBuilder().setHelperId(helperId).build();
+        return call("ListAlertsByHelper", sharedDeadline, stub -> stub.listAlertsByHelper(request));
+    }
+
+    /**
+     * Alertes émises par une PersonDI.
+     */
+    public Mono<ListAlertsResponse> listByPerson(String personId, Deadline sharedDeadline) {
+        ListByPersonRequest request = ListByPersonRequest.newBuilder().setPersonId(personId).build();
+        return call("ListAlertsByPerson", sharedDeadline, stub -> stub.listAlertsByPerson(request));
+    }
+
+    /**
+     * Alertes dans un statut donné (OPEN, ASSIGNED, RESOLVED, CANCELED).
+     */
+    public Mono<ListAlertsResponse> listByStatus(String status, Deadline sharedDeadline) {
+        ListByStatusRequest request = ListByStatusRequest.newBuilder().setStatus(status).build();
+        return call("ListAlertsByStatus", sharedDeadline, stub -> stub.listAlertsByStatus(request));
+    }
+
+    private <T> Mono<T> call(String method, Deadline sharedDeadline,
+                             Function<AlertServiceGrpc.AlertServiceFutureStub, ListenableFuture<T>> invocation) {
+        return Mono.deferContextual(context -> {
+            // Deadline calculé une fois : une seconde tentative (hedging) ne le prolonge pas
+            Deadline effective = RequestDeadline.within(
+                Deadline.after(deadline.toMillis(), TimeUnit.MILLISECONDS), context);
+            if (sharedDeadline != null) {
+                effective = effective.minimum(sharedDeadline);
+            }
+            AlertServiceGrpc.AlertServiceFutureStub stub =
+                RequestDeadline.attach(futureStub.withDeadline(effective), context);
+            return hedging.execute(SERVICE, AlertServiceGrpc.SERVICE_NAME + "/" + method, hint -> GrpcCalls.toMono(
+                method, () -> invocation.apply(hint != null ? stub.withOption(ReplicaHint.KEY, hint) : stub)));
+        });
+    }
+}
@@ -1,157 +1,116 @@
 package com.codistrib.apigateway.grpc;
 
 import com.codistrib.proto.auth.*;
-import io.grpc.ManagedChannel;
-import io.grpc.ManagedChannelBuilder;
-import io.grpc.StatusRuntimeException;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.Deadline;
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Client gRPC pour communiquer avec Auth Service.
- * 
+ *
  * Ce client :
- * - Gère la connexion gRPC vers auth-service
- * - Expose des méthodes pour chaque opération (login, register, etc.)
- * - Gère les erreurs et la fermeture propre du channel
+ * - Utilise le channel partagé vers auth-service ({@link GrpcChannelRegistry})
+ * - Expose des méthodes non bloquantes ({@link Mono}) pour chaque opération (login, register, etc.)
+ * - Applique un deadline à chaque appel et annule l'appel si le client HTTP se déconnecte
+ *
+ * Aucun thread de l'event-loop Netty n'est bloqué pendant que auth-service
+ * travaille (BCrypt, base de données).
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class AuthServiceGrpcClient {
 
-    @Value("${grpc.client.auth-service.host:localhost}")
-    private String host;
+    private static final String SERVICE = "auth-service";
 
-    @Value("${grpc.client.auth-service.port:9001}")
-    private int port;
+    private final GrpcChannelRegistry channels;
 
-    private ManagedChannel channel;
-    private AuthServiceGrpc.AuthServiceBlockingStub blockingStub;
+    private Duration deadline;
+    private AuthServiceGrpc.AuthServiceFutureStub futureStub;
 
     /**
-     * Initialise la connexion gRPC au démarrage.
+     * Initialise le stub gRPC au démarrage.
      */
     @PostConstruct
     public void init() {
-        log.info("Initialisation du client gRPC Auth Service - {}:{}", host, port);
-        
-        channel = ManagedChannelBuilder
-            .forAddress(host, port)
-            .usePlaintext()  // Pas de TLS pour le dev (à changer en prod)
-            .build();
-        
-        blockingStub = AuthServiceGrpc.newBlockingStub(channel);
-        
-        log.info("Client gRPC Auth Service initialisé");
-    }
+        deadline = channels.deadline(SERVICE);
+        futureStub = AuthServiceGrpc.newFutureStub(channels.channel(SERVICE));
 
-    /**
-     * Ferme la connexion gRPC proprement à l'arrêt.
-     */
-    @PreDestroy
-    public void shutdown() {
-        log.info("Fermeture du client gRPC Auth Service");
-        
-        if (channel != null && !channel.isShutdown()) {
-            try {
-                channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
-            } catch (InterruptedException e) {
-                log.warn("Interruption lors de la fermeture du channel gRPC", e);
-                channel.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
+        log.info("Client gRPC Auth Service initialisé (deadline: {}ms)", deadline.toMillis());
     }
 
     /**
      * Inscription d'un nouvel utilisateur.
      */
-    public TokenResponse register(RegisterRequest request) {
-        log.debug("gRPC Register - username: {}, email: {}, role: {}", 
+    public Mono<TokenResponse> register(RegisterRequest request) {
+        log.debug("gRPC Register - username: {}, email: {}, role: {}",
             request.getUsername(), request.getEmail(), request.getRole());
-        
-        try {
-            TokenResponse response = blockingStub.register(request);
-            log.debug("gRPC Register success - userId: {}", response.getUserId());
-            return response;
-        } catch (StatusRuntimeException e) {
-            log.error("gRPC Register failed - code: {}, message: {}", 
-                e.getStatus().getCode(), e.getStatus().getDescription());
-            throw e;
-        }
+
+        return call("Register", stub -> stub.register(request))
+            .doOnNext(response -> log.debug("gRPC Register success - userId: {}", response.getUserId()));
     }
 
     /**
      * Connexion d'un utilisateur.
      */
-    public TokenResponse login(LoginRequest request) {
+    public Mono<TokenResponse> login(LoginRequest request) {
         log.debug("gRPC Login - identifier: {}", request.getIdentifier());
-        
-        try {
-            TokenResponse response = blockingStub.login(request);
-            log.debug("gRPC Login success - userId: {}", response.getUserId());
-            return response;
-        } catch (StatusRuntimeException e) {
-            log.error("gRPC Login failed - code: {}, message: {}", 
-                e.getStatus().getCode(), e.getStatus().getDescription());
-            throw e;
-        }
+
+        return call("Login", stub -> stub.login(request))
+            .doOnNext(response -> log.debug("gRPC Login success - userId: {}", response.getUserId()));
     }
 
     /**
      * Rafraîchissement du token.
      */
-    public TokenResponse refreshToken(RefreshTokenRequest request) {
+    public Mono<TokenResponse> refreshToken(RefreshTokenRequest request) {
         log.debug("gRPC RefreshToken");
-        
-        try {
-            TokenResponse response = blockingStub.refreshToken(request);
-            log.debug("gRPC RefreshToken success - userId: {}", response.getUserId());
-            return response;
-        } catch (StatusRuntimeException e) {
-            log.error("gRPC RefreshToken failed - code: {}, message: {}", 
-                e.getStatus().getCode(), e.getStatus().getDescription());
-            throw e;
-        }
+
+        return call("RefreshToken", stub -> stub.refreshToken(request))
+            .doOnNext(response -> log.debug("gRPC RefreshToken success - userId: {}", response.getUserId()));
     }
 
     /**
      * Validation d'un token.
      */
-    public TokenClaims validateToken(ValidateTokenRequest request) {
+    public Mono<TokenClaims> validateToken(ValidateTokenRequest request) {
         log.debug("gRPC ValidateToken");
-        
-        try {
-            TokenClaims response = blockingStub.validateToken(request);
-            log.debug("gRPC ValidateToken - isValid: {}, userId: {}", 
-                response.getIsValid(), response.getUserId());
-            return response;
-        } catch (StatusRuntimeException e) {
-            log.error("gRPC ValidateToken failed - code: {}, message: {}", 
-                e.getStatus().getCode(), e.getStatus().getDescription());
-            throw e;
-        }
+
+        return call("ValidateToken", stub -> stub.validateToken(request))
+            .doOnNext(response -> log.debug("gRPC ValidateToken - isValid: {}, userId: {}",
+                response.getIsValid(), response.getUserId()));
     }
 
     /**
      * Déconnexion d'un utilisateur.
      */
-    public LogoutResponse logout(LogoutRequest request) {
+    public Mono<LogoutResponse> logout(LogoutRequest request) {
         log.debug("gRPC Logout");
-        
-        try {
-            LogoutResponse response = blockingStub.logout(request);
-            log.debug("gRPC Logout - success: {}", response.getSuccess());
-            return response;
-        } catch (StatusRuntimeException e) {
-            log.error("gRPC Logout failed - code: {}, message: {}", 
-                e.getStatus().getCode(), e.getStatus().getDescription());
-            throw e;
-        }
+
+        return call("Logout", stub -> stub.logout(request))
+            .doOnNext(response -> log.debug("gRPC Logout - success: {}", response.getSuccess()));
+    }
+
+    /**
+     * Exécute un appel unaire sur le future stub avec le deadline du service,
+     * borné par celui de la requête HTTP ({@link RequestDeadline}).
+     */
+    private <T> Mono<T> call(String method,
+                             Function<AuthServiceGrpc.AuthServiceFutureStub, ListenableFuture<T>> invocation) {
+        return Mono.deferContextual(context -> {
+            Deadline effective = RequestDeadline.within(
+                Deadline.after(deadline.toMillis(), TimeUnit.MILLISECONDS), context);
+            AuthServiceGrpc.AuthServiceFutureStub stub =
+                RequestDeadline.attach(futureStub.withDeadline(effective), context);
+            return GrpcCalls.toMono(method, () -> invocation.apply(stub));
+        });
     }
-}
\ No newline at end of file
+}
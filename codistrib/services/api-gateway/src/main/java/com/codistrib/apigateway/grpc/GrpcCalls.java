@@ -0,0 +1,57 @@
+package com.codistrib.apigateway.grpc;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.StatusRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Adaptation des appels gRPC unaires (future stub / ClientCalls) en {@link Mono}.
+ */
+@Slf4j
+public final class GrpcCalls {
+
+    private GrpcCalls() {
+    }
+
+    /**
+     * Lance l'appel à la souscription et l'annule si l'abonné annule
+     * (ex: client HTTP déconnecté).
+     *
+     * @param method     nom de la méthode (pour les logs)
+     * @param invocation démarre l'appel et retourne son future
+     */
+    public static <T> Mono<T> toMono(String method, Supplier<ListenableFuture<T>> invocation) {
+        return Mono.create(sink -> {
+            ListenableFuture<T> future = invocation.get();
+
+            Futures.addCallback(future, new FutureCallback<>() {
+                @Override
+                public void onSuccess(T result) {
+                    sink.success(result);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    if (t instanceof StatusRuntimeException e) {
+                        log.error("gRPC {} failed - code: {}, message: {}", 
+                            method, e.getStatus().getCode(), e.getStatus().getDescription());
+                    }
+                    sink.error(t);
+                }
+            }, MoreExecutors.directExecutor());
+
+            sink.onCancel(() -> {
+                if (!future.isDone()) {
+                    log.debug("gRPC {} annulé (client déconnecté)", method);
+                    future.cancel(true);
+                }
+            });
+        });
+    }
+}
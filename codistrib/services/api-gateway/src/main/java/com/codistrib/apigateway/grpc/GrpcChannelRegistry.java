@@ -0,0 +1,176 @@
+package com.codistrib.apigateway.grpc;
+
+import com.codistrib.apigateway.config.GrpcClientProperties;
+import com.codistrib.apigateway.grpc.balancing.BalancedChannel;
+import com.codistrib.apigateway.grpc.resilience.ResilienceInterceptor;
+import com.codistrib.apigateway.grpc.shadow.ShadowMirror;
+import io.grpc.Channel;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Channels gRPC partagés par tous les clients de la gateway.
+ *
+ * Chaque service déclaré dans grpc.client.* est servi par un
+ * {@link BalancedChannel} : un petit pool de channels par replica (keepalive),
+ * répartition des appels entre replicas et mise à l'écart des replicas en
+ * mauvaise santé. Les clients (AuthServiceGrpcClient, transcodeur REST/gRPC, ...)
+ * ne construisent plus leur propre channel.
+ *
+ * Chaque service est protégé par un {@link ResilienceInterceptor} (limite de
+ * concurrence adaptative + disjoncteur), commun à tous ses replicas.
+ * Un service avec une cible miroir (grpc.shadow.targets) reçoit en plus
+ * l'intercepteur de capture de {@link ShadowMirror}, en tête de chaîne.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GrpcChannelRegistry {
+
+    private final GrpcClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ShadowMirror shadowMirror;
+
+    private final Map<String, ServiceChannel> services = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "grpc-balancer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        properties.getClient().forEach((service, config) -> services.put(service, create(service, config)));
+        log.info("Channels gRPC initialisés pour: {}", services.keySet());
+    }
+
+    /**
+     * Retourne le channel vers le service (réparti entre ses replicas).
+     */
+    public Channel channel(String service) {
+        return service(service).guarded;
+    }
+
+    /**
+     * Deadline par défaut configurée pour le service.
+     */
+    public Duration deadline(String service) {
+        return service(service).config.getDeadline();
+    }
+
+    /**
+     * Replicas du service actuellement sains (vérification de santé).
+     */
+    public int healthyReplicas(String service) {
+        return service(service).balanced.healthyCount();
+    }
+
+    /**
+     * Noms des services configurés.
+     */
+    public Set<String> services() {
+        return services.keySet();
+    }
+
+    /**
+     * Ouvre les connexions vers tous les replicas de tous les services.
+     *
+     * @return les services dont au moins un replica n'est pas joignable dans le délai
+     */
+    public Mono<List<String>> connectAll(Duration timeout) {
+        return Flux.fromIterable(services.entrySet())
+            .flatMap(entry -> Mono.fromFuture(entry.getValue().balanced.connect())
+                .timeout(timeout)
+                .then(Mono.<String>empty())
+                .onErrorReturn(entry.getKey()))
+            .collectList();
+    }
+
+    /**
+     * Ferme tous les channels proprement à l'arrêt.
+     */
+    @PreDestroy
+    public void shutdown() {
+        log.info("Fermeture des channels gRPC");
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        services.values().forEach(channel -> channel.balanced.shutdown());
+    }
+
+    private ServiceChannel service(String service) {
+        ServiceChannel channel = services.get(service);
+        if (channel == null) {
+            throw new IllegalArgumentException("Service gRPC non configuré: " + service);
+        }
+        return channel;
+    }
+
+    private ServiceChannel create(String service, GrpcClientProperties.Client config) {
+        BalancedChannel balanced = new BalancedChannel(service, config);
+        ResilienceInterceptor resilience = new ResilienceInterceptor(service, config, meterRegistry);
+        Channel guarded = ClientInterceptors.intercept(balanced, resilience);
+        ClientInterceptor shadow = shadowMirror.interceptor(service);
+        if (shadow != null) {
+            // Latence principale mesurée comme la voit l'appelant (limiteur compris)
+            guarded = ClientInterceptors.intercept(guarded, shadow);
+        }
+
+        GrpcClientProperties.HealthCheck healthCheck = config.getLoadBalancing().getHealthCheck();
+        if (healthCheck.isEnabled()) {
+            long intervalMs = healthCheck.getInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(() -> run(service, balanced::checkHealth),
+                0, intervalMs, TimeUnit.MILLISECONDS);
+        }
+        if (balanced.isWatched()) {
+            long refreshMs = config.getAddressesRefresh().toMillis();
+            scheduler.scheduleWithFixedDelay(() -> run(service, balanced::refresh),
+                refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+        }
+
+        Gauge.builder("gateway.grpc.backends", balanced, BalancedChannel::size)
+            .description("Replicas connus par service")
+            .tags("service", service, "state", "total")
+            .register(meterRegistry);
+        Gauge.builder("gateway.grpc.backends", balanced, BalancedChannel::healthyCount)
+            .description("Replicas connus par service")
+            .tags("service", service, "state", "healthy")
+            .register(meterRegistry);
+
+        return new ServiceChannel(config, balanced, guarded);
+    }
+
+    /**
+     * Une tâche en erreur ne doit pas arrêter les exécutions suivantes.
+     */
+    private static void run(String service, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("Erreur de maintenance des replicas de {}: {}", service, e.getMessage());
+        }
+    }
+
+    private record ServiceChannel(GrpcClientProperties.Client config, BalancedChannel balanced, Channel guarded) {
+    }
+}
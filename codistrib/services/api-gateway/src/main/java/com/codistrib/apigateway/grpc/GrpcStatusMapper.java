@@ -0,0 +1,50 @@
+package com.codistrib.apigateway.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Correspondance entre codes gRPC et statuts HTTP.
+ */
+public final class GrpcStatusMapper {
+
+    /**
+     * Délai de nouvel essai (ms) joint à un refus de la gateway (disjoncteur, limite).
+     */
+    public static final Metadata.Key<String> RETRY_AFTER_MS =
+        Metadata.Key.of("x-retry-after-ms", Metadata.ASCII_STRING_MARSHALLER);
+
+    private GrpcStatusMapper() {
+    }
+
+    public static HttpStatus toHttpStatus(Status.Code code) {
+        return switch (code) {
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case ALREADY_EXISTS -> HttpStatus.CONFLICT;
+            case INVALID_ARGUMENT -> HttpStatus.BAD_REQUEST;
+            case UNAUTHENTICATED -> HttpStatus.UNAUTHORIZED;
+            case PERMISSION_DENIED -> HttpStatus.FORBIDDEN;
+            case UNAVAILABLE -> HttpStatus.SERVICE_UNAVAILABLE;
+            case DEADLINE_EXCEEDED -> HttpStatus.GATEWAY_TIMEOUT;
+            default -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+    }
+
+    /**
+     * Valeur du header Retry-After (en secondes, arrondie au supérieur), ou null.
+     */
+    public static String retryAfterSeconds(StatusRuntimeException e) {
+        Metadata trailers = e.getTrailers();
+        String millis = trailers != null ? trailers.get(RETRY_AFTER_MS) : null;
+        if (millis == null) {
+            return null;
+        }
+        try {
+            return String.valueOf(Math.max(1, (Long.parseLong(millis) + 999) / 1000));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
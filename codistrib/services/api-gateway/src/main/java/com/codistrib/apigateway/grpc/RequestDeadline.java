@@ -0,0 +1,56 @@
+package com.codistrib.apigateway.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Deadline;
+import io.grpc.stub.AbstractStub;
+import reactor.util.context.ContextView;
+
+/**
+ * Deadline de la requête HTTP en cours, porté par le contexte Reactor.
+ *
+ * Posé par RequestDeadlineFilter, il borne le deadline de chaque appel gRPC
+ * de la requête. gRPC le transmet ensuite au service appelé (en-tête
+ * grpc-timeout), qui le transmet à ses propres appels : tout le chemin
+ * abandonne le travail quand le client n'attend plus la réponse.
+ */
+public final class RequestDeadline {
+
+    /**
+     * Clé du contexte Reactor et attribut de l'échange.
+     */
+    public static final String KEY = RequestDeadline.class.getName();
+
+    /**
+     * Option d'appel gRPC portant le deadline de la requête : le
+     * ResilienceInterceptor (hors contexte Reactor) distingue ainsi un appel
+     * borné par le client d'un appel borné par la gateway (BFF, service).
+     */
+    public static final CallOptions.Key<Deadline> CALL_OPTION = CallOptions.Key.create("codistrib-request-deadline");
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Le plus proche entre le deadline donné et celui de la requête.
+     */
+    public static Deadline within(Deadline deadline, ContextView context) {
+        Deadline request = context.getOrDefault(KEY, null);
+        return request != null ? deadline.minimum(request) : deadline;
+    }
+
+    /**
+     * Ajoute le deadline de la requête aux options d'appel ({@link #CALL_OPTION}).
+     */
+    public static CallOptions attach(CallOptions options, ContextView context) {
+        Deadline request = context.getOrDefault(KEY, null);
+        return request != null ? options.withOption(CALL_OPTION, request) : options;
+    }
+
+    /**
+     * Idem pour un stub.
+     */
+    public static <S extends AbstractStub<S>> S attach(S stub, ContextView context) {
+        Deadline request = context.getOrDefault(KEY, null);
+        return request != null ? stub.withOption(CALL_OPTION, request) : stub;
+    }
+}
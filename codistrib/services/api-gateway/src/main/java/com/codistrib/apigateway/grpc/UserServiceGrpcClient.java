@@ -0,0 +1,77 @@
+package com.codistrib.apigateway.grpc;
+
+import com.codistrib.apigateway.grpc.balancing.ReplicaHint;
+import com.codistrib.apigateway.grpc.hedging.HedgingExecutor;
+import com.codistrib.proto.user.*;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.Deadline;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Client gRPC pour communiquer avec User Service.
+ *
+ * Même principe que {@link AuthServiceGrpcClient} : channel partagé, appels
+ * non bloquants. Chaque méthode accepte un deadline partagé (ex: endpoint
+ * agrégé) ; l'appel utilise le plus proche entre ce deadline et celui du service.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserServiceGrpcClient {
+
+    private static final String SERVICE = "user-service";
+
+    private final GrpcChannelRegistry channels;
+    private final HedgingExecutor hedging;
+
+    private Duration deadline;
+    private UserServiceGrpc.UserServiceFutureStub futureStub;
+
+    @PostConstruct
+    public void init() {
+        deadline = channels.deadline(SERVICE);
+        futureStub = UserServiceGrpc.newFutureStub(channels.channel(SERVICE));
+
+        log.info("Client gRPC User Service initialisé (deadline: {}ms)", deadline.toMillis());
+    }
+
+    /**
+     * Profil d'un utilisateur.
+     */
+    public Mono<GetUserResponse> getUser(String userId, Deadline sharedDeadline) {
+        GetUserRequest request = GetUserRequest.newBuilder().setUserId(userId).build();
+        return call("GetUser", sharedDeadline, stub -> stub.getUser(request));
+    }
+
+    /**
+     * Vue réduite d'un utilisateur (nom, photo, rôle).
+     */
+    public Mono<UserSnapshotResponse> getUserSnapshot(String userId, Deadline sharedDeadline) {
+        GetUserSnapshotRequest request = GetUserSnapshotRequest.newBuilder().setUserId(userId).build();
+        return call("GetUserSnapshot", sharedDeadline, stub -> stub.getUserSnapshot(request));
+    }
+
+    private <T> Mono<T> call(String method, Deadline sharedDeadline,
+                             Function<UserServiceGrpc.UserServiceFutureStub, ListenableFuture<T>> invocation) {
+        return Mono.deferContextual(context -> {
+            // Deadline calculé une fois : une seconde tentative (hedging) ne le prolonge pas
+            Deadline effective = RequestDeadline.within(
+                Deadline.after(deadline.toMillis(), TimeUnit.MILLISECONDS), context);
+            if (sharedDeadline != null) {
+                effective = effective.minimum(sharedDeadline);
+            }
+            UserServiceGrpc.UserServiceFutureStub stub =
+                RequestDeadline.attach(futureStub.withDeadline(effective), context);
+            return hedging.execute(SERVICE, UserServiceGrpc.SERVICE_NAME + "/" + method, hint -> GrpcCalls.toMono(
+                method, () -> invocation.apply(hint != null ? stub.withOption(ReplicaHint.KEY, hint) : stub)));
+        });
+    }
+}
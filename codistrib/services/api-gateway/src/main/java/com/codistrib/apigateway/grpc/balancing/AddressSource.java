@@ -0,0 +1,89 @@
+package com.codistrib.apigateway.grpc.balancing;
+
+import com.codistrib.apigateway.config.GrpcClientProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Liste des replicas d'un service : fichier surveillé, liste statique, ou host/port.
+ *
+ * Le fichier est relu seulement quand sa date de modification change ; une
+ * lecture en erreur ou un fichier vide conserve la dernière liste connue.
+ * La surveillance se fait par scrutation plutôt que WatchService, qui rate
+ * les remplacements par lien symbolique (ConfigMap Kubernetes).
+ */
+@Slf4j
+final class AddressSource {
+
+    private final String service;
+    private final GrpcClientProperties.Client config;
+    private final Path file;
+
+    private FileTime lastModified;
+
+    AddressSource(String service, GrpcClientProperties.Client config) {
+        this.service = service;
+        this.config = config;
+        this.file = config.getAddressesFile() != null && !config.getAddressesFile().isBlank()
+            ? Path.of(config.getAddressesFile())
+            : null;
+    }
+
+    boolean isWatched() {
+        return file != null;
+    }
+
+    /**
+     * Adresses initiales (fichier si lisible, sinon configuration).
+     */
+    Set<String> initial() {
+        return poll().orElseGet(this::configured);
+    }
+
+    /**
+     * Nouvelle liste si le fichier a changé depuis la dernière lecture.
+     */
+    Optional<Set<String>> poll() {
+        if (file == null) {
+            return Optional.empty();
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.equals(lastModified)) {
+                return Optional.empty();
+            }
+            Set<String> addresses = new LinkedHashSet<>();
+            for (String line : Files.readAllLines(file)) {
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                    addresses.add(trimmed);
+                }
+            }
+            lastModified = modified;
+            if (addresses.isEmpty()) {
+                log.warn("Fichier d'adresses {} vide pour {}, liste précédente conservée", file, service);
+                return Optional.empty();
+            }
+            return Optional.of(addresses);
+        } catch (IOException e) {
+            log.warn("Lecture du fichier d'adresses {} impossible pour {}: {}", file, service, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Set<String> configured() {
+        List<String> addresses = config.getAddresses();
+        if (addresses != null && !addresses.isEmpty()) {
+            return new LinkedHashSet<>(addresses);
+        }
+        return Set.of(config.getHost() + ":" + config.getPort());
+    }
+}
@@ -0,0 +1,157 @@
+package com.codistrib.apigateway.grpc.balancing;
+
+import com.codistrib.apigateway.config.GrpcClientProperties;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Un replica d'un service : ses channels, ses appels en cours et son état de santé.
+ */
+@Slf4j
+final class Backend {
+
+    private final String address;
+    private final ManagedChannel[] channels;
+    private final AtomicInteger index = new AtomicInteger();
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private volatile boolean healthy;
+    private int consecutiveFailures;
+    private int consecutiveSuccesses;
+
+    Backend(String address, GrpcClientProperties.Client config, boolean healthy) {
+        this.address = address;
+        this.healthy = healthy;
+
+        int separator = address.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Adresse gRPC invalide (hôte:port attendu): " + address);
+        }
+        String host = address.substring(0, separator).replace("[", "").replace("]", "");
+        int port = Integer.parseInt(address.substring(separator + 1));
+
+        int size = Math.max(1, config.getChannels());
+        channels = new ManagedChannel[size];
+        for (int i = 0; i < size; i++) {
+            channels[i] = ManagedChannelBuilder
+                .forAddress(host, port)
+                .usePlaintext()  // Pas de TLS pour le dev (à changer en prod)
+                .keepAliveTime(config.getKeepAliveTime().toMillis(), TimeUnit.MILLISECONDS)
+                .keepAliveTimeout(config.getKeepAliveTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        }
+    }
+
+    String address() {
+        return address;
+    }
+
+    ManagedChannel channel() {
+        if (channels.length == 1) {
+            return channels[0];
+        }
+        return channels[Math.floorMod(index.getAndIncrement(), channels.length)];
+    }
+
+    /**
+     * Channel interrogé par la vérification de santé.
+     */
+    ManagedChannel probeChannel() {
+        return channels[0];
+    }
+
+    /**
+     * Ouvre la connexion de chaque channel (sans attendre un premier appel).
+     *
+     * @return terminé quand tous les channels sont READY
+     */
+    CompletableFuture<Void> connect() {
+        CompletableFuture<?>[] ready = new CompletableFuture<?>[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            awaitReady(channels[i], future);
+            ready[i] = future;
+        }
+        return CompletableFuture.allOf(ready);
+    }
+
+    private static void awaitReady(ManagedChannel channel, CompletableFuture<Void> future) {
+        ConnectivityState state = channel.getState(true);
+        if (state == ConnectivityState.READY) {
+            future.complete(null);
+        } else if (state == ConnectivityState.SHUTDOWN) {
+            future.completeExceptionally(new IllegalStateException("Channel fermé"));
+        } else {
+            channel.notifyWhenStateChanged(state, () -> awaitReady(channel, future));
+        }
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    void callStarted() {
+        outstanding.incrementAndGet();
+    }
+
+    void callFinished() {
+        outstanding.decrementAndGet();
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Enregistre le résultat d'une vérification de santé.
+     *
+     * @return true si l'état (sain / écarté) a changé
+     */
+    synchronized boolean record(boolean success, GrpcClientProperties.HealthCheck config) {
+        if (success) {
+            consecutiveFailures = 0;
+            consecutiveSuccesses++;
+            if (!healthy && consecutiveSuccesses >= config.getHealthyThreshold()) {
+                healthy = true;
+                return true;
+            }
+        } else {
+            consecutiveSuccesses = 0;
+            consecutiveFailures++;
+            if (healthy && consecutiveFailures >= config.getUnhealthyThreshold()) {
+                healthy = false;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fermeture progressive : les appels en cours se terminent.
+     */
+    void shutdown() {
+        for (ManagedChannel channel : channels) {
+            channel.shutdown();
+        }
+    }
+
+    void awaitTermination(long timeoutMs) {
+        for (ManagedChannel channel : channels) {
+            try {
+                if (!channel.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    channel.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                log.warn("Interruption lors de la fermeture du channel gRPC {}", address, e);
+                channel.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.codistrib.apigateway.grpc.balancing;
+
+import com.codistrib.apigateway.config.GrpcClientProperties;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.health.v1.HealthCheckRequest;
+import io.grpc.health.v1.HealthCheckResponse;
+import io.grpc.health.v1.HealthGrpc;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Channel réparti entre les replicas d'un service.
+ *
+ * Chaque appel est envoyé à un replica choisi selon la politique configurée :
+ * - ROUND_ROBIN : à tour de rôle
+ * - LEAST_OUTSTANDING : le moins chargé de deux replicas tirés au hasard
+ *   (appels en cours), ce qui évite d'envoyer du trafic à un replica lent
+ *
+ * Les replicas qui échouent à la vérification de santé (grpc.health.v1) sont
+ * écartés, puis réintégrés quand ils redeviennent SERVING. Si aucun replica
+ * n'est sain, tous sont utilisés plutôt que de refuser le trafic.
+ *
+ * La liste des replicas peut changer à chaud ({@link #refresh()}) : un nouveau
+ * replica reçoit du trafic dès sa première vérification de santé réussie,
+ * un replica retiré termine ses appels en cours avant fermeture.
+ *
+ * Une seconde tentative du même appel ({@link ReplicaHint}) est envoyée à un
+ * autre replica que la première.
+ */
+@Slf4j
+public final class BalancedChannel extends Channel {
+
+    private final String service;
+    private final GrpcClientProperties.Client config;
+    private final GrpcClientProperties.HealthCheck healthCheck;
+    private final AddressSource source;
+    private final AtomicInteger index = new AtomicInteger();
+
+    private volatile List<Backend> backends = List.of();
+    private volatile List<Backend> healthy = List.of();
+
+    public BalancedChannel(String service, GrpcClientProperties.Client config) {
+        this.service = service;
+        this.config = config;
+        this.healthCheck = config.getLoadBalancing().getHealthCheck();
+        this.source = new AddressSource(service, config);
+        update(source.initial(), true);
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method,
+                                                         CallOptions callOptions) {
+        ReplicaHint hint = callOptions.getOption(ReplicaHint.KEY);
+        Backend backend = pick(hint != null ? hint.lastReplica() : null);
+        if (hint != null) {
+            hint.use(backend);
+        }
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(backend.channel().newCall(method, callOptions)) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                backend.callStarted();
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        backend.callFinished();
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+        };
+    }
+
+    @Override
+    public String authority() {
+        return backends.get(0).channel().authority();
+    }
+
+    /**
+     * Relit la source d'adresses (fichier surveillé) et applique les changements.
+     */
+    public void refresh() {
+        source.poll().ifPresent(addresses -> update(addresses, false));
+    }
+
+    public boolean isWatched() {
+        return source.isWatched();
+    }
+
+    /**
+     * Lance une vérification de santé de chaque replica.
+     */
+    public void checkHealth() {
+        if (healthCheck.isEnabled()) {
+            backends.forEach(this::check);
+        }
+    }
+
+    /**
+     * Établit les connexions vers tous les replicas (warm-up).
+     */
+    public CompletableFuture<Void> connect() {
+        return CompletableFuture.allOf(backends.stream()
+            .map(Backend::connect)
+            .toArray(CompletableFuture[]::new));
+    }
+
+    public int size() {
+        return backends.size();
+    }
+
+    public int healthyCount() {
+        return healthy.size();
+    }
+
+    public void shutdown() {
+        List<Backend> current = backends;
+        current.forEach(Backend::shutdown);
+        current.forEach(backend -> backend.awaitTermination(5_000));
+    }
+
+    /**
+     * @param avoid replica déjà utilisé par une autre tentative du même appel (ou null)
+     */
+    private Backend pick(Object avoid) {
+        List<Backend> candidates = healthy;
+        if (candidates.isEmpty()) {
+            // Aucun replica sain : mieux vaut tenter que refuser tout le trafic
+            candidates = backends;
+        }
+        if (avoid != null && candidates.size() > 1 && candidates.contains(avoid)) {
+            List<Backend> others = new ArrayList<>(candidates);
+            others.remove(avoid);
+            candidates = others;
+        }
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+
+        if (config.getLoadBalancing().getPolicy() == GrpcClientProperties.LoadBalancing.Policy.ROUND_ROBIN) {
+            return candidates.get(Math.floorMod(index.getAndIncrement(), size));
+        }
+
+        // Deux choix aléatoires : proche du "moins chargé" sans parcourir toute la liste
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        Backend a = candidates.get(first);
+        Backend b = candidates.get(second);
+        return a.outstanding() <= b.outstanding() ? a : b;
+    }
+
+    private synchronized void update(Set<String> addresses, boolean initial) {
+        Map<String, Backend> current = new HashMap<>();
+        backends.forEach(backend -> current.put(backend.address(), backend));
+
+        List<Backend> next = new ArrayList<>();
+        List<Backend> added = new ArrayList<>();
+        for (String address : addresses) {
+            Backend existing = current.remove(address);
+            if (existing != null) {
+                next.add(existing);
+                continue;
+            }
+            try {
+                // Au démarrage on fait confiance à la configuration ; ensuite un
+                // nouveau replica attend sa première vérification de santé réussie
+                Backend backend = new Backend(address, config, initial || !healthCheck.isEnabled());
+                next.add(backend);
+                added.add(backend);
+            } catch (IllegalArgumentException e) {
+                log.error("Replica ignoré pour {}: {}", service, e.getMessage());
+            }
+        }
+
+        if (next.isEmpty()) {
+            if (initial) {
+                throw new IllegalStateException("Aucune adresse valide pour le service gRPC " + service);
+            }
+            log.warn("Aucune adresse valide pour {}, liste précédente conservée", service);
+            return;
+        }
+
+        backends = List.copyOf(next);
+        recomputeHealthy();
+
+        current.values().forEach(Backend::shutdown);
+        if (!initial && (!added.isEmpty() || !current.isEmpty())) {
+            log.info("Replicas de {} mis à jour - ajoutés: {}, retirés: {}", service,
+                added.stream().map(Backend::address).toList(), current.keySet());
+            added.forEach(this::check);
+        } else if (initial) {
+            log.info("Replicas de {}: {} ({})", service, addresses, config.getLoadBalancing().getPolicy());
+        }
+    }
+
+    private void check(Backend backend) {
+        if (!healthCheck.isEnabled()) {
+            return;
+        }
+        HealthCheckRequest request = HealthCheckRequest.newBuilder()
+            .setService(healthCheck.getServiceName())
+            .build();
+        Futures.addCallback(
+            HealthGrpc.newFutureStub(backend.probeChannel())
+                .withDeadlineAfter(healthCheck.getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .check(request),
+            new FutureCallback<>() {
+                @Override
+                public void onSuccess(HealthCheckResponse response) {
+                    apply(backend, response.getStatus() == HealthCheckResponse.ServingStatus.SERVING);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    // Serveur sans service de santé : on juge sur la joignabilité seule
+                    apply(backend, Status.fromThrowable(t).getCode() == Status.Code.UNIMPLEMENTED);
+                }
+            },
+            MoreExecutors.directExecutor());
+    }
+
+    private void apply(Backend backend, boolean success) {
+        if (backend.record(success, healthCheck)) {
+            if (backend.isHealthy()) {
+                log.info("Replica {} de {} réintégré", backend.address(), service);
+            } else {
+                log.warn("Replica {} de {} écarté (vérification de santé en échec)", backend.address(), service);
+            }
+            recomputeHealthy();
+        }
+    }
+
+    private synchronized void recomputeHealthy() {
+        healthy = backends.stream().filter(Backend::isHealthy).toList();
+    }
+}
@@ -0,0 +1,24 @@
+package com.codistrib.apigateway.grpc.balancing;
+
+import io.grpc.CallOptions;
+
+/**
+ * Lien entre les tentatives d'un même appel logique (requête couverte / hedging).
+ *
+ * Passé dans les CallOptions de chaque tentative : {@link BalancedChannel}
+ * y note le replica choisi, et évite ce replica pour la tentative suivante.
+ */
+public final class ReplicaHint {
+
+    public static final CallOptions.Key<ReplicaHint> KEY = CallOptions.Key.create("codistrib-replica-hint");
+
+    private volatile Object lastReplica;
+
+    Object lastReplica() {
+        return lastReplica;
+    }
+
+    void use(Object replica) {
+        lastReplica = replica;
+    }
+}
@@ -0,0 +1,251 @@
+package com.codistrib.apigateway.grpc.hedging;
+
+import com.codistrib.apigateway.config.GrpcClientProperties;
+import com.codistrib.apigateway.grpc.GrpcChannelRegistry;
+import com.codistrib.apigateway.grpc.balancing.ReplicaHint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Requêtes couvertes (hedging) pour les lectures gRPC idempotentes.
+ *
+ * Si la réponse n'est pas arrivée après le p95 observé de la méthode (borné
+ * par min-delay / max-delay), une seconde tentative part vers un autre
+ * replica ({@link ReplicaHint}). La première réponse gagne, l'autre appel est
+ * annulé. Une pause GC ou une requête lente sur un replica ne se retrouve
+ * donc plus dans la latence de queue.
+ *
+ * Garde-fous :
+ * - seules les méthodes listées dans grpc.hedging.methods sont couvertes
+ * - un budget par service ({@link RetryBudget}) limite les tentatives
+ *   supplémentaires à budget-ratio du trafic
+ * - pas de couverture tant que min-samples latences n'ont pas été mesurées
+ * - pas de couverture avec moins de deux replicas sains : la seconde
+ *   tentative repartirait vers le replica déjà lent
+ * - une erreur de la première tentative avant le délai est renvoyée telle quelle
+ *
+ * Le p95 est calculé sur la latence propre de chaque tentative : gagnante,
+ * perdante (durée jusqu'à son annulation, borne basse) ou en erreur
+ * (deadline dépassé compris). Mesurer seulement le gagnant ferait baisser
+ * le p95, donc le délai, à mesure que la couverture gagne.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HedgingExecutor {
+
+    private final GrpcClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final GrpcChannelRegistry channels;
+
+    private final Map<String, MethodState> methods = new ConcurrentHashMap<>();
+    private final Map<String, ServiceBudget> budgets = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        GrpcClientProperties.Hedging config = properties.getHedging();
+        if (!config.isEnabled()) {
+            log.info("Hedging gRPC désactivé");
+            return;
+        }
+        for (String fullMethodName : config.getMethods()) {
+            String service = fullMethodName.substring(0, Math.max(0, fullMethodName.indexOf('/')));
+            ServiceBudget budget = budgets.computeIfAbsent(service, this::createBudget);
+            methods.put(fullMethodName, new MethodState(fullMethodName, budget,
+                new LatencyWindow(config.getSampleWindow(), config.getPercentile())));
+        }
+        log.info("Hedging gRPC - {} méthode(s) idempotente(s), p{}, budget {}%",
+            methods.size(), Math.round(config.getPercentile() * 100), Math.round(config.getBudgetRatio() * 100));
+    }
+
+    /**
+     * Exécute un appel unaire, couvert si la méthode est déclarée idempotente.
+     *
+     * @param service        nom du client gRPC (clé de grpc.client.*)
+     * @param fullMethodName nom complet gRPC ("package.Service/Methode")
+     * @param attempt        lance une tentative ; le hint doit être passé dans les CallOptions
+     */
+    public <T> Mono<T> execute(String service, String fullMethodName, Function<ReplicaHint, Mono<T>> attempt) {
+        MethodState state = methods.get(fullMethodName);
+        if (state == null) {
+            return attempt.apply(null);
+        }
+
+        return Mono.defer(() -> {
+            state.budget.tokens.deposit();
+            ReplicaHint hint = new ReplicaHint();
+            long delayNanos = canHedge(service) ? state.hedgeDelayNanos() : -1;
+
+            Mono<T> primary = measured(attempt.apply(hint), state);
+            return delayNanos < 0
+                ? primary
+                : Mono.create(sink -> race(sink, service, state, primary,
+                    () -> measured(attempt.apply(hint), state), delayNanos));
+        });
+    }
+
+    /**
+     * Enregistre la latence d'une tentative, quelle que soit son issue
+     * (valeur, erreur, annulation par la tentative gagnante).
+     */
+    private static <T> Mono<T> measured(Mono<T> attempt, MethodState state) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return attempt.doFinally(signal -> state.latencies.record(System.nanoTime() - startNanos));
+        });
+    }
+
+    /**
+     * Première tentative, puis seconde tentative après le délai si le budget le permet.
+     */
+    private <T> void race(MonoSink<T> sink, String service, MethodState state, Mono<T> primary,
+                          Supplier<Mono<T>> hedge, long delayNanos) {
+        Race<T> race = new Race<>(sink);
+        Disposable.Composite running = Disposables.composite();
+        // Fin de la course (ou annulation par l'abonné) : le perdant est annulé
+        sink.onDispose(running);
+
+        running.add(primary.subscribe(race::onValue, race::onError));
+        running.add(Mono.delay(Duration.ofNanos(delayNanos)).subscribe(tick -> {
+            // Un replica a pu être écarté pendant le délai
+            if (!canHedge(service)) {
+                return;
+            }
+            if (!state.budget.tokens.tryWithdraw()) {
+                state.budget.denied.increment();
+                return;
+            }
+            if (!race.startHedge()) {
+                return;
+            }
+            state.budget.sent.increment();
+            running.add(hedge.get().subscribe(value -> {
+                if (race.onValue(value)) {
+                    state.budget.won.increment();
+                }
+            }, race::onError));
+        }));
+    }
+
+    /**
+     * Une seconde tentative n'a de sens que vers un autre replica sain.
+     */
+    private boolean canHedge(String service) {
+        return channels.healthyReplicas(service) >= 2;
+    }
+
+    private ServiceBudget createBudget(String service) {
+        GrpcClientProperties.Hedging config = properties.getHedging();
+        ServiceBudget budget = new ServiceBudget(
+            new RetryBudget(config.getBudgetRatio(), config.getBudgetMaxTokens()),
+            hedgeCounter(service, "sent"),
+            hedgeCounter(service, "won"),
+            hedgeCounter(service, "denied"));
+        Gauge.builder("gateway.grpc.hedge.budget", budget.tokens, RetryBudget::available)
+            .description("Tentatives supplémentaires disponibles")
+            .tag("service", service)
+            .register(meterRegistry);
+        return budget;
+    }
+
+    private Counter hedgeCounter(String service, String outcome) {
+        return Counter.builder("gateway.grpc.hedges")
+            .description("Secondes tentatives (sent), gagnantes (won), refusées par le budget (denied)")
+            .tags("service", service, "outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private record ServiceBudget(RetryBudget tokens, Counter sent, Counter won, Counter denied) {
+    }
+
+    private final class MethodState {
+
+        private final ServiceBudget budget;
+        private final LatencyWindow latencies;
+
+        private MethodState(String fullMethodName, ServiceBudget budget, LatencyWindow latencies) {
+            this.budget = budget;
+            this.latencies = latencies;
+            Gauge.builder("gateway.grpc.hedge.delay", this, state -> state.hedgeDelayNanos() / 1_000_000.0)
+                .description("Délai avant seconde tentative (ms, -1 si pas encore assez de mesures)")
+                .tag("method", fullMethodName)
+                .register(meterRegistry);
+        }
+
+        /**
+         * Délai avant la seconde tentative, ou -1 si la méthode n'est pas encore couverte.
+         */
+        private long hedgeDelayNanos() {
+            GrpcClientProperties.Hedging config = properties.getHedging();
+            long percentile = latencies.percentileNanos();
+            if (latencies.count() < config.getMinSamples() || percentile < 0) {
+                return -1;
+            }
+            return Math.min(config.getMaxDelay().toNanos(), Math.max(config.getMinDelay().toNanos(), percentile));
+        }
+    }
+
+    /**
+     * État d'une course entre deux tentatives.
+     */
+    private static final class Race<T> {
+
+        private final MonoSink<T> sink;
+        private int pending = 1;
+        private boolean done;
+
+        private Race(MonoSink<T> sink) {
+            this.sink = sink;
+        }
+
+        private synchronized boolean startHedge() {
+            if (done) {
+                return false;
+            }
+            pending++;
+            return true;
+        }
+
+        /**
+         * @return true si cette valeur a gagné la course
+         */
+        private boolean onValue(T value) {
+            synchronized (this) {
+                if (done) {
+                    return false;
+                }
+                done = true;
+            }
+            sink.success(value);
+            return true;
+        }
+
+        /**
+         * L'erreur n'est renvoyée que si aucune autre tentative n'est en cours.
+         */
+        private void onError(Throwable error) {
+            synchronized (this) {
+                if (done || --pending > 0) {
+                    return;
+                }
+                done = true;
+            }
+            sink.error(error);
+        }
+    }
+}
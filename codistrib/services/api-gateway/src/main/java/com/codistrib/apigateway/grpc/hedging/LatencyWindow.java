@@ -0,0 +1,55 @@
+package com.codistrib.apigateway.grpc.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dernières latences d'une méthode et percentile estimé.
+ *
+ * Tampon circulaire sans verrou : une écriture concurrente peut écraser une
+ * mesure, ce qui est sans effet sur une estimation de percentile. Le
+ * percentile est recalculé toutes les size/8 mesures (copie + tri), pas à
+ * chaque appel.
+ */
+final class LatencyWindow {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int recomputeEvery;
+    private final AtomicLong count = new AtomicLong();
+
+    private volatile long percentileNanos = -1;
+
+    LatencyWindow(int size, double percentile) {
+        this.samples = new long[Math.max(8, size)];
+        this.percentile = percentile;
+        this.recomputeEvery = Math.max(1, samples.length / 8);
+    }
+
+    void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples[(int) (n % samples.length)] = nanos;
+        if ((n + 1) % recomputeEvery == 0) {
+            recompute(n + 1);
+        }
+    }
+
+    long count() {
+        return count.get();
+    }
+
+    /**
+     * Percentile courant en nanosecondes, -1 tant qu'aucun calcul n'a eu lieu.
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recompute(long total) {
+        int filled = (int) Math.min(total, samples.length);
+        long[] copy = Arrays.copyOf(samples, filled);
+        Arrays.sort(copy);
+        int index = (int) Math.min(filled - 1, Math.ceil(percentile * filled) - 1);
+        percentileNanos = copy[Math.max(0, index)];
+    }
+}
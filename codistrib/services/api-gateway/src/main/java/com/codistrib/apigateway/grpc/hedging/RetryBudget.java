@@ -0,0 +1,50 @@
+package com.codistrib.apigateway.grpc.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Budget de tentatives supplémentaires (token bucket).
+ *
+ * Chaque appel dépose "ratio" jeton, chaque tentative supplémentaire en
+ * retire un : sur la durée, les tentatives ne dépassent pas ratio x trafic,
+ * même si le service ralentit pour tout le monde (pas d'amplification).
+ */
+final class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    RetryBudget(double ratio, int maxTokens) {
+        this.deposit = Math.max(1, Math.round(ratio * SCALE));
+        this.capacity = Math.max(1, maxTokens) * SCALE;
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    void deposit() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!tokens.compareAndSet(current, Math.min(capacity, current + deposit)));
+    }
+
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    double available() {
+        return (double) tokens.get() / SCALE;
+    }
+}
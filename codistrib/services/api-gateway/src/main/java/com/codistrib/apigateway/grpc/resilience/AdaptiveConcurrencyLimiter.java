@@ -0,0 +1,95 @@
+package com.codistrib.apigateway.grpc.resilience;
+
+import com.codistrib.apigateway.config.GrpcClientProperties;
+
+/**
+ * Limite de concurrence adaptative (AIMD) pilotée par la latence observée.
+ *
+ * - Le RTT minimal récent sert de référence (réinitialisé à chaque fenêtre)
+ * - Un appel plus lent que référence x tolérance, ou abandonné (deadline,
+ *   service indisponible), réduit la limite de façon multiplicative
+ * - Un appel rapide l'augmente de 1/limite (≈ +1 par "tour" de limite
+ *   appels), uniquement si la limite est réellement utilisée
+ *
+ * Quand le service ralentit, la gateway envoie donc moins d'appels en
+ * parallèle au lieu de les empiler.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final long rttWindowNanos;
+
+    private double limit;
+    private int inFlight;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long rttWindowEndNanos;
+
+    AdaptiveConcurrencyLimiter(GrpcClientProperties.Limiter config) {
+        this.minLimit = Math.max(1, config.getMinLimit());
+        this.maxLimit = Math.max(minLimit, config.getMaxLimit());
+        this.latencyTolerance = config.getLatencyTolerance();
+        this.backoffRatio = config.getBackoffRatio();
+        this.rttWindowNanos = config.getRttWindow().toNanos();
+        this.limit = Math.min(maxLimit, Math.max(minLimit, config.getInitialLimit()));
+        this.rttWindowEndNanos = System.nanoTime() + rttWindowNanos;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Appel terminé normalement (y compris erreur applicative).
+     */
+    synchronized void onSuccess(long rttNanos) {
+        inFlight--;
+
+        long now = System.nanoTime();
+        if (now - rttWindowEndNanos >= 0) {
+            minRttNanos = rttNanos;
+            rttWindowEndNanos = now + rttWindowNanos;
+        } else {
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+        }
+
+        if (rttNanos > minRttNanos * latencyTolerance) {
+            decrease();
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    /**
+     * Appel abandonné (deadline dépassé, surcharge) : signal de saturation.
+     */
+    synchronized void onDropped() {
+        inFlight--;
+        decrease();
+    }
+
+    /**
+     * Appel sans échantillon exploitable (annulé par le client HTTP).
+     */
+    synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
@@ -0,0 +1,126 @@
+package com.codistrib.apigateway.grpc.resilience;
+
+import com.codistrib.apigateway.config.GrpcClientProperties;
+
+/**
+ * Disjoncteur sur fenêtre glissante des N derniers appels.
+ *
+ * - CLOSED : les appels passent ; au-delà du taux d'échec, le circuit s'ouvre
+ * - OPEN : échec immédiat pendant open-duration (aucun appel au service)
+ * - HALF_OPEN : quelques appels d'essai ; tous réussis -> CLOSED, un échec -> OPEN
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int index;
+    private int recorded;
+    private int failures;
+    private long openUntilNanos;
+    private int trialsInFlight;
+    private int trialSuccesses;
+
+    CircuitBreaker(GrpcClientProperties.CircuitBreaker config) {
+        this.window = new boolean[Math.max(1, config.getWindowSize())];
+        this.minimumCalls = Math.min(window.length, Math.max(1, config.getMinimumCalls()));
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.openDurationNanos = config.getOpenDuration().toNanos();
+        this.halfOpenCalls = Math.max(1, config.getHalfOpenCalls());
+    }
+
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openUntilNanos < 0) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsInFlight = 0;
+            trialSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsInFlight >= halfOpenCalls) {
+                return false;
+            }
+            trialsInFlight++;
+        }
+        return true;
+    }
+
+    synchronized void onResult(boolean failure) {
+        if (state == State.HALF_OPEN) {
+            trialsInFlight--;
+            if (failure) {
+                open();
+            } else if (++trialSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+
+        if (recorded == window.length) {
+            if (window[index]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[index] = failure;
+        if (failure) {
+            failures++;
+        }
+        index = (index + 1) % window.length;
+
+        if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+            open();
+        }
+    }
+
+    /**
+     * Permission rendue sans résultat (appel refusé plus loin ou annulé).
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN && trialsInFlight > 0) {
+            trialsInFlight--;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Délai avant le prochain essai, en millisecondes.
+     */
+    synchronized long retryAfterMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, (openUntilNanos - System.nanoTime()) / 1_000_000);
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntilNanos = System.nanoTime() + openDurationNanos;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        index = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
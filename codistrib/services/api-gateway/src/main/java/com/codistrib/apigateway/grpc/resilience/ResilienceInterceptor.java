@@ -0,0 +1,201 @@
+package com.codistrib.apigateway.grpc.resilience;
+
+import com.codistrib.apigateway.config.GrpcClientProperties;
+import com.codistrib.apigateway.grpc.GrpcStatusMapper;
+import com.codistrib.apigateway.grpc.RequestDeadline;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Deadline;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protège un service gRPC en aval : disjoncteur + limite de concurrence adaptative.
+ *
+ * Installé par {@link com.codistrib.apigateway.grpc.GrpcChannelRegistry} sur
+ * chaque channel : tous les clients de la gateway en bénéficient.
+ *
+ * Un appel refusé échoue immédiatement en UNAVAILABLE (503) avec un délai
+ * de nouvel essai dans les trailers (header Retry-After côté HTTP).
+ *
+ * Un DEADLINE_EXCEEDED n'est pas compté comme échec quand le deadline de
+ * l'appel est celui de la requête HTTP ({@link RequestDeadline#CALL_OPTION},
+ * X-Request-Timeout) : il expire du fait de l'appelant, pas du service, et ne
+ * doit pas ouvrir le disjoncteur commun à tous. Un deadline posé par la
+ * gateway (service, écran BFF, tentative couverte) reste un signal de lenteur.
+ */
+@Slf4j
+public class ResilienceInterceptor implements ClientInterceptor {
+
+    /**
+     * Codes qui signalent un service saturé ou en panne.
+     */
+    private static final Set<Status.Code> FAILURES = EnumSet.of(
+        Status.Code.UNAVAILABLE,
+        Status.Code.DEADLINE_EXCEEDED,
+        Status.Code.RESOURCE_EXHAUSTED,
+        Status.Code.INTERNAL,
+        Status.Code.UNKNOWN
+    );
+
+    private final String service;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final CircuitBreaker breaker;
+    private final long limiterRetryAfterMs;
+
+    private final Counter rejectedByLimiter;
+    private final Counter rejectedByCircuit;
+
+    public ResilienceInterceptor(String service, GrpcClientProperties.Client config, MeterRegistry meterRegistry) {
+        this.service = service;
+        this.limiter = new AdaptiveConcurrencyLimiter(config.getLimiter());
+        this.breaker = new CircuitBreaker(config.getCircuitBreaker());
+        this.limiterRetryAfterMs = config.getLimiter().getRetryAfter().toMillis();
+
+        Gauge.builder("gateway.grpc.limiter.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+            .description("Limite de concurrence courante vers le service")
+            .tag("service", service)
+            .register(meterRegistry);
+        Gauge.builder("gateway.grpc.limiter.in_flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+            .description("Appels en cours vers le service")
+            .tag("service", service)
+            .register(meterRegistry);
+        Gauge.builder("gateway.grpc.circuit.state", breaker, b -> b.state().ordinal())
+            .description("État du disjoncteur (0 = fermé, 1 = semi-ouvert, 2 = ouvert)")
+            .tag("service", service)
+            .register(meterRegistry);
+        this.rejectedByLimiter = Counter.builder("gateway.grpc.rejected")
+            .description("Appels gRPC refusés par la gateway")
+            .tags("service", service, "reason", "limiter")
+            .register(meterRegistry);
+        this.rejectedByCircuit = Counter.builder("gateway.grpc.rejected")
+            .description("Appels gRPC refusés par la gateway")
+            .tags("service", service, "reason", "circuit_open")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        return new GuardedCall<>(next.newCall(method, callOptions), method.getBareMethodName(),
+            isCallerBound(callOptions));
+    }
+
+    /**
+     * Deadline de l'appel fixé par celui de la requête HTTP (aucune borne plus
+     * courte posée par la gateway) : imposé par l'appelant.
+     */
+    private static boolean isCallerBound(CallOptions callOptions) {
+        Deadline deadline = callOptions.getDeadline();
+        Deadline request = callOptions.getOption(RequestDeadline.CALL_OPTION);
+        return deadline != null && request != null && !deadline.isBefore(request);
+    }
+
+    private final class GuardedCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final String methodName;
+        private final boolean callerBound;
+        private boolean rejected;
+
+        private GuardedCall(ClientCall<ReqT, RespT> delegate, String methodName, boolean callerBound) {
+            super(delegate);
+            this.methodName = methodName;
+            this.callerBound = callerBound;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            if (!breaker.tryAcquire()) {
+                rejectedByCircuit.increment();
+                reject(responseListener, "Service " + service + " indisponible (circuit ouvert)",
+                    Math.max(1, breaker.retryAfterMillis()));
+                return;
+            }
+            if (!limiter.tryAcquire()) {
+                breaker.release();
+                rejectedByLimiter.increment();
+                reject(responseListener, "Service " + service + " saturé", limiterRetryAfterMs);
+                return;
+            }
+
+            long startNanos = System.nanoTime();
+            super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                    record(status, System.nanoTime() - startNanos);
+                    super.onClose(status, trailers);
+                }
+            }, headers);
+        }
+
+        @Override
+        public void request(int numMessages) {
+            if (!rejected) {
+                super.request(numMessages);
+            }
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            if (!rejected) {
+                super.sendMessage(message);
+            }
+        }
+
+        @Override
+        public void halfClose() {
+            if (!rejected) {
+                super.halfClose();
+            }
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            if (!rejected) {
+                super.cancel(message, cause);
+            }
+        }
+
+        private void reject(Listener<RespT> responseListener, String description, long retryAfterMs) {
+            rejected = true;
+            log.warn("Appel gRPC {} refusé: {}", methodName, description);
+            Metadata trailers = new Metadata();
+            trailers.put(GrpcStatusMapper.RETRY_AFTER_MS, String.valueOf(retryAfterMs));
+            responseListener.onClose(Status.UNAVAILABLE.withDescription(description), trailers);
+        }
+
+        private void record(Status status, long rttNanos) {
+            if (status.getCode() == Status.Code.CANCELLED
+                || (status.getCode() == Status.Code.DEADLINE_EXCEEDED && callerBound)) {
+                // Client HTTP déconnecté ou budget de la requête épuisé : pas un signal sur la santé du service
+                limiter.onIgnored();
+                breaker.release();
+                return;
+            }
+            boolean failure = FAILURES.contains(status.getCode());
+            if (failure) {
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(rttNanos);
+            }
+            breaker.onResult(failure);
+            if (failure) {
+                log.debug("Appel gRPC {} en échec ({}) après {}ms", methodName, status.getCode(),
+                    TimeUnit.NANOSECONDS.toMillis(rttNanos));
+            }
+        }
+    }
+}
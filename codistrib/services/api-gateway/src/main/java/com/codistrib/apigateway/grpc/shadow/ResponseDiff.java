@@ -0,0 +1,93 @@
+package com.codistrib.apigateway.grpc.shadow;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Message;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Comparaison d'une réponse principale et de la réponse miroir.
+ *
+ * Pour des messages protobuf, la comparaison descend dans les sous-messages
+ * et donne les champs différents en notation pointée (noms du .proto, ex:
+ * alert.status). Les listes de messages sont comparées élément par élément,
+ * dans l'ordre, sous un même chemin (alerts.status) ; une liste de taille
+ * différente est signalée par son nom seul. Un champ ignoré (horodatages...)
+ * ne compte à aucune profondeur : updatedAt ignore alert.updatedAt et
+ * alerts.updatedAt, un chemin complet n'ignore que ce chemin.
+ */
+final class ResponseDiff {
+
+    /**
+     * Réponse d'un autre type que la réponse principale.
+     */
+    static final String TYPE = "(type)";
+
+    private final Set<String> ignoredFields;
+
+    ResponseDiff(Collection<String> ignoredFields) {
+        this.ignoredFields = Set.copyOf(ignoredFields);
+    }
+
+    /**
+     * @return les champs différents, vide si les réponses sont équivalentes
+     */
+    List<String> diff(Object primary, Object shadow) {
+        if (!(primary instanceof Message expected) || !(shadow instanceof Message actual)) {
+            return Objects.equals(primary, shadow) ? List.of() : List.of(TYPE);
+        }
+        if (!expected.getDescriptorForType().getFullName().equals(actual.getDescriptorForType().getFullName())) {
+            return List.of(TYPE);
+        }
+        if (expected.equals(actual)) {
+            return List.of();
+        }
+
+        Set<String> fields = new LinkedHashSet<>();
+        compare(expected, actual, "", fields);
+        return List.copyOf(fields);
+    }
+
+    private void compare(Message expected, Message actual, String prefix, Set<String> fields) {
+        if (expected.equals(actual)) {
+            return;
+        }
+        for (Descriptors.FieldDescriptor field : expected.getDescriptorForType().getFields()) {
+            String path = prefix + field.getName();
+            if (ignoredFields.contains(field.getName()) || ignoredFields.contains(path)) {
+                continue;
+            }
+            boolean message = field.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE;
+            if (field.isRepeated() && message && !field.isMapField()) {
+                int size = expected.getRepeatedFieldCount(field);
+                if (size != actual.getRepeatedFieldCount(field)) {
+                    fields.add(path);
+                    continue;
+                }
+                for (int i = 0; i < size; i++) {
+                    compare((Message) expected.getRepeatedField(field, i), (Message) actual.getRepeatedField(field, i),
+                        path + ".", fields);
+                }
+            } else if (message && !field.isRepeated() && expected.hasField(field) && actual.hasField(field)) {
+                compare((Message) expected.getField(field), (Message) actual.getField(field), path + ".", fields);
+            } else if (!Objects.equals(value(expected, field), value(actual, field))) {
+                fields.add(path);
+            }
+        }
+        if (!expected.getUnknownFields().equals(actual.getUnknownFields())) {
+            // Champs ajoutés par la version candidate, inconnus de la gateway
+            fields.add(prefix + "(unknown)");
+        }
+    }
+
+    private static Object value(Message message, Descriptors.FieldDescriptor field) {
+        if (field.hasPresence() && !message.hasField(field)) {
+            return null;
+        }
+        return message.getField(field);
+    }
+}
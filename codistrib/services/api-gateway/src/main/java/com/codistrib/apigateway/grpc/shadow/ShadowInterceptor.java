@@ -0,0 +1,89 @@
+package com.codistrib.apigateway.grpc.shadow;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+import java.util.Set;
+
+/**
+ * Capture des appels à dupliquer vers la cible miroir d'un service.
+ *
+ * Seuls les appels unaires des méthodes déclarées, tirés au sort, sont suivis.
+ * La duplication est décidée après la réponse principale (statut OK) et se
+ * limite à un dépôt non bloquant dans la file de {@link ShadowMirror} :
+ * l'appelant reçoit sa réponse avant. Une tentative couverte (hedging)
+ * annulée n'est pas dupliquée.
+ */
+final class ShadowInterceptor implements ClientInterceptor {
+
+    private final String service;
+    private final Set<String> methods;
+    private final ShadowMirror mirror;
+
+    ShadowInterceptor(String service, Set<String> methods, ShadowMirror mirror) {
+        this.service = service;
+        this.methods = methods;
+        this.mirror = mirror;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        ClientCall<ReqT, RespT> call = next.newCall(method, callOptions);
+        if (method.getType() != MethodDescriptor.MethodType.UNARY
+            || !methods.contains(method.getFullMethodName())
+            || !mirror.sample()) {
+            return call;
+        }
+        return new MirroredCall<>(call, method);
+    }
+
+    private final class MirroredCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final MethodDescriptor<ReqT, RespT> method;
+        private volatile ReqT request;
+        private volatile RespT response;
+
+        private MirroredCall(ClientCall<ReqT, RespT> delegate, MethodDescriptor<ReqT, RespT> method) {
+            super(delegate);
+            this.method = method;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            Metadata copy = new Metadata();
+            copy.merge(headers);
+            long startNanos = System.nanoTime();
+
+            super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                @Override
+                public void onMessage(RespT message) {
+                    response = message;
+                    super.onMessage(message);
+                }
+
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                    long primaryNanos = System.nanoTime() - startNanos;
+                    super.onClose(status, trailers);
+                    if (status.isOk() && request != null && response != null) {
+                        mirror.submit(new ShadowMirror.Mirror<>(service, method, copy, request, response, primaryNanos));
+                    }
+                }
+            }, headers);
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            request = message;
+            super.sendMessage(message);
+        }
+    }
+}
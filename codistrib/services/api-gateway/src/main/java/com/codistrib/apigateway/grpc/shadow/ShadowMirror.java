@@ -0,0 +1,330 @@
+package com.codistrib.apigateway.grpc.shadow;
+
+import com.codistrib.apigateway.config.GrpcClientProperties;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.MetadataUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trafic miroir vers une version candidate d'un service gRPC.
+ *
+ * Un échantillon des lectures (grpc.shadow.methods) est rejoué vers la cible
+ * déclarée pour le service (grpc.shadow.targets), avec la même requête et
+ * les mêmes métadonnées. La réponse miroir est comparée à la réponse
+ * principale ({@link ResponseDiff}), puis jetée.
+ *
+ * Le chemin principal n'attend jamais le miroir : les appels capturés
+ * ({@link ShadowInterceptor}) sont déposés dans une file bornée, vidée par un
+ * thread dédié avec au plus max-in-flight appels simultanés vers la cible.
+ * File pleine : l'appel n'est pas dupliqué (gateway.grpc.shadow.dropped).
+ *
+ * Résultats : latences comparées (gateway.grpc.shadow.latency{target=primary|shadow}),
+ * comparaisons (gateway.grpc.shadow.comparisons{outcome}) et un résumé
+ * périodique dans les logs, avec les champs qui diffèrent.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShadowMirror {
+
+    private final GrpcClientProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ManagedChannel> targets = new HashMap<>();
+    private final Map<String, Counter> dropped = new HashMap<>();
+    private final Map<String, MethodSummary> summaries = new ConcurrentHashMap<>();
+
+    private BlockingQueue<Mirror<?, ?>> queue;
+    private Semaphore inFlight;
+    private ResponseDiff responseDiff;
+    private Thread dispatcher;
+    private ScheduledExecutorService reporter;
+    private volatile boolean running;
+
+    /**
+     * Appel principal réussi, à rejouer vers la cible miroir.
+     */
+    record Mirror<ReqT, RespT>(
+        String service,
+        MethodDescriptor<ReqT, RespT> method,
+        Metadata headers,
+        ReqT request,
+        RespT response,
+        long primaryNanos
+    ) {
+    }
+
+    @PostConstruct
+    public void init() {
+        GrpcClientProperties.Shadow config = properties.getShadow();
+        if (!config.isEnabled() || config.getTargets().isEmpty() || config.getMethods().isEmpty()) {
+            log.info("Trafic miroir gRPC désactivé");
+            return;
+        }
+
+        config.getTargets().forEach((service, target) -> {
+            targets.put(service, ManagedChannelBuilder
+                .forTarget(target)
+                .usePlaintext()  // Pas de TLS pour le dev (à changer en prod)
+                .build());
+            dropped.put(service, Counter.builder("gateway.grpc.shadow.dropped")
+                .description("Appels non dupliqués (file miroir pleine)")
+                .tag("service", service)
+                .register(meterRegistry));
+        });
+        queue = new ArrayBlockingQueue<>(config.getQueueSize());
+        inFlight = new Semaphore(Math.max(1, config.getMaxInFlight()));
+        responseDiff = new ResponseDiff(config.getIgnoredFields());
+        Gauge.builder("gateway.grpc.shadow.pending", queue, BlockingQueue::size)
+            .description("Appels en attente de duplication")
+            .register(meterRegistry);
+
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "grpc-shadow");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "grpc-shadow-summary");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = config.getSummaryInterval().toMillis();
+        reporter.scheduleAtFixedRate(this::report, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+
+        log.warn("Trafic miroir gRPC ACTIF - {} ({} % des appels, {} méthode(s))",
+            config.getTargets(), Math.round(config.getSampleRate() * 100), config.getMethods().size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        dispatcher.interrupt();
+        reporter.shutdownNow();
+        targets.values().forEach(ManagedChannel::shutdownNow);
+    }
+
+    /**
+     * Intercepteur de capture pour le service, ou null s'il n'a pas de cible miroir.
+     */
+    public ClientInterceptor interceptor(String service) {
+        if (!running || !targets.containsKey(service)) {
+            return null;
+        }
+        return new ShadowInterceptor(service, Set.copyOf(properties.getShadow().getMethods()), this);
+    }
+
+    boolean sample() {
+        double sampleRate = properties.getShadow().getSampleRate();
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Dépose un appel à dupliquer sans bloquer l'appelant.
+     */
+    void submit(Mirror<?, ?> mirror) {
+        if (!queue.offer(mirror)) {
+            dropped.get(mirror.service()).increment();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                Mirror<?, ?> mirror = queue.poll(1, TimeUnit.SECONDS);
+                if (mirror == null) {
+                    continue;
+                }
+                inFlight.acquire();
+                send(mirror);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private <ReqT, RespT> void send(Mirror<ReqT, RespT> mirror) {
+        MethodSummary summary = summary(mirror.method().getFullMethodName());
+        Channel channel = ClientInterceptors.intercept(targets.get(mirror.service()),
+            MetadataUtils.newAttachHeadersInterceptor(mirror.headers()));
+        CallOptions options = CallOptions.DEFAULT
+            .withDeadlineAfter(properties.getShadow().getDeadline().toMillis(), TimeUnit.MILLISECONDS);
+
+        long startNanos = System.nanoTime();
+        ListenableFuture<RespT> future;
+        try {
+            future = ClientCalls.futureUnaryCall(channel.newCall(mirror.method(), options), mirror.request());
+        } catch (RuntimeException e) {
+            inFlight.release();
+            summary.failed(mirror, Status.fromThrowable(e));
+            return;
+        }
+
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(RespT shadow) {
+                inFlight.release();
+                List<String> fields = responseDiff.diff(mirror.response(), shadow);
+                summary.compared(mirror, System.nanoTime() - startNanos, fields);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                inFlight.release();
+                summary.failed(mirror, Status.fromThrowable(t));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private MethodSummary summary(String fullMethodName) {
+        return summaries.computeIfAbsent(fullMethodName, method -> new MethodSummary(method, meterRegistry));
+    }
+
+    private void report() {
+        try {
+            summaries.values().forEach(MethodSummary::report);
+        } catch (RuntimeException e) {
+            log.warn("Erreur du résumé du trafic miroir: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Résultats d'une méthode : métriques cumulées et compteurs du résumé
+     * périodique (remis à zéro à chaque résumé).
+     */
+    private static final class MethodSummary {
+
+        private final String method;
+        private final Timer primaryLatency;
+        private final Timer shadowLatency;
+        private final Counter matches;
+        private final Counter mismatches;
+        private final Counter errors;
+
+        private final LongAdder matched = new LongAdder();
+        private final LongAdder mismatched = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder primaryNanos = new LongAdder();
+        private final LongAdder shadowNanos = new LongAdder();
+        private final Map<String, LongAdder> fieldDiffs = new ConcurrentHashMap<>();
+        private volatile Status.Code lastError;
+
+        private MethodSummary(String method, MeterRegistry meterRegistry) {
+            this.method = method;
+            this.primaryLatency = latency(method, "primary", meterRegistry);
+            this.shadowLatency = latency(method, "shadow", meterRegistry);
+            this.matches = comparisons(method, "match", meterRegistry);
+            this.mismatches = comparisons(method, "mismatch", meterRegistry);
+            this.errors = comparisons(method, "error", meterRegistry);
+        }
+
+        private void compared(Mirror<?, ?> mirror, long nanos, List<String> fields) {
+            primaryLatency.record(mirror.primaryNanos(), TimeUnit.NANOSECONDS);
+            shadowLatency.record(nanos, TimeUnit.NANOSECONDS);
+            primaryNanos.add(mirror.primaryNanos());
+            shadowNanos.add(nanos);
+
+            if (fields.isEmpty()) {
+                matches.increment();
+                matched.increment();
+                return;
+            }
+            mismatches.increment();
+            mismatched.increment();
+            fields.forEach(field -> fieldDiffs.computeIfAbsent(field, key -> new LongAdder()).increment());
+            log.debug("Miroir {} - réponse différente, champs: {}", method, fields);
+        }
+
+        private void failed(Mirror<?, ?> mirror, Status status) {
+            errors.increment();
+            failed.increment();
+            lastError = status.getCode();
+            log.debug("Miroir {} ({}) en échec: {} {}", method, mirror.service(), status.getCode(),
+                status.getDescription());
+        }
+
+        private void report() {
+            long same = matched.sumThenReset();
+            long different = mismatched.sumThenReset();
+            long errorCount = failed.sumThenReset();
+            long primary = primaryNanos.sumThenReset();
+            long shadow = shadowNanos.sumThenReset();
+            long compared = same + different;
+            if (compared + errorCount == 0) {
+                return;
+            }
+
+            StringJoiner fields = new StringJoiner(", ", " (champs: ", ")").setEmptyValue("");
+            fieldDiffs.forEach((field, count) -> {
+                long value = count.sumThenReset();
+                if (value > 0) {
+                    fields.add(field + "=" + value);
+                }
+            });
+
+            double primaryMs = compared > 0 ? primary / 1e6 / compared : 0;
+            double shadowMs = compared > 0 ? shadow / 1e6 / compared : 0;
+            log.info("Miroir {} - {} comparé(s): {} identique(s), {} différent(s){}, {} erreur(s){} ; "
+                    + "latence moyenne {}ms (principal) / {}ms (miroir), {}",
+                method, compared, same, different, fields, errorCount,
+                errorCount > 0 ? " (dernière: " + lastError + ")" : "",
+                String.format("%.2f", primaryMs), String.format("%.2f", shadowMs),
+                primaryMs > 0 ? String.format("%+.0f %%", (shadowMs - primaryMs) / primaryMs * 100) : "n/a");
+        }
+
+        private static Timer latency(String method, String target, MeterRegistry meterRegistry) {
+            return Timer.builder("gateway.grpc.shadow.latency")
+                .description("Latence des appels dupliqués, principal et miroir")
+                .tags("method", method, "target", target)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        }
+
+        private static Counter comparisons(String method, String outcome, MeterRegistry meterRegistry) {
+            return Counter.builder("gateway.grpc.shadow.comparisons")
+                .description("Réponses miroir comparées à la réponse principale")
+                .tags("method", method, "outcome", outcome)
+                .register(meterRegistry);
+        }
+    }
+}
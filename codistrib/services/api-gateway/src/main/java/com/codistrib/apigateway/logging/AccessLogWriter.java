@@ -0,0 +1,162 @@
+package com.codistrib.apigateway.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écriture asynchrone du journal d'accès.
+ *
+ * Les filtres déposent une entrée dans un buffer circulaire borné (sans
+ * blocage) ; un thread dédié formate et écrit les lignes par lots.
+ * L'event-loop Netty ne fait donc jamais d'I/O de logging.
+ *
+ * Si le buffer est plein (pic de trafic, disque lent), l'entrée est
+ * abandonnée et comptée dans gateway.accesslog.dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccessLogWriter {
+
+    /**
+     * Logger dédié : peut être redirigé vers un fichier séparé via la config logback.
+     */
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ACCESS_LOG");
+
+    private static final int BATCH_SIZE = 256;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${access-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${access-log.buffer-size:8192}")
+    private int bufferSize;
+
+    private BlockingQueue<AccessLogEntry> buffer;
+    private Counter dropped;
+    private Thread worker;
+    private volatile boolean running;
+
+    /**
+     * Une ligne du journal d'accès (formatée par le thread d'écriture).
+     */
+    public record AccessLogEntry(
+        String requestId,
+        String method,
+        String path,
+        String clientIp,
+        int status,
+        long durationNanos
+    ) {
+    }
+
+    @PostConstruct
+    public void start() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        dropped = Counter.builder("gateway.accesslog.dropped")
+            .description("Entrées du journal d'accès abandonnées (buffer plein)")
+            .register(meterRegistry);
+        Gauge.builder("gateway.accesslog.pending", buffer, BlockingQueue::size)
+            .description("Entrées en attente d'écriture")
+            .register(meterRegistry);
+
+        if (!enabled) {
+            log.info("Journal d'accès désactivé");
+            return;
+        }
+
+        running = true;
+        worker = new Thread(this::drainLoop, "access-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+
+        log.info("Journal d'accès asynchrone démarré (buffer: {} entrées)", bufferSize);
+    }
+
+    /**
+     * Dépose une entrée sans bloquer l'appelant.
+     */
+    public void append(AccessLogEntry entry) {
+        if (!running) {
+            return;
+        }
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Vide le buffer avant l'arrêt.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush(new ArrayList<>(buffer.size()));
+    }
+
+    private void drainLoop() {
+        List<AccessLogEntry> batch = new ArrayList<>(BATCH_SIZE);
+        while (running) {
+            try {
+                AccessLogEntry first = buffer.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Erreur d'écriture du journal d'accès: {}", e.getMessage());
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<AccessLogEntry> batch) {
+        buffer.drainTo(batch);
+        write(batch);
+    }
+
+    private void write(List<AccessLogEntry> batch) {
+        if (!ACCESS_LOG.isInfoEnabled()) {
+            return;
+        }
+        for (AccessLogEntry entry : batch) {
+            ACCESS_LOG.info("[{}] {} {} {} - {}ms - IP: {}",
+                entry.requestId(),
+                entry.method(),
+                entry.path(),
+                entry.status(),
+                TimeUnit.NANOSECONDS.toMillis(entry.durationNanos()),
+                entry.clientIp());
+        }
+    }
+}
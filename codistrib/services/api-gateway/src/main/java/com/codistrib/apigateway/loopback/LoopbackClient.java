@@ -0,0 +1,88 @@
+package com.codistrib.apigateway.loopback;
+
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.client.HttpClient;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import java.net.URI;
+
+/**
+ * Client HTTP vers la gateway elle-même (boucle locale).
+ *
+ * Les requêtes passent par toute la chaîne de filtres (rate limiting, JWT,
+ * contrôle d'accès par rôle, quotas...) comme celles d'un client externe.
+ * Utilisé par le warm-up et par l'endpoint batch.
+ */
+@Slf4j
+@Component
+public class LoopbackClient {
+
+    @Value("${server.ssl.enabled:false}")
+    private boolean sslEnabled;
+
+    @Value("${loopback.max-in-memory-size:1048576}")
+    private int maxInMemorySize;
+
+    private volatile String baseUrl;
+    private volatile WebClient webClient;
+
+    @EventListener
+    public void onServerStarted(ReactiveWebServerInitializedEvent event) {
+        // Serveur de management sur un port séparé : ignoré
+        if (event.getApplicationContext().getServerNamespace() != null) {
+            return;
+        }
+        int port = event.getWebServer().getPort();
+        baseUrl = (sslEnabled ? "https" : "http") + "://localhost:" + port;
+        webClient = WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient()))
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+            .baseUrl(baseUrl)
+            .build();
+        log.debug("Client de boucle locale prêt (port {})", port);
+    }
+
+    /**
+     * Client de la boucle locale, ou null tant que le serveur n'a pas démarré.
+     */
+    public WebClient webClient() {
+        return webClient;
+    }
+
+    /**
+     * URI absolue d'un chemin de la gateway, sans réencodage (le chemin peut
+     * contenir une query string déjà encodée).
+     */
+    public URI uri(String pathAndQuery) {
+        return URI.create(baseUrl + pathAndQuery);
+    }
+
+    /**
+     * En TLS, le certificat du serveur est accepté tel quel (il ne
+     * correspond pas à "localhost").
+     */
+    private HttpClient httpClient() {
+        HttpClient client = HttpClient.create();
+        if (!sslEnabled) {
+            return client;
+        }
+        return client.secure(spec -> spec
+            .sslContext(Http11SslContextSpec.forClient()
+                .configure(builder -> builder.trustManager(InsecureTrustManagerFactory.INSTANCE)))
+            .handlerConfigurator(handler -> {
+                SSLEngine engine = handler.engine();
+                SSLParameters parameters = engine.getSSLParameters();
+                parameters.setEndpointIdentificationAlgorithm(null);
+                engine.setSSLParameters(parameters);
+            }));
+    }
+}
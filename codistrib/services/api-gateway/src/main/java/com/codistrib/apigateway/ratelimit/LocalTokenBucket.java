@@ -0,0 +1,37 @@
+package com.codistrib.apigateway.ratelimit;
+
+/**
+ * Token bucket en mémoire, utilisé quand Redis est indisponible.
+ *
+ * Chaque instance de la gateway applique alors sa part de la limite globale
+ * (limite / nombre de replicas) au lieu de tout laisser passer.
+ */
+final class LocalTokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    LocalTokenBucket(double requestsPerSecond, double capacity) {
+        this.capacity = capacity;
+        this.tokensPerNano = requestsPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    synchronized RateLimitDecision tryConsume() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return RateLimitDecision.allowed((long) tokens);
+        }
+
+        long retryAfterMs = (long) Math.ceil((1 - tokens) / tokensPerNano / 1_000_000d);
+        return RateLimitDecision.denied(retryAfterMs);
+    }
+}
@@ -0,0 +1,21 @@
+package com.codistrib.apigateway.ratelimit;
+
+/**
+ * Résultat d'une vérification de quota utilisateur.
+ *
+ * @param allowed      true si la requête peut passer
+ * @param limit        limite de la fenêtre (-1 si aucun quota ne s'applique)
+ * @param remaining    requêtes restantes dans la fenêtre (header X-Quota-Remaining)
+ * @param retryAfterMs délai conseillé avant un nouvel essai si refusée
+ */
+public record QuotaDecision(boolean allowed, long limit, long remaining, long retryAfterMs) {
+
+    /**
+     * Aucun quota applicable (rôle sans limite, Redis indisponible).
+     */
+    public static final QuotaDecision UNLIMITED = new QuotaDecision(true, -1, -1, 0);
+
+    public boolean limited() {
+        return limit >= 0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.codistrib.apigateway.ratelimit;
+
+/**
+ * Résultat d'une décision de rate limiting.
+ *
+ * @param allowed      true si la requête peut passer
+ * @param remaining    estimation des jetons restants (header X-RateLimit-Remaining)
+ * @param retryAfterMs délai conseillé avant un nouvel essai si refusée
+ */
+public record RateLimitDecision(boolean allowed, long remaining, long retryAfterMs) {
+
+    public static RateLimitDecision allowed(long remaining) {
+        return new RateLimitDecision(true, remaining, 0);
+    }
+
+    public static RateLimitDecision denied(long retryAfterMs) {
+        return new RateLimitDecision(false, 0, retryAfterMs);
+    }
+}
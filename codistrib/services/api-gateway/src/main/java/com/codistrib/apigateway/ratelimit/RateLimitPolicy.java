@@ -0,0 +1,13 @@
+package com.codistrib.apigateway.ratelimit;
+
+/**
+ * Politique appliquée à une requête : bucket de {@code burstCapacity} jetons
+ * rempli à {@code requestsPerSecond} jetons par seconde.
+ *
+ * @param id                identifiant de la politique (utilisé dans la clé Redis)
+ * @param pattern           pattern Ant de la route, null pour la politique par défaut
+ * @param requestsPerSecond débit de remplissage
+ * @param burstCapacity     capacité maximale du bucket
+ */
+public record RateLimitPolicy(String id, String pattern, int requestsPerSecond, int burstCapacity) {
+}
@@ -0,0 +1,281 @@
+package com.codistrib.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rate limiter à deux niveaux.
+ *
+ * Niveau 1 (local) : chaque instance obtient de Redis des lots de jetons
+ * ("leases") prélevés sur le bucket global, puis les consomme en mémoire.
+ * La plupart des requêtes sont donc décidées sans aller-retour réseau ;
+ * un nouveau lot est demandé en arrière-plan quand le stock local baisse.
+ *
+ * Niveau 2 (Redis) : le script token bucket reste la source de vérité
+ * partagée entre les replicas de la gateway.
+ *
+ * Si Redis est lent ou indisponible, on bascule sur un bucket local qui
+ * applique la part de la limite revenant à cette instance
+ * (limite / rate-limit.local.replicas), au lieu de tout laisser passer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TwoTierRateLimiter {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<List<Long>> tokenBucketScript;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Taille maximale d'un lot de jetons obtenu de Redis (1 = pas de cache local).
+     */
+    @Value("${rate-limit.local.lease-size:10}")
+    private int leaseSize;
+
+    /**
+     * Durée de validité d'un lot : les jetons non consommés sont abandonnés.
+     */
+    @Value("${rate-limit.local.lease-ttl:1s}")
+    private Duration leaseTtl;
+
+    /**
+     * Nombre d'instances de la gateway (pour calculer la part locale en mode dégradé).
+     */
+    @Value("${rate-limit.local.replicas:1}")
+    private int replicas;
+
+    @Value("${rate-limit.local.redis-timeout:50ms}")
+    private Duration redisTimeout;
+
+    /**
+     * Durée pendant laquelle Redis est considéré indisponible après une erreur.
+     */
+    @Value("${rate-limit.local.redis-retry-after:5s}")
+    private Duration redisRetryAfter;
+
+    @Value("${rate-limit.local.max-keys:100000}")
+    private long maxKeys;
+
+    private Cache<String, KeyState> states;
+
+    private volatile long redisDownUntilNanos;
+
+    private Counter localAllowed;
+    private Counter redisAllowed;
+    private Counter redisDenied;
+    private Counter fallbackAllowed;
+    private Counter fallbackDenied;
+
+    @PostConstruct
+    public void init() {
+        // System.nanoTime() peut être négatif : on part de l'instant présent
+        redisDownUntilNanos = System.nanoTime();
+        states = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(leaseTtl.multipliedBy(10))
+            .build();
+
+        localAllowed = decisionCounter("local", "allowed");
+        redisAllowed = decisionCounter("redis", "allowed");
+        redisDenied = decisionCounter("redis", "denied");
+        fallbackAllowed = decisionCounter("fallback", "allowed");
+        fallbackDenied = decisionCounter("fallback", "denied");
+
+        Gauge.builder("gateway.ratelimit.keys", states, Cache::estimatedSize)
+            .description("Nombre de clés suivies par le rate limiter local")
+            .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.redis.available", this, limiter -> limiter.isRedisAvailable() ? 1 : 0)
+            .description("1 si Redis est utilisé, 0 si le mode dégradé local est actif")
+            .register(meterRegistry);
+
+        log.info("TwoTierRateLimiter initialisé - lot: {}, ttl: {}ms, replicas: {}",
+            leaseSize, leaseTtl.toMillis(), replicas);
+    }
+
+    /**
+     * Consomme un jeton pour la clé donnée.
+     */
+    public Mono<RateLimitDecision> tryAcquire(String key, RateLimitPolicy policy) {
+        KeyState state = states.get(key, k -> new KeyState(policy));
+
+        if (!isRedisAvailable()) {
+            return Mono.just(fallback(state));
+        }
+
+        long remaining = state.takeLeased(System.nanoTime());
+        if (remaining >= 0) {
+            localAllowed.increment();
+            if (remaining < state.lowWatermark) {
+                // Pré-chargement du lot suivant, hors du chemin de la requête
+                refill(key, state).subscribe();
+            }
+            return Mono.just(RateLimitDecision.allowed(state.lastGlobalRemaining + remaining));
+        }
+
+        // Stock local épuisé : on attend un nouveau lot (partagé entre requêtes concurrentes)
+        return acquireAfterRefill(key, state);
+    }
+
+    /**
+     * Attend un nouveau lot puis y prend un jeton.
+     *
+     * Les requêtes qui attendent le même lot se le partagent : s'il est épuisé
+     * avant leur tour alors que Redis en a accordé un (bucket global non vide),
+     * on redemande un lot. Refus uniquement si Redis n'a accordé aucun jeton.
+     */
+    private Mono<RateLimitDecision> acquireAfterRefill(String key, KeyState state) {
+        return refill(key, state).then(Mono.defer(() -> {
+            if (!isRedisAvailable()) {
+                return Mono.just(fallback(state));
+            }
+
+            long remaining = state.takeLeased(System.nanoTime());
+            if (remaining >= 0) {
+                redisAllowed.increment();
+                return Mono.just(RateLimitDecision.allowed(state.lastGlobalRemaining + remaining));
+            }
+            if (state.lastGranted > 0) {
+                return acquireAfterRefill(key, state);
+            }
+
+            redisDenied.increment();
+            return Mono.just(RateLimitDecision.denied(Math.max(1, state.retryAfterMs)));
+        }));
+    }
+
+    private RateLimitDecision fallback(KeyState state) {
+        RateLimitDecision decision = state.fallback.tryConsume();
+        (decision.allowed() ? fallbackAllowed : fallbackDenied).increment();
+        return decision;
+    }
+
+    /**
+     * Demande un lot de jetons à Redis. Un seul appel en vol par clé.
+     */
+    private Mono<Void> refill(String key, KeyState state) {
+        Mono<Void> inFlight = state.inFlight.get();
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        List<String> args = List.of(
+            String.valueOf(state.policy.requestsPerSecond()),
+            String.valueOf(state.policy.burstCapacity()),
+            String.valueOf(state.batchSize)
+        );
+
+        Mono<Void> call = redisTemplate.execute(tokenBucketScript, List.of(key), args)
+            .next()
+            .timeout(redisTimeout)
+            .doOnNext(result -> state.grant(result.get(0), result.get(1), result.get(2), System.nanoTime()))
+            .doOnError(this::markRedisDown)
+            .onErrorResume(e -> Mono.empty())
+            .then()
+            .doFinally(signal -> state.inFlight.set(null))
+            .cache();
+
+        if (state.inFlight.compareAndSet(null, call)) {
+            return call;
+        }
+        Mono<Void> concurrent = state.inFlight.get();
+        return concurrent != null ? concurrent : Mono.empty();
+    }
+
+    private void markRedisDown(Throwable e) {
+        if (isRedisAvailable()) {
+            log.error("Redis indisponible pour le rate limiting, bascule sur les limites locales pendant {}s: {}",
+                redisRetryAfter.toSeconds(), e.getMessage());
+        }
+        redisDownUntilNanos = System.nanoTime() + redisRetryAfter.toNanos();
+    }
+
+    private boolean isRedisAvailable() {
+        return System.nanoTime() - redisDownUntilNanos >= 0;
+    }
+
+    private Counter decisionCounter(String tier, String outcome) {
+        return Counter.builder("gateway.ratelimit.decisions")
+            .description("Décisions du rate limiter par niveau")
+            .tag("tier", tier)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * État d'une clé (politique + client) sur cette instance.
+     */
+    private final class KeyState {
+
+        private final RateLimitPolicy policy;
+        private final int batchSize;
+        private final int lowWatermark;
+        private final LocalTokenBucket fallback;
+
+        private final AtomicLong leased = new AtomicLong();
+        private final AtomicReference<Mono<Void>> inFlight = new AtomicReference<>();
+
+        private volatile long leaseExpiresAtNanos;
+        private volatile long lastGlobalRemaining;
+        private volatile long lastGranted;
+        private volatile long retryAfterMs;
+
+        private KeyState(RateLimitPolicy policy) {
+            this.policy = policy;
+            this.leaseExpiresAtNanos = System.nanoTime();
+            // Un lot ne dépasse jamais la part d'une instance dans le burst
+            int share = Math.max(1, policy.burstCapacity() / (2 * Math.max(1, replicas)));
+            this.batchSize = Math.max(1, Math.min(leaseSize, share));
+            this.lowWatermark = batchSize / 2;
+            this.fallback = new LocalTokenBucket(
+                Math.max(1d, (double) policy.requestsPerSecond() / Math.max(1, replicas)),
+                Math.max(1d, (double) policy.burstCapacity() / Math.max(1, replicas)));
+        }
+
+        /**
+         * Prend un jeton dans le lot local.
+         *
+         * @return jetons restants dans le lot, ou -1 si le lot est vide ou expiré
+         */
+        private long takeLeased(long now) {
+            if (now - leaseExpiresAtNanos >= 0) {
+                leased.set(0);
+                return -1;
+            }
+            long current;
+            do {
+                current = leased.get();
+                if (current <= 0) {
+                    return -1;
+                }
+            } while (!leased.compareAndSet(current, current - 1));
+            return current - 1;
+        }
+
+        private void grant(long granted, long globalRemaining, long retryAfter, long now) {
+            if (granted > 0) {
+                leaseExpiresAtNanos = now + leaseTtl.toNanos();
+                leased.addAndGet(granted);
+            }
+            lastGlobalRemaining = globalRemaining;
+            lastGranted = granted;
+            retryAfterMs = retryAfter;
+        }
+    }
+}
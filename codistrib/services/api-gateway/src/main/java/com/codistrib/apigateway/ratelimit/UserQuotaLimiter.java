@@ -0,0 +1,147 @@
+package com.codistrib.apigateway.ratelimit;
+
+import com.codistrib.apigateway.config.UserQuotaProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quotas par utilisateur, par rôle et par classe de route.
+ *
+ * Les compteurs sont partagés entre replicas via Redis : une clé hash
+ * "quota:{userId}" par utilisateur, un champ par (classe, fenêtre). La
+ * décision (fenêtre glissante approchée) est prise par le script Lua
+ * user_quota.lua en un seul aller-retour.
+ *
+ * Redis lent ou indisponible : la requête passe, le rate limiting par IP
+ * ({@link TwoTierRateLimiter}) reste la protection de dernier recours.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserQuotaLimiter {
+
+    private static final String QUOTA_PREFIX = "quota:";
+    private static final String ANY_METHOD = "*";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<List<Long>> userQuotaScript;
+    private final UserQuotaProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private List<ClassRule> rules = List.of();
+
+    private volatile long redisDownUntilNanos;
+
+    @PostConstruct
+    public void init() {
+        // System.nanoTime() peut être négatif : on part de l'instant présent
+        redisDownUntilNanos = System.nanoTime();
+        rules = properties.getRouteClasses().stream()
+            .map(UserQuotaLimiter::parse)
+            .toList();
+
+        log.info("UserQuotaLimiter initialisé - fenêtre {}s, {} classe(s) de route, {} rôle(s)",
+            properties.getWindow().toSeconds(), rules.size(), properties.getLimits().size());
+    }
+
+    /**
+     * Classe de la route (première règle correspondante, sinon "default").
+     */
+    public String classify(ServerHttpRequest request) {
+        String method = request.getMethod().name();
+        String path = request.getPath().value();
+        for (ClassRule rule : rules) {
+            if ((ANY_METHOD.equals(rule.method()) || rule.method().equals(method))
+                && pathMatcher.match(rule.pattern(), path)) {
+                return rule.name();
+            }
+        }
+        return UserQuotaProperties.DEFAULT_CLASS;
+    }
+
+    /**
+     * Compte une requête de l'utilisateur dans la classe donnée.
+     */
+    public Mono<QuotaDecision> tryAcquire(String userId, String role, String routeClass) {
+        Integer limit = limitFor(role, routeClass);
+        if (limit == null) {
+            return Mono.just(QuotaDecision.UNLIMITED);
+        }
+        if (!isRedisAvailable()) {
+            decision(role, routeClass, "fallback");
+            return Mono.just(QuotaDecision.UNLIMITED);
+        }
+
+        List<String> args = List.of(
+            routeClass,
+            String.valueOf(limit),
+            String.valueOf(properties.getWindow().toMillis())
+        );
+
+        return redisTemplate.execute(userQuotaScript, List.of(QUOTA_PREFIX + userId), args)
+            .next()
+            .timeout(properties.getRedisTimeout())
+            .map(result -> {
+                boolean allowed = result.get(0) == 1L;
+                decision(role, routeClass, allowed ? "allowed" : "denied");
+                return new QuotaDecision(allowed, limit, result.get(1), result.get(2));
+            })
+            .onErrorResume(e -> {
+                markRedisDown(e);
+                decision(role, routeClass, "fallback");
+                return Mono.just(QuotaDecision.UNLIMITED);
+            });
+    }
+
+    private Integer limitFor(String role, String routeClass) {
+        Map<String, Integer> byClass = role != null ? properties.getLimits().get(role) : null;
+        if (byClass == null) {
+            return null;
+        }
+        Integer limit = byClass.get(routeClass);
+        return limit != null ? limit : byClass.get(UserQuotaProperties.DEFAULT_CLASS);
+    }
+
+    private void markRedisDown(Throwable e) {
+        if (isRedisAvailable()) {
+            log.error("Redis indisponible pour les quotas utilisateur, quotas suspendus pendant {}s: {}",
+                properties.getRedisRetryAfter().toSeconds(), e.getMessage());
+        }
+        redisDownUntilNanos = System.nanoTime() + properties.getRedisRetryAfter().toNanos();
+    }
+
+    private boolean isRedisAvailable() {
+        return System.nanoTime() - redisDownUntilNanos >= 0;
+    }
+
+    private void decision(String role, String routeClass, String outcome) {
+        meterRegistry.counter("gateway.quota.decisions",
+            "role", role, "class", routeClass, "outcome", outcome).increment();
+    }
+
+    private static ClassRule parse(UserQuotaProperties.RouteClass routeClass) {
+        String trimmed = routeClass.getPattern().trim();
+        int space = trimmed.indexOf(' ');
+        if (space > 0 && !trimmed.startsWith("/")) {
+            return new ClassRule(routeClass.getName(), trimmed.substring(0, space).toUpperCase(),
+                trimmed.substring(space + 1).trim());
+        }
+        return new ClassRule(routeClass.getName(), ANY_METHOD, trimmed);
+    }
+
+    private record ClassRule(String name, String method, String pattern) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.codistrib.apigateway.realtime;
+
+/**
+ * Trames JSON envoyées au client.
+ *
+ * - {"type":"event","topic":"...","data":{...}}   : événement publié sur le topic
+ * - {"type":"subscribed","topic":"..."}           : abonnement accepté
+ * - {"type":"unsubscribed","topic":"..."}         : désabonnement
+ * - {"type":"error","topic":"...","message":"..."}: commande refusée
+ * - {"type":"pong"}                               : réponse à {"op":"ping"}
+ *
+ * Les topics sont validés par {@link Topic} et les messages d'erreur sont des
+ * constantes : seul le contenu "data" (JSON publié par le service) est recopié tel quel.
+ */
+final class Frames {
+
+    static final String PONG = "{\"type\":\"pong\"}";
+
+    private Frames() {
+    }
+
+    static String event(String topic, String payload) {
+        return "{\"type\":\"event\",\"topic\":\"" + topic + "\",\"data\":" + payload + "}";
+    }
+
+    static String subscribed(String topic) {
+        return "{\"type\":\"subscribed\",\"topic\":\"" + topic + "\"}";
+    }
+
+    static String unsubscribed(String topic) {
+        return "{\"type\":\"unsubscribed\",\"topic\":\"" + topic + "\"}";
+    }
+
+    static String error(String topic, String message) {
+        return topic == null
+            ? "{\"type\":\"error\",\"message\":\"" + message + "\"}"
+            : "{\"type\":\"error\",\"topic\":\"" + topic + "\",\"message\":\"" + message + "\"}";
+    }
+}
@@ -0,0 +1,149 @@
+package com.codistrib.apigateway.realtime;
+
+import com.codistrib.apigateway.config.RealtimeProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diffusion des événements temps réel entre replicas via Redis pub/sub.
+ *
+ * Les services producteurs publient un document JSON sur le canal
+ * "{channel-prefix}{topic}" : alert-service (RealtimeEventPublisher) publie
+ * alerts:* à la création, l'assignation et la résolution d'une alerte, et
+ * location:person:* avec les coordonnées d'une alerte créée. location-service
+ * et messaging-service ne publient encore rien (position continue,
+ * messages:user). Chaque
+ * replica ne s'abonne qu'aux canaux ayant au moins une connexion locale,
+ * tous sur la même connexion Redis, et se désabonne quand la dernière part.
+ *
+ * Un message reçu est sérialisé une seule fois en trame, puis déposé dans la
+ * file de chaque connexion abonnée.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RealtimeBroker {
+
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final RealtimeProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TopicFeed> feeds = new ConcurrentHashMap<>();
+    private final Set<RealtimeConnection> connections = ConcurrentHashMap.newKeySet();
+
+    private Counter delivered;
+    private Counter dropped;
+    private Counter evicted;
+
+    @PostConstruct
+    public void init() {
+        delivered = Counter.builder("gateway.realtime.messages")
+            .description("Trames temps réel envoyées aux connexions")
+            .tag("outcome", "delivered")
+            .register(meterRegistry);
+        dropped = Counter.builder("gateway.realtime.messages")
+            .description("Trames temps réel envoyées aux connexions")
+            .tag("outcome", "dropped")
+            .register(meterRegistry);
+        evicted = Counter.builder("gateway.realtime.evicted")
+            .description("Connexions fermées car le client ne suivait pas")
+            .register(meterRegistry);
+        Gauge.builder("gateway.realtime.connections", connections, Set::size)
+            .description("Connexions WebSocket ouvertes")
+            .register(meterRegistry);
+        Gauge.builder("gateway.realtime.topics", feeds, Map::size)
+            .description("Canaux Redis suivis par cette instance")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        feeds.values().forEach(TopicFeed::dispose);
+        feeds.clear();
+    }
+
+    void register(RealtimeConnection connection) {
+        connections.add(connection);
+    }
+
+    /**
+     * Retire la connexion de tous ses topics.
+     */
+    void unregister(RealtimeConnection connection) {
+        connections.remove(connection);
+        if (connection.isEvicted()) {
+            evicted.increment();
+            log.warn("Connexion temps réel évincée (client trop lent) - userId: {}, session: {}",
+                connection.getUserId(), connection.id());
+        }
+        for (String topic : connection.topics()) {
+            unsubscribe(connection, topic);
+        }
+    }
+
+    void subscribe(RealtimeConnection connection, String topic) {
+        feeds.compute(topic, (name, feed) -> {
+            TopicFeed target = feed != null ? feed : new TopicFeed(name);
+            target.connections.add(connection);
+            return target;
+        });
+    }
+
+    void unsubscribe(RealtimeConnection connection, String topic) {
+        feeds.computeIfPresent(topic, (name, feed) -> {
+            feed.connections.remove(connection);
+            if (feed.connections.isEmpty()) {
+                feed.dispose();
+                return null;
+            }
+            return feed;
+        });
+    }
+
+    private void dispatch(TopicFeed feed, String payload) {
+        String frame = Frames.event(feed.topic, payload);
+        for (RealtimeConnection connection : feed.connections) {
+            (connection.offer(frame) ? delivered : dropped).increment();
+        }
+    }
+
+    /**
+     * Abonnement Redis d'un topic, partagé par les connexions locales.
+     */
+    private final class TopicFeed {
+
+        private final String topic;
+        private final Set<RealtimeConnection> connections = ConcurrentHashMap.newKeySet();
+        private final Disposable subscription;
+
+        private TopicFeed(String topic) {
+            this.topic = topic;
+            this.subscription = listenerContainer
+                .receive(ChannelTopic.of(properties.getChannelPrefix() + topic))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                    .maxBackoff(Duration.ofSeconds(30))
+                    .doBeforeRetry(signal -> log.warn("Abonnement Redis perdu pour {}, reconnexion: {}",
+                        topic, signal.failure().getMessage())))
+                .subscribe(message -> dispatch(this, message.getMessage()));
+        }
+
+        private void dispose() {
+            subscription.dispose();
+        }
+    }
+}
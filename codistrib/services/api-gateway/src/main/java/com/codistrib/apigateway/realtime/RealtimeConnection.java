@@ -0,0 +1,102 @@
+package com.codistrib.apigateway.realtime;
+
+import lombok.Getter;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Une connexion WebSocket : ses topics et sa file d'envoi bornée.
+ *
+ * Les trames sont poussées sans bloquer ({@link #offer(String)}) ; Netty les
+ * envoie au rythme que le client absorbe. Si la file déborde, le client ne
+ * suit plus : la connexion est fermée (code 4008) plutôt que de laisser la
+ * mémoire de la gateway grossir. Le client se reconnecte et se réabonne.
+ */
+public final class RealtimeConnection {
+
+    /**
+     * Fermeture pour client trop lent (plage 4000-4999 réservée aux applications).
+     */
+    static final CloseStatus SLOW_CONSUMER = new CloseStatus(4008, "Client trop lent");
+
+    @Getter
+    private final String userId;
+
+    @Getter
+    private final String role;
+
+    private final WebSocketSession session;
+    private final Sinks.Many<String> outbound;
+    private final Set<String> topics = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean closed;
+    private volatile boolean evicted;
+
+    RealtimeConnection(WebSocketSession session, String userId, String role, int queueSize) {
+        this.session = session;
+        this.userId = userId;
+        this.role = role;
+        this.outbound = Sinks.many().unicast().onBackpressureBuffer(Queues.<String>get(queueSize).get());
+    }
+
+    public String id() {
+        return session.getId();
+    }
+
+    Set<String> topics() {
+        return topics;
+    }
+
+    Flux<String> frames() {
+        return outbound.asFlux();
+    }
+
+    /**
+     * Ajoute une trame à la file d'envoi.
+     *
+     * @return false si la connexion est fermée ou vient d'être évincée
+     */
+    boolean offer(String frame) {
+        if (closed) {
+            return false;
+        }
+        Sinks.EmitResult result;
+        // Les messages de topics différents arrivent sur des threads différents
+        synchronized (this) {
+            result = outbound.tryEmitNext(frame);
+        }
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+            evicted = true;
+            close(SLOW_CONSUMER);
+            return false;
+        }
+        return result.isSuccess();
+    }
+
+    /**
+     * Ferme la connexion (idempotent).
+     */
+    void close(CloseStatus status) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        synchronized (this) {
+            outbound.tryEmitComplete();
+        }
+        session.close(status).subscribe();
+    }
+
+    /**
+     * true si la connexion a été fermée parce que sa file d'envoi débordait.
+     */
+    boolean isEvicted() {
+        return evicted;
+    }
+}
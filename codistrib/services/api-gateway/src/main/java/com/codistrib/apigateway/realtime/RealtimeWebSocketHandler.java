@@ -0,0 +1,204 @@
+package com.codistrib.apigateway.realtime;
+
+import com.codistrib.apigateway.config.RealtimeProperties;
+import com.codistrib.apigateway.security.JwtClaims;
+import com.codistrib.apigateway.security.JwtUtil;
+import com.codistrib.apigateway.security.RevocationList;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Endpoint WebSocket temps réel multiplexé.
+ *
+ * Une seule connexion par appareil remplace le polling des alertes (événements
+ * publiés par alert-service). Le client envoie des commandes JSON :
+ *   {"op":"subscribe","topic":"alerts:helper:<id>"}
+ *   {"op":"unsubscribe","topic":"..."}
+ *   {"op":"ping"}
+ * et reçoit les trames décrites dans {@link Frames}.
+ *
+ * L'identité vient du handshake (X-User-Id / X-User-Role posés par
+ * JwtAuthFilter). La connexion est fermée à l'expiration ou à la révocation
+ * du token, vérifiées à chaque heartbeat. Les abonnements accordés sur une
+ * assignation (position d'une PersonDI suivie par un aidant) sont aussi
+ * revérifiés à chaque heartbeat et retirés si l'alerte n'est plus assignée.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RealtimeWebSocketHandler implements WebSocketHandler {
+
+    private static final CloseStatus TOKEN_EXPIRED = new CloseStatus(4401, "Token expiré ou révoqué");
+
+    private final RealtimeBroker broker;
+    private final TopicAuthorizer authorizer;
+    private final RealtimeProperties properties;
+    private final JwtUtil jwtUtil;
+    private final RevocationList revocationList;
+    private final ObjectMapper objectMapper;
+
+    @Value("${jwt.header}")
+    private String authHeader;
+
+    @Value("${jwt.prefix}")
+    private String tokenPrefix;
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        HttpHeaders headers = session.getHandshakeInfo().getHeaders();
+        String userId = headers.getFirst("X-User-Id");
+        String role = headers.getFirst("X-User-Role");
+        Optional<JwtClaims> claims = claims(headers);
+
+        if (userId == null || role == null || claims.isEmpty()) {
+            return session.close(CloseStatus.POLICY_VIOLATION);
+        }
+
+        RealtimeConnection connection =
+            new RealtimeConnection(session, userId, role, properties.getSendQueueSize());
+        broker.register(connection);
+        log.debug("Connexion temps réel ouverte - userId: {}, session: {}", userId, connection.id());
+
+        Mono<Void> inbound = session.receive()
+            .map(WebSocketMessage::getPayloadAsText)
+            .concatMap(text -> handleCommand(connection, text))
+            .doOnNext(connection::offer)
+            .then();
+
+        Flux<WebSocketMessage> heartbeat = Flux.interval(properties.getHeartbeat())
+            .filter(tick -> checkToken(connection, claims.get()))
+            .doOnNext(tick -> recheckAssignments(connection))
+            .map(tick -> session.pingMessage(factory -> factory.allocateBuffer(0)));
+
+        Mono<Void> outbound = session.send(Flux.merge(
+            connection.frames().map(session::textMessage),
+            heartbeat));
+
+        return Mono.firstWithSignal(inbound, outbound)
+            .doFinally(signal -> {
+                connection.close(CloseStatus.NORMAL);
+                broker.unregister(connection);
+                log.debug("Connexion temps réel fermée - userId: {}, session: {}", userId, connection.id());
+            });
+    }
+
+    /**
+     * Traite une commande client, retourne la trame de réponse.
+     */
+    private Mono<String> handleCommand(RealtimeConnection connection, String text) {
+        JsonNode command;
+        try {
+            command = objectMapper.readTree(text);
+        } catch (IOException e) {
+            return Mono.just(Frames.error(null, "Commande JSON invalide"));
+        }
+
+        String op = command.path("op").asText("");
+        if ("ping".equals(op)) {
+            return Mono.just(Frames.PONG);
+        }
+
+        Optional<Topic> parsed = Topic.parse(command.path("topic").asText(null));
+        if (parsed.isEmpty()) {
+            return Mono.just(Frames.error(null, "Topic invalide"));
+        }
+        String topic = parsed.get().name();
+
+        return switch (op) {
+            case "subscribe" -> subscribe(connection, parsed.get());
+            case "unsubscribe" -> {
+                if (connection.topics().remove(topic)) {
+                    broker.unsubscribe(connection, topic);
+                }
+                yield Mono.just(Frames.unsubscribed(topic));
+            }
+            default -> Mono.just(Frames.error(topic, "Opération inconnue"));
+        };
+    }
+
+    private Mono<String> subscribe(RealtimeConnection connection, Topic topic) {
+        String name = topic.name();
+        if (connection.topics().contains(name)) {
+            return Mono.just(Frames.subscribed(name));
+        }
+        if (connection.topics().size() >= properties.getMaxTopicsPerConnection()) {
+            return Mono.just(Frames.error(name, "Trop d'abonnements sur cette connexion"));
+        }
+
+        return authorizer.canSubscribe(connection.getUserId(), connection.getRole(), topic)
+            .map(allowed -> {
+                if (!allowed) {
+                    log.warn("Abonnement refusé - userId: {}, topic: {}", connection.getUserId(), name);
+                    return Frames.error(name, "Accès refusé");
+                }
+                if (connection.topics().add(name)) {
+                    broker.subscribe(connection, name);
+                }
+                return Frames.subscribed(name);
+            });
+    }
+
+    /**
+     * Ferme la connexion si le token a expiré ou a été révoqué.
+     *
+     * @return true si la connexion reste ouverte
+     */
+    private boolean checkToken(RealtimeConnection connection, JwtClaims claims) {
+        if (claims.isExpiredAt(Instant.now()) || revocationList.isRevoked(claims.tokenId())) {
+            log.info("Connexion temps réel fermée (token expiré ou révoqué) - userId: {}", connection.getUserId());
+            connection.close(TOKEN_EXPIRED);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Retire les abonnements dont l'assignation n'existe plus (alerte résolue
+     * ou réassignée). Une erreur de vérification retire aussi l'abonnement :
+     * le client peut se réabonner.
+     */
+    private void recheckAssignments(RealtimeConnection connection) {
+        for (String name : connection.topics()) {
+            Optional<Topic> topic = Topic.parse(name);
+            if (topic.isEmpty()
+                || !authorizer.requiresAssignment(connection.getUserId(), connection.getRole(), topic.get())) {
+                continue;
+            }
+            authorizer.canSubscribe(connection.getUserId(), connection.getRole(), topic.get())
+                .subscribe(allowed -> {
+                    if (!allowed && connection.topics().remove(name)) {
+                        broker.unsubscribe(connection, name);
+                        connection.offer(Frames.error(name, "Accès révoqué"));
+                        log.info("Abonnement retiré (plus assigné) - userId: {}, topic: {}",
+                            connection.getUserId(), name);
+                    }
+                });
+        }
+    }
+
+    /**
+     * Claims du token du handshake (déjà vérifié par JwtAuthFilter, lecture en cache).
+     */
+    private Optional<JwtClaims> claims(HttpHeaders headers) {
+        String value = headers.getFirst(authHeader);
+        if (value == null || !value.startsWith(tokenPrefix)) {
+            return Optional.empty();
+        }
+        return jwtUtil.parseToken(value.substring(tokenPrefix.length()));
+    }
+}
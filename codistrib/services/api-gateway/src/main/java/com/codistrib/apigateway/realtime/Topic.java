@@ -0,0 +1,67 @@
+package com.codistrib.apigateway.realtime;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Topic temps réel auquel une connexion peut s'abonner.
+ *
+ * Formats acceptés :
+ * - alerts:open               : nouvelles alertes à prendre (aidants)
+ * - alerts:helper:{helperId}  : alertes assignées à un aidant
+ * - alerts:person:{personId}  : alertes d'une PersonDI
+ * - location:person:{personId}: positions d'une PersonDI (pour l'instant
+ *   celles des alertes créées)
+ * - messages:user:{userId}    : messages des conversations d'un utilisateur
+ *   (réservé : messaging-service ne publie pas encore)
+ *
+ * Le nom est validé strictement : il est recopié tel quel dans les trames JSON
+ * et dans le nom du canal Redis.
+ */
+public record Topic(Kind kind, String subjectId) {
+
+    private static final Pattern FORMAT =
+        Pattern.compile("(alerts:open)|(alerts:helper|alerts:person|location:person|messages:user):([A-Za-z0-9-]{1,64})");
+
+    public enum Kind {
+        ALERTS_OPEN("alerts:open"),
+        ALERTS_HELPER("alerts:helper"),
+        ALERTS_PERSON("alerts:person"),
+        LOCATION_PERSON("location:person"),
+        MESSAGES_USER("messages:user");
+
+        private final String prefix;
+
+        Kind(String prefix) {
+            this.prefix = prefix;
+        }
+
+        private static Kind of(String prefix) {
+            for (Kind kind : values()) {
+                if (kind.prefix.equals(prefix)) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException(prefix);
+        }
+    }
+
+    public static Optional<Topic> parse(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = FORMAT.matcher(value);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        if (matcher.group(1) != null) {
+            return Optional.of(new Topic(Kind.ALERTS_OPEN, null));
+        }
+        return Optional.of(new Topic(Kind.of(matcher.group(2)), matcher.group(3)));
+    }
+
+    public String name() {
+        return subjectId == null ? kind.prefix : kind.prefix + ":" + subjectId;
+    }
+}
@@ -0,0 +1,60 @@
+package com.codistrib.apigateway.realtime;
+
+import com.codistrib.apigateway.config.RealtimeProperties;
+import com.codistrib.apigateway.security.HelperAssignments;
+import io.grpc.Deadline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Droits d'abonnement aux topics temps réel.
+ *
+ * - ADMINISTRATOR : tous les topics
+ * - un utilisateur : ses propres topics (alerts:helper / alerts:person /
+ *   location:person / messages:user avec son userId)
+ * - HELPER : alerts:open, et la position d'une PersonDI dont il a une alerte
+ *   assignée ({@link HelperAssignments}) ; ce droit est revérifié à chaque
+ *   heartbeat ({@link #requiresAssignment})
+ */
+@Component
+@RequiredArgsConstructor
+public class TopicAuthorizer {
+
+    private static final String ADMINISTRATOR = "ADMINISTRATOR";
+    private static final String HELPER = "HELPER";
+
+    private final HelperAssignments assignments;
+    private final RealtimeProperties properties;
+
+    public Mono<Boolean> canSubscribe(String userId, String role, Topic topic) {
+        if (ADMINISTRATOR.equals(role)) {
+            return Mono.just(true);
+        }
+        return switch (topic.kind()) {
+            case ALERTS_OPEN -> Mono.just(HELPER.equals(role));
+            case ALERTS_HELPER -> Mono.just(HELPER.equals(role) && userId.equals(topic.subjectId()));
+            case ALERTS_PERSON, MESSAGES_USER -> Mono.just(userId.equals(topic.subjectId()));
+            case LOCATION_PERSON -> userId.equals(topic.subjectId())
+                ? Mono.just(true)
+                : HELPER.equals(role) ? isAssignedTo(userId, topic.subjectId()) : Mono.just(false);
+        };
+    }
+
+    /**
+     * Abonnement accordé sur une assignation, donc révocable : l'alerte peut
+     * être résolue ou réassignée après l'abonnement.
+     */
+    public boolean requiresAssignment(String userId, String role, Topic topic) {
+        return topic.kind() == Topic.Kind.LOCATION_PERSON
+            && !ADMINISTRATOR.equals(role)
+            && !userId.equals(topic.subjectId());
+    }
+
+    private Mono<Boolean> isAssignedTo(String helperId, String personId) {
+        Deadline deadline = Deadline.after(properties.getAuthorizationTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        return assignments.isAssigned(helperId, personId, deadline);
+    }
+}
@@ -0,0 +1,163 @@
+package com.codistrib.apigateway.recording;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Format binaire des segments d'enregistrement.
+ *
+ * Segment : MAGIC (int), VERSION (short), puis les enregistrements à la
+ * suite. Un segment est pré-alloué (fichier creux, zéros) : une longueur
+ * nulle marque la fin des données.
+ *
+ * Enregistrement : longueur (int, sans elle-même), puis
+ *   timestampMicros (long), durationMicros (int), status (short),
+ *   auth (byte), method, pathAndQuery, userId, role (chaînes),
+ *   clientKey (int), nombre d'en-têtes (byte) et paires nom/valeur,
+ *   flags (byte), taille du corps (int) et octets du corps.
+ * Chaîne : longueur UTF-8 (unsigned short) puis octets ; null = 0xFFFF.
+ */
+final class TrafficLogFormat {
+
+    static final int MAGIC = 0x43445452; // "CDTR"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+
+    static final String FILE_PREFIX = "traffic-";
+    static final String FILE_SUFFIX = ".rec";
+
+    private static final int NULL_STRING = 0xFFFF;
+    private static final int MAX_STRING = 0xFFFE;
+    private static final int MAX_HEADERS = 255;
+    private static final byte FLAG_BODY_OMITTED = 1;
+
+    private TrafficLogFormat() {
+    }
+
+    /**
+     * Encode un enregistrement, longueur comprise.
+     */
+    static byte[] encode(TrafficRecord record) {
+        byte[] method = utf8(record.method());
+        byte[] path = utf8(record.pathAndQuery());
+        byte[] userId = utf8(record.userId());
+        byte[] role = utf8(record.role());
+        byte[] body = record.body() != null ? record.body() : new byte[0];
+
+        int headerCount = Math.min(MAX_HEADERS, record.headers().size());
+        byte[][] headers = new byte[headerCount * 2][];
+        int index = 0;
+        for (Map.Entry<String, String> header : record.headers().entrySet()) {
+            if (index >= headers.length) {
+                break;
+            }
+            headers[index++] = utf8(header.getKey());
+            headers[index++] = utf8(header.getValue());
+        }
+
+        int length = Long.BYTES + Integer.BYTES + Short.BYTES + 1
+            + sizeOf(method) + sizeOf(path) + sizeOf(userId) + sizeOf(role)
+            + Integer.BYTES + 1 + 1 + Integer.BYTES + body.length;
+        for (byte[] header : headers) {
+            length += sizeOf(header);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + length);
+        buffer.putInt(length);
+        buffer.putLong(record.timestampMicros());
+        buffer.putInt(record.durationMicros());
+        buffer.putShort((short) record.status());
+        buffer.put((byte) record.auth().ordinal());
+        putString(buffer, method);
+        putString(buffer, path);
+        putString(buffer, userId);
+        putString(buffer, role);
+        buffer.putInt(record.clientKey());
+        buffer.put((byte) headerCount);
+        for (byte[] header : headers) {
+            putString(buffer, header);
+        }
+        buffer.put(record.bodyOmitted() ? FLAG_BODY_OMITTED : 0);
+        buffer.putInt(body.length);
+        buffer.put(body);
+        return buffer.array();
+    }
+
+    /**
+     * Décode l'enregistrement suivant, ou null en fin de segment.
+     */
+    static TrafficRecord decode(ByteBuffer buffer) {
+        if (buffer.remaining() < Integer.BYTES) {
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+            return null;
+        }
+
+        long timestampMicros = buffer.getLong();
+        int durationMicros = buffer.getInt();
+        int status = Short.toUnsignedInt(buffer.getShort());
+        TrafficRecord.Auth auth = TrafficRecord.Auth.values()[buffer.get()];
+        String method = getString(buffer);
+        String path = getString(buffer);
+        String userId = getString(buffer);
+        String role = getString(buffer);
+        int clientKey = buffer.getInt();
+
+        int headerCount = Byte.toUnsignedInt(buffer.get());
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            headers.put(getString(buffer), getString(buffer));
+        }
+
+        boolean bodyOmitted = (buffer.get() & FLAG_BODY_OMITTED) != 0;
+        int bodyLength = buffer.getInt();
+        byte[] body = null;
+        if (bodyLength > 0) {
+            body = new byte[bodyLength];
+            buffer.get(body);
+        }
+
+        return new TrafficRecord(timestampMicros, durationMicros, status, method, path, auth,
+            userId, role, clientKey, headers, body, bodyOmitted);
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING) {
+            byte[] truncated = new byte[MAX_STRING];
+            System.arraycopy(bytes, 0, truncated, 0, MAX_STRING);
+            return truncated;
+        }
+        return bytes;
+    }
+
+    private static int sizeOf(byte[] string) {
+        return Short.BYTES + (string != null ? string.length : 0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] string) {
+        if (string == null) {
+            buffer.putShort((short) NULL_STRING);
+            return;
+        }
+        buffer.putShort((short) string.length);
+        buffer.put(string);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,55 @@
+package com.codistrib.apigateway.recording;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lecture des segments d'enregistrement (outil de rejeu).
+ */
+public final class TrafficLogReader {
+
+    private TrafficLogReader() {
+    }
+
+    /**
+     * Segments d'un répertoire dans l'ordre chronologique, ou le fichier lui-même.
+     */
+    public static List<Path> segments(Path location) throws IOException {
+        if (Files.isDirectory(location)) {
+            return TrafficLogWriter.listSegments(location);
+        }
+        return List.of(location);
+    }
+
+    /**
+     * Parcourt les enregistrements de tous les segments, dans l'ordre.
+     */
+    public static void forEach(Path location, Consumer<TrafficRecord> consumer) throws IOException {
+        for (Path segment : segments(location)) {
+            read(segment, consumer);
+        }
+    }
+
+    private static void read(Path segment, Consumer<TrafficRecord> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < TrafficLogFormat.HEADER_SIZE || buffer.getInt() != TrafficLogFormat.MAGIC) {
+                throw new IOException("Segment d'enregistrement invalide: " + segment);
+            }
+            short version = buffer.getShort();
+            if (version != TrafficLogFormat.VERSION) {
+                throw new IOException("Version de segment non supportée (" + version + "): " + segment);
+            }
+            TrafficRecord record;
+            while ((record = TrafficLogFormat.decode(buffer)) != null) {
+                consumer.accept(record);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.codistrib.apigateway.recording;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Écriture des enregistrements dans des segments projetés en mémoire.
+ *
+ * Ajout seul : un enregistrement est copié dans le segment courant
+ * (MappedByteBuffer, sans appel système par écriture). Quand il ne reste
+ * plus assez de place, le segment est fermé et un nouveau est créé ; au-delà
+ * de maxSegments, les plus anciens sont supprimés.
+ *
+ * Non thread-safe : utilisé par le seul thread de {@link TrafficRecorder}.
+ */
+@Slf4j
+final class TrafficLogWriter implements Closeable {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int sequence;
+
+    TrafficLogWriter(Path directory, long segmentSize, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, Math.max(TrafficLogFormat.HEADER_SIZE + 1024, segmentSize));
+        this.maxSegments = Math.max(1, maxSegments);
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * @return false si l'enregistrement est plus grand qu'un segment
+     */
+    boolean append(TrafficRecord record) throws IOException {
+        byte[] encoded = TrafficLogFormat.encode(record);
+        if (encoded.length > segmentSize - TrafficLogFormat.HEADER_SIZE) {
+            return false;
+        }
+        // Place pour l'enregistrement et la longueur nulle qui marque la fin
+        if (segment == null || segment.remaining() < encoded.length + Integer.BYTES) {
+            rotate();
+        }
+        segment.put(encoded);
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+
+    private void rotate() throws IOException {
+        closeSegment();
+
+        String name = TrafficLogFormat.FILE_PREFIX + LocalDateTime.now().format(FILE_TIMESTAMP)
+            + "-" + String.format("%04d", sequence++) + TrafficLogFormat.FILE_SUFFIX;
+        Path file = directory.resolve(name);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.putInt(TrafficLogFormat.MAGIC);
+        segment.putShort(TrafficLogFormat.VERSION);
+        log.debug("Nouveau segment d'enregistrement: {}", file);
+
+        List<Path> segments = listSegments(directory);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+            log.debug("Segment d'enregistrement supprimé: {}", segments.get(i));
+        }
+    }
+
+    private void closeSegment() throws IOException {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Segments d'un répertoire, du plus ancien au plus récent.
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(TrafficLogFormat.FILE_PREFIX) && name.endsWith(TrafficLogFormat.FILE_SUFFIX);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.codistrib.apigateway.recording;
+
+import java.util.Map;
+
+/**
+ * Une requête enregistrée, déjà nettoyée : ni token, ni IP, ni secret, ni
+ * identifiant ou donnée personnelle en clair.
+ *
+ * @param timestampMicros date de réception (microsecondes depuis l'epoch)
+ * @param durationMicros  durée de traitement par la gateway
+ * @param status          statut HTTP renvoyé (0 si la connexion a été coupée)
+ * @param pathAndQuery    chemin et query string (encodés), identifiants
+ *                        pseudonymisés et valeurs hors query-params masquées
+ * @param auth            présence et validité du token
+ * @param userId          pseudonyme du subject du token (si VALID)
+ * @param role            rôle brut du token (si VALID, ex: ROLE_HELPER)
+ * @param clientKey       pseudonyme stable de l'IP cliente (haché, salé)
+ * @param headers         en-têtes conservés (traffic-recording.headers)
+ * @param body            corps nettoyé, ou null si absent ou omis
+ * @param bodyOmitted     true si un corps existait mais n'a pas été enregistré
+ */
+public record TrafficRecord(
+    long timestampMicros,
+    int durationMicros,
+    int status,
+    String method,
+    String pathAndQuery,
+    Auth auth,
+    String userId,
+    String role,
+    int clientKey,
+    Map<String, String> headers,
+    byte[] body,
+    boolean bodyOmitted
+) {
+
+    public enum Auth {
+        /**
+         * Pas d'en-tête Authorization.
+         */
+        NONE,
+        /**
+         * Token valide : rejoué avec un token de test pour le même utilisateur et rôle.
+         */
+        VALID,
+        /**
+         * Token invalide ou expiré : rejoué avec un token invalide.
+         */
+        INVALID
+    }
+}
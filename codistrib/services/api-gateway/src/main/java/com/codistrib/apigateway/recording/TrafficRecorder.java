@@ -0,0 +1,187 @@
+package com.codistrib.apigateway.recording;
+
+import com.codistrib.apigateway.config.RecordingProperties;
+import com.codistrib.apigateway.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enregistrement du trafic pour le rejeu (tests de charge).
+ *
+ * Même principe que le journal d'accès : l'event-loop dépose une capture
+ * brute dans un buffer borné, sans blocage ; un thread dédié la nettoie
+ * ({@link TrafficSanitizer}) et l'écrit dans le segment courant
+ * ({@link TrafficLogWriter}). Buffer plein : la requête n'est pas
+ * enregistrée (gateway.recording.records{outcome=dropped}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrafficRecorder {
+
+    private static final int BATCH_SIZE = 256;
+
+    private final RecordingProperties properties;
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.prefix}")
+    private String tokenPrefix;
+
+    private BlockingQueue<Capture> buffer;
+    private TrafficSanitizer sanitizer;
+    private TrafficLogWriter writer;
+    private Counter written;
+    private Counter dropped;
+    private Thread worker;
+    private volatile boolean running;
+
+    /**
+     * Requête capturée sur l'event-loop, avant nettoyage.
+     *
+     * @param authorization en-tête Authorization brut (jamais écrit)
+     * @param clientIp      IP cliente (jamais écrite)
+     * @param body          corps brut, ou null si absent ou trop gros
+     */
+    record Capture(
+        long timestampMicros,
+        long durationNanos,
+        int status,
+        String method,
+        String pathAndQuery,
+        String authorization,
+        String clientIp,
+        Map<String, String> headers,
+        byte[] body,
+        boolean bodyOmitted
+    ) {
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        Path directory = Path.of(properties.getDirectory());
+        try {
+            writer = new TrafficLogWriter(directory, properties.getSegmentSize().toBytes(), properties.getMaxSegments());
+        } catch (IOException e) {
+            log.error("Enregistrement du trafic désactivé - répertoire inutilisable {}: {}", directory, e.getMessage());
+            return;
+        }
+        sanitizer = new TrafficSanitizer(jwtUtil, objectMapper, tokenPrefix, properties);
+        buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+
+        written = Counter.builder("gateway.recording.records")
+            .description("Requêtes enregistrées pour le rejeu")
+            .tag("outcome", "written")
+            .register(meterRegistry);
+        dropped = Counter.builder("gateway.recording.records")
+            .description("Requêtes enregistrées pour le rejeu")
+            .tag("outcome", "dropped")
+            .register(meterRegistry);
+        Gauge.builder("gateway.recording.pending", buffer, BlockingQueue::size)
+            .description("Requêtes en attente d'enregistrement")
+            .register(meterRegistry);
+
+        running = true;
+        worker = new Thread(this::drainLoop, "traffic-recorder");
+        worker.setDaemon(true);
+        worker.start();
+
+        log.warn("Enregistrement du trafic ACTIF - {} (segments de {}MB, {} max, échantillon {})",
+            directory.toAbsolutePath(), properties.getSegmentSize().toMegabytes(),
+            properties.getMaxSegments(), properties.getSampleRate());
+    }
+
+    public boolean isRecording() {
+        return running;
+    }
+
+    /**
+     * Dépose une capture sans bloquer l'appelant.
+     */
+    void append(Capture capture) {
+        if (!running) {
+            return;
+        }
+        if (!buffer.offer(capture)) {
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Capture> remaining = new ArrayList<>(buffer.size());
+        buffer.drainTo(remaining);
+        write(remaining);
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Fermeture du segment d'enregistrement: {}", e.getMessage());
+        }
+    }
+
+    private void drainLoop() {
+        List<Capture> batch = new ArrayList<>(BATCH_SIZE);
+        while (running) {
+            try {
+                Capture first = buffer.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<Capture> batch) {
+        for (Capture capture : batch) {
+            try {
+                if (writer.append(sanitizer.sanitize(capture))) {
+                    written.increment();
+                } else {
+                    dropped.increment();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Erreur d'enregistrement du trafic: {}", e.getMessage());
+                dropped.increment();
+            }
+        }
+    }
+}
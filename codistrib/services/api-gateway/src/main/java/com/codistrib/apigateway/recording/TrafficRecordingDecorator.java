@@ -0,0 +1,174 @@
+package com.codistrib.apigateway.recording;
+
+import com.codistrib.apigateway.config.RecordingProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.HttpHandlerDecoratorFactory;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Point de capture de l'enregistrement du trafic.
+ *
+ * Décore le HttpHandler plutôt qu'ajouter un WebFilter : toutes les requêtes
+ * sont vues, y compris celles rejetées par le premier filtre (rate limit),
+ * avec le statut final. Le corps est copié au fil de sa lecture par la
+ * gateway, jusqu'à traffic-recording.max-body-size.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrafficRecordingDecorator implements HttpHandlerDecoratorFactory {
+
+    private final RecordingProperties properties;
+    private final TrafficRecorder recorder;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    public HttpHandler apply(HttpHandler handler) {
+        if (!recorder.isRecording()) {
+            return handler;
+        }
+        return (request, response) -> {
+            if (!shouldRecord(request)) {
+                return handler.handle(request, response);
+            }
+
+            Instant received = Instant.now();
+            long start = System.nanoTime();
+            BodyTee tee = new BodyTee((int) properties.getMaxBodySize().toBytes());
+            ServerHttpRequest recorded = new ServerHttpRequestDecorator(request) {
+                @Override
+                public Flux<DataBuffer> getBody() {
+                    return super.getBody().doOnNext(tee::copy);
+                }
+            };
+
+            return handler.handle(recorded, response)
+                .doFinally(signal -> recorder.append(capture(request, response, received,
+                    System.nanoTime() - start, tee)));
+        };
+    }
+
+    private boolean shouldRecord(ServerHttpRequest request) {
+        if ("websocket".equalsIgnoreCase(request.getHeaders().getUpgrade())) {
+            return false;
+        }
+        String path = request.getPath().value();
+        for (String excluded : properties.getExcludedPaths()) {
+            if (pathMatcher.match(excluded, path)) {
+                return false;
+            }
+        }
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private TrafficRecorder.Capture capture(ServerHttpRequest request, ServerHttpResponse response,
+                                            Instant received, long durationNanos, BodyTee tee) {
+        HttpHeaders requestHeaders = request.getHeaders();
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String name : properties.getHeaders()) {
+            String value = requestHeaders.getFirst(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+
+        // Brut en mémoire : identifiants et query string sont nettoyés avant écriture (TrafficSanitizer)
+        String pathAndQuery = request.getURI().getRawPath();
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            pathAndQuery += "?" + query;
+        }
+
+        HttpStatusCode status = response.getStatusCode();
+        return new TrafficRecorder.Capture(
+            ChronoUnit.MICROS.between(Instant.EPOCH, received),
+            durationNanos,
+            status != null ? status.value() : 0,
+            request.getMethod().name(),
+            pathAndQuery,
+            requestHeaders.getFirst(HttpHeaders.AUTHORIZATION),
+            clientIp(request),
+            headers,
+            tee.body(),
+            tee.omitted());
+    }
+
+    private static String clientIp(ServerHttpRequest request) {
+        String xForwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            return xForwardedFor.split(",")[0].trim();
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress != null) {
+            InetAddress address = remoteAddress.getAddress();
+            if (address != null) {
+                return address.getHostAddress();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copie du corps lu par la gateway, abandonnée au-delà de la taille max.
+     * Les buffers d'un corps arrivent en séquence : pas de synchronisation.
+     */
+    private static final class BodyTee {
+
+        private final int maxSize;
+        private ByteArrayOutputStream copy;
+        private boolean omitted;
+
+        private BodyTee(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        private void copy(DataBuffer buffer) {
+            if (omitted) {
+                return;
+            }
+            int readable = buffer.readableByteCount();
+            int size = copy != null ? copy.size() : 0;
+            if (size + readable > maxSize) {
+                omitted = true;
+                copy = null;
+                return;
+            }
+            if (copy == null) {
+                copy = new ByteArrayOutputStream(Math.min(maxSize, Math.max(256, readable)));
+            }
+            int position = buffer.readPosition();
+            for (int i = 0; i < readable; i++) {
+                copy.write(buffer.getByte(position + i));
+            }
+        }
+
+        private byte[] body() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+
+        private boolean omitted() {
+            return omitted;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.codistrib.apigateway.recording;
+
+import com.codistrib.apigateway.config.RecordingProperties;
+import com.codistrib.apigateway.security.JwtClaims;
+import com.codistrib.apigateway.security.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Nettoyage d'une requête capturée avant écriture sur disque.
+ *
+ * - le token est remplacé par son identité (userId, rôle) ou marqué invalide
+ * - l'IP est remplacée par un pseudonyme (haché avec un sel tiré au démarrage,
+ *   jamais écrit) : les requêtes d'un même client restent regroupées
+ * - les identifiants (subject du token, segments de chemin contenant un
+ *   chiffre ou un email, champs JSON pseudonymized-fields) sont remplacés par
+ *   un pseudonyme, le même partout : le rejeu garde les liens entre requêtes
+ * - la valeur des paramètres de query string hors query-params est masquée
+ * - les champs JSON sensibles (mots de passe, tokens, données personnelles,
+ *   coordonnées...) sont masqués ; un corps non JSON n'est pas enregistré
+ */
+final class TrafficSanitizer {
+
+    static final String REDACTED = "REDACTED";
+
+    private static final Pattern VERSION_SEGMENT = Pattern.compile("v\\d+");
+
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final String tokenPrefix;
+    private final Set<String> redactedFields = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private final Set<String> pseudonymizedFields = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private final Set<String> queryParams = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private final byte[] salt = new byte[16];
+
+    TrafficSanitizer(JwtUtil jwtUtil, ObjectMapper objectMapper, String tokenPrefix, RecordingProperties properties) {
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+        this.tokenPrefix = tokenPrefix;
+        redactedFields.addAll(properties.getRedactedFields());
+        pseudonymizedFields.addAll(properties.getPseudonymizedFields());
+        queryParams.addAll(properties.getQueryParams());
+        new SecureRandom().nextBytes(salt);
+    }
+
+    TrafficRecord sanitize(TrafficRecorder.Capture capture) {
+        TrafficRecord.Auth auth = TrafficRecord.Auth.NONE;
+        String userId = null;
+        String role = null;
+        if (capture.authorization() != null) {
+            Optional<JwtClaims> claims = capture.authorization().startsWith(tokenPrefix)
+                ? jwtUtil.parseToken(capture.authorization().substring(tokenPrefix.length()))
+                : Optional.empty();
+            auth = claims.isPresent() ? TrafficRecord.Auth.VALID : TrafficRecord.Auth.INVALID;
+            userId = claims.map(JwtClaims::userId).map(this::pseudonym).orElse(null);
+            role = claims.map(JwtClaims::role).orElse(null);
+        }
+
+        byte[] body = capture.body();
+        boolean omitted = capture.bodyOmitted();
+        if (body != null && body.length > 0) {
+            body = sanitizeBody(body, capture.headers());
+            omitted = body == null;
+        }
+
+        return new TrafficRecord(
+            capture.timestampMicros(),
+            (int) Math.min(Integer.MAX_VALUE, capture.durationNanos() / 1_000),
+            capture.status(),
+            capture.method(),
+            sanitizePath(capture.pathAndQuery()),
+            auth,
+            userId,
+            role,
+            clientKey(capture.clientIp()),
+            capture.headers(),
+            body,
+            omitted);
+    }
+
+    /**
+     * Chemin avec les identifiants pseudonymisés et query string sans valeur
+     * hors liste (les noms restent : le rejeu garde la forme des requêtes).
+     */
+    private String sanitizePath(String pathAndQuery) {
+        int separator = pathAndQuery.indexOf('?');
+        String path = separator >= 0 ? pathAndQuery.substring(0, separator) : pathAndQuery;
+
+        StringBuilder sanitized = new StringBuilder(pathAndQuery.length());
+        String[] segments = path.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                sanitized.append('/');
+            }
+            sanitized.append(isIdentifier(segments[i]) ? pseudonym(segments[i]) : segments[i]);
+        }
+        if (separator < 0) {
+            return sanitized.toString();
+        }
+
+        sanitized.append('?');
+        String[] parameters = pathAndQuery.substring(separator + 1).split("&");
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                sanitized.append('&');
+            }
+            String parameter = parameters[i];
+            int equals = parameter.indexOf('=');
+            String name = equals >= 0 ? parameter.substring(0, equals) : parameter;
+            if (queryParams.contains(name)) {
+                sanitized.append(parameter);
+            } else if (equals >= 0) {
+                sanitized.append(name).append('=').append(REDACTED);
+            } else {
+                sanitized.append(REDACTED);
+            }
+        }
+        return sanitized.toString();
+    }
+
+    /**
+     * Segment portant un identifiant : un chiffre (hors version d'API) ou un
+     * email, encodé ou non.
+     */
+    private static boolean isIdentifier(String segment) {
+        if (segment.indexOf('@') >= 0) {
+            return true;
+        }
+        return segment.chars().anyMatch(Character::isDigit) && !VERSION_SEGMENT.matcher(segment).matches();
+    }
+
+    /**
+     * Corps JSON avec les champs sensibles masqués, ou null s'il n'est pas JSON.
+     */
+    private byte[] sanitizeBody(byte[] body, Map<String, String> headers) {
+        String contentType = headers.getOrDefault("Content-Type", "");
+        if (!contentType.contains("json")) {
+            return null;
+        }
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            redact(json);
+            return objectMapper.writeValueAsBytes(json);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void redact(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (redactedFields.contains(field.getKey())) {
+                    // Valeur composée (ex: objet address) : tout le sous-arbre est masqué
+                    field.setValue(TextNode.valueOf(REDACTED));
+                } else if (pseudonymizedFields.contains(field.getKey()) && field.getValue().isValueNode()) {
+                    field.setValue(TextNode.valueOf(pseudonym(field.getValue().asText())));
+                } else {
+                    redact(field.getValue());
+                }
+            }
+        } else if (node.isArray()) {
+            node.forEach(this::redact);
+        }
+    }
+
+    private int clientKey(String clientIp) {
+        if (clientIp == null) {
+            return 0;
+        }
+        return ByteBuffer.wrap(digest(clientIp)).getInt();
+    }
+
+    /**
+     * Pseudonyme d'un identifiant : que des chiffres, pour que le rejeu le
+     * reconnaisse encore comme identifiant dans les routes.
+     */
+    private String pseudonym(String identifier) {
+        return Long.toUnsignedString(ByteBuffer.wrap(digest(identifier)).getLong());
+    }
+
+    private byte[] digest(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            return digest.digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.codistrib.apigateway.security;
+
+import com.codistrib.apigateway.grpc.AlertServiceGrpcClient;
+import com.codistrib.proto.alert.AlertProto.Alert;
+import io.grpc.Deadline;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Assignations aidant -> PersonDI, vérifiées auprès d'alert-service.
+ *
+ * Un aidant accède aux données d'une PersonDI (profil, alertes, position)
+ * tant qu'il a une alerte ASSIGNED pour elle. En cas d'erreur, l'accès est refusé.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HelperAssignments {
+
+    private final AlertServiceGrpcClient alertClient;
+
+    /**
+     * L'aidant a-t-il une alerte en cours pour cette PersonDI ?
+     *
+     * @param deadline borne de l'appel, ou null pour le deadline du service
+     */
+    public Mono<Boolean> isAssigned(String helperId, String personId, Deadline deadline) {
+        return alertClient.listByHelper(helperId, deadline)
+            .map(response -> response.getAlertsList().stream()
+                .filter(alert -> "ASSIGNED".equals(alert.getStatus()))
+                .map(Alert::getPersonId)
+                .anyMatch(personId::equals))
+            .onErrorResume(e -> {
+                log.warn("Vérification d'assignation impossible (helper {}, person {}): {}",
+                    helperId, personId, e.getMessage());
+                return Mono.just(false);
+            });
+    }
+}
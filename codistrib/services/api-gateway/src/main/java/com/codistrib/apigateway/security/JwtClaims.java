@@ -0,0 +1,45 @@
+package com.codistrib.apigateway.security;
+
+import java.time.Instant;
+
+/**
+ * Claims d'un token JWT dont la signature a déjà été vérifiée.
+ *
+ * Objet immuable produit par {@link JwtUtil#parseToken(String)} : une seule
+ * vérification HMAC par token, puis lecture directe des champs.
+ *
+ * @param userId    subject du JWT (ID utilisateur)
+ * @param role      rôle brut tel qu'émis par auth-service (ex: ROLE_HELPER)
+ * @param email     email de l'utilisateur (peut être null)
+ * @param username  nom d'utilisateur (peut être null)
+ * @param tokenId   identifiant unique du token (jti)
+ * @param expiresAt date d'expiration du token
+ */
+public record JwtClaims(
+    String userId,
+    String role,
+    String email,
+    String username,
+    String tokenId,
+    Instant expiresAt
+) {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    /**
+     * Rôle sans le préfixe "ROLE_" (PERSON_DI, HELPER, ADMINISTRATOR).
+     */
+    public String simpleRole() {
+        if (role != null && role.startsWith(ROLE_PREFIX)) {
+            return role.substring(ROLE_PREFIX.length());
+        }
+        return role;
+    }
+
+    /**
+     * Vérifie si le token est expiré à l'instant donné.
+     */
+    public boolean isExpiredAt(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
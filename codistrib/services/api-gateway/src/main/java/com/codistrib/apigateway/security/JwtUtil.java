@@ -1,78 +1,163 @@
 package com.codistrib.apigateway.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secretKeyString;
 
+    @Value("${jwt.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${jwt.cache.max-ttl:15m}")
+    private Duration cacheMaxTtl;
+
     private SecretKey secretKey;
 
+    private JwtParser parser;
+
+    /**
+     * Cache des claims déjà vérifiés, indexé par le SHA-256 du token.
+     * Chaque entrée expire au plus tard à l'expiration du token lui-même.
+     */
+    private Cache<String, JwtClaims> claimsCache;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    });
+
     /**
      * Initialise la clé de signature après injection des propriétés.
      */
     @PostConstruct
     public void init() {
         this.secretKey = Keys.hmacShaKeyFor(secretKeyString.getBytes(StandardCharsets.UTF_8));
-        log.info("JwtUtil initialisé avec succès");
+        // Le parser est immuable et thread-safe : on le construit une seule fois
+        this.parser = Jwts.parser()
+            .verifyWith(secretKey)
+            .build();
+
+        if (cacheEnabled) {
+            this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new ClaimsExpiry(cacheMaxTtl))
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt.claims");
+        }
+
+        log.info("JwtUtil initialisé avec succès (cache: {}, taille max: {})", cacheEnabled, cacheMaxSize);
+    }
+
+    /**
+     * Vérifie le token une seule fois et retourne ses claims.
+     *
+     * Si le même token a déjà été vérifié (même session mobile), les claims
+     * sont servis depuis le cache sans aucune opération cryptographique.
+     *
+     * @return les claims vérifiés, ou vide si le token est invalide ou expiré
+     */
+    public Optional<JwtClaims> parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            log.warn("Token JWT vide ou null");
+            return Optional.empty();
+        }
+
+        if (claimsCache == null) {
+            return verify(token);
+        }
+
+        String key = digest(token);
+        JwtClaims cached = claimsCache.getIfPresent(key);
+        if (cached != null) {
+            if (!cached.isExpiredAt(Instant.now())) {
+                return Optional.of(cached);
+            }
+            claimsCache.invalidate(key);
+        }
+
+        Optional<JwtClaims> verified = verify(token);
+        verified.ifPresent(claims -> claimsCache.put(key, claims));
+        return verified;
+    }
+
+    /**
+     * Signe un token synthétique avec la clé partagée.
+     *
+     * Réservé au warm-up de la gateway : ces tokens ne sont jamais remis à un client.
+     */
+    public String signSyntheticToken(String userId, String role, Duration ttl) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+            .subject(userId)
+            .claim("role", role)
+            .id(UUID.randomUUID().toString())
+            .issuedAt(Date.from(now))
+            .expiration(Date.from(now.plus(ttl)))
+            .signWith(secretKey)
+            .compact();
     }
 
     /**
      * Valide un token JWT.
-     * 
+     *
      * Vérifie :
      * 1. La signature (le token n'a pas été modifié)
      * 2. L'expiration (le token n'est pas expiré)
      * 3. Le format (le token est bien formé)
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token);
-            return true;
-        } catch (ExpiredJwtException e) {
-            log.warn("Token JWT expiré");
-        } catch (MalformedJwtException e) {
-            log.warn("Token JWT malformé");
-        } catch (SecurityException e) {
-            log.warn("Signature JWT invalide");
-        } catch (IllegalArgumentException e) {
-            log.warn("Token JWT vide ou null");
-        } catch (Exception e) {
-            log.warn("Erreur de validation JWT: {}", e.getMessage());
-        }
-        return false;
+        return parseToken(token).isPresent();
     }
 
     /**
      * Extrait tous les claims du token.
-     * 
+     *
      */
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-            .verifyWith(secretKey)
-            .build()
+        return parser
             .parseSignedClaims(token)
             .getPayload();
     }
 
     /**
      * Extrait l'ID utilisateur du token.
-     * 
+     *
      * Le user_id est stocké dans le "subject" du JWT.
      */
     public String extractUserId(String token) {
@@ -81,7 +166,7 @@ public class JwtUtil {
 
     /**
      * Extrait le rôle de l'utilisateur du token.
-     * 
+     *
      * Le rôle est stocké dans un claim personnalisé "role".
      * Valeurs possibles : PERSON_DI, HELPER, ADMINISTRATOR
      */
@@ -98,7 +183,7 @@ public class JwtUtil {
 
     /**
      * Extrait le nom d'utilisateur du token.
-     * 
+     *
      */
     public String extractUsername(String token) {
         return extractAllClaims(token).get("username", String.class);
@@ -106,7 +191,7 @@ public class JwtUtil {
 
     /**
      * Vérifie si le token est expiré.
-     * 
+     *
      */
     public boolean isTokenExpired(String token) {
         try {
@@ -116,4 +201,65 @@ public class JwtUtil {
             return true;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Vérifie la signature et convertit le payload en {@link JwtClaims}.
+     */
+    private Optional<JwtClaims> verify(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            Date expiration = claims.getExpiration();
+            return Optional.of(new JwtClaims(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.get("email", String.class),
+                claims.get("username", String.class),
+                claims.getId(),
+                expiration != null ? expiration.toInstant() : null
+            ));
+        } catch (ExpiredJwtException e) {
+            log.warn("Token JWT expiré");
+        } catch (MalformedJwtException e) {
+            log.warn("Token JWT malformé");
+        } catch (SecurityException e) {
+            log.warn("Signature JWT invalide");
+        } catch (IllegalArgumentException e) {
+            log.warn("Token JWT vide ou null");
+        } catch (Exception e) {
+            log.warn("Erreur de validation JWT: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private static String digest(String token) {
+        MessageDigest md = SHA_256.get();
+        md.reset();
+        return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Politique d'expiration : min(expiration du token, TTL max configuré).
+     */
+    private record ClaimsExpiry(Duration maxTtl) implements Expiry<String, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            long maxNanos = maxTtl.toNanos();
+            if (claims.expiresAt() == null) {
+                return maxNanos;
+            }
+            long remaining = Duration.between(Instant.now(), claims.expiresAt()).toNanos();
+            return Math.max(0, Math.min(remaining, maxNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.codistrib.apigateway.security;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Liste des tokens révoqués (logout), tenue en mémoire sur chaque instance.
+ *
+ * auth-service publie chaque jti révoqué sur le canal Redis "auth:revocations"
+ * et l'indexe dans le sorted set "auth:revoked" (score = expiration). La
+ * gateway :
+ * - relit tout le sorted set au démarrage, à chaque reconnexion et
+ *   périodiquement (rattrape les messages pub/sub perdus)
+ * - applique les nouvelles révocations dès leur publication
+ *
+ * La vérification ne fait aucun appel réseau : un filtre de Bloom écarte
+ * en O(k) la quasi-totalité des tokens valides, la map exacte ne sert
+ * qu'en cas de réponse positive (pas de faux positifs au final).
+ *
+ * Si Redis est indisponible, les révocations déjà connues restent appliquées.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevocationList {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${revocation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${revocation.channel:auth:revocations}")
+    private String channel;
+
+    @Value("${revocation.index-key:auth:revoked}")
+    private String indexKey;
+
+    @Value("${revocation.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${revocation.resync-interval:5m}")
+    private Duration resyncInterval;
+
+    /**
+     * Filtre de Bloom + ensemble exact (jti -> expiration en ms), remplacés
+     * ensemble lors d'une resynchronisation.
+     */
+    private volatile Snapshot snapshot;
+
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        snapshot = Snapshot.empty(expectedInsertions, falsePositiveRate);
+
+        rejected = Counter.builder("gateway.revocation.rejected")
+            .description("Requêtes refusées avec un token révoqué")
+            .register(meterRegistry);
+        Gauge.builder("gateway.revocation.size", this, list -> list.snapshot.revoked().size())
+            .description("Tokens révoqués connus de la gateway")
+            .register(meterRegistry);
+
+        if (!enabled) {
+            log.info("RevocationList désactivée");
+            return;
+        }
+
+        // Abonnement d'abord, resynchronisation ensuite : aucune révocation ne passe entre les deux
+        subscriptions.add(redisTemplate.listenToChannel(channel)
+            .doOnSubscribe(s -> resync().subscribe())
+            .doOnNext(message -> onRevocation(message.getMessage()))
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                .maxBackoff(Duration.ofSeconds(30))
+                .doBeforeRetry(signal -> log.warn("Abonnement aux révocations perdu, reconnexion: {}",
+                    signal.failure().getMessage())))
+            .subscribe());
+
+        subscriptions.add(Flux.interval(resyncInterval, resyncInterval)
+            .concatMap(tick -> resync())
+            .subscribe());
+
+        log.info("RevocationList initialisée - canal: {}, index: {}, resync toutes les {}s",
+            channel, indexKey, resyncInterval.toSeconds());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.dispose();
+    }
+
+    /**
+     * Vérifie si un token a été révoqué. Aucun appel réseau.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        if (!current.bloom().mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = current.revoked().get(tokenId);
+        boolean revoked = expiresAt != null && expiresAt > System.currentTimeMillis();
+        if (revoked) {
+            rejected.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Message "<jti>:<expiration ms>" publié par auth-service.
+     */
+    private void onRevocation(String message) {
+        int colon = message.lastIndexOf(':');
+        if (colon <= 0) {
+            log.warn("Message de révocation invalide: {}", message);
+            return;
+        }
+        try {
+            add(message.substring(0, colon), Long.parseLong(message.substring(colon + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Message de révocation invalide: {}", message);
+        }
+    }
+
+    private synchronized void add(String tokenId, long expiresAt) {
+        Snapshot current = snapshot;
+        current.revoked().put(tokenId, expiresAt);
+        current.bloom().put(tokenId);
+        log.debug("Token révoqué reçu: {}", tokenId);
+    }
+
+    /**
+     * Relit l'index complet et reconstruit le filtre (purge les tokens expirés).
+     */
+    private Mono<Void> resync() {
+        long now = System.currentTimeMillis();
+        return redisTemplate.opsForZSet()
+            .rangeByScoreWithScores(indexKey, Range.rightUnbounded(Range.Bound.inclusive((double) now)))
+            .collectMap(ZSetOperations.TypedTuple::getValue, tuple -> tuple.getScore().longValue())
+            .doOnNext(this::replace)
+            .doOnError(e -> log.warn("Resynchronisation des révocations impossible: {}", e.getMessage()))
+            .onErrorResume(e -> Mono.empty())
+            .then();
+    }
+
+    private synchronized void replace(Map<String, Long> fromRedis) {
+        long now = System.currentTimeMillis();
+        Map<String, Long> merged = new HashMap<>(fromRedis);
+        // Conserve les révocations reçues pendant la lecture de l'index
+        snapshot.revoked().forEach((tokenId, expiresAt) -> {
+            if (expiresAt > now) {
+                merged.putIfAbsent(tokenId, expiresAt);
+            }
+        });
+
+        Snapshot next = Snapshot.empty(Math.max(expectedInsertions, merged.size() * 2), falsePositiveRate);
+        merged.forEach((tokenId, expiresAt) -> {
+            next.revoked().put(tokenId, expiresAt);
+            next.bloom().put(tokenId);
+        });
+        snapshot = next;
+
+        log.debug("Révocations resynchronisées - {} token(s)", merged.size());
+    }
+
+    private record Snapshot(BloomFilter<CharSequence> bloom, Map<String, Long> revoked) {
+
+        static Snapshot empty(int expectedInsertions, double falsePositiveRate) {
+            return new Snapshot(
+                BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, falsePositiveRate),
+                new ConcurrentHashMap<>());
+        }
+    }
+}
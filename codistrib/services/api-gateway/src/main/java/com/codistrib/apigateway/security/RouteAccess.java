@@ -0,0 +1,47 @@
+package com.codistrib.apigateway.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Règle d'accès résolue pour une requête (méthode + chemin).
+ *
+ * Produite en une seule recherche par {@link RouteValidator#resolve}.
+ *
+ * @param isPublic     true si aucune authentification n'est requise
+ * @param restrictedTo rôles autorisés ; vide = tout utilisateur authentifié
+ */
+public record RouteAccess(boolean isPublic, Set<String> restrictedTo) {
+
+    public static final String ADMINISTRATOR = "ADMINISTRATOR";
+
+    /**
+     * Vérifie si un rôle peut accéder à la route.
+     *
+     * Logique :
+     * 1. ADMINISTRATOR peut accéder à TOUT
+     * 2. Sinon, le rôle doit faire partie des rôles autorisés
+     * 3. Si la route n'est restreinte à aucun rôle, elle est accessible à tous les authentifiés
+     */
+    public boolean permits(String role) {
+        if (role == null) {
+            return false;
+        }
+        if (ADMINISTRATOR.equals(role)) {
+            return true;
+        }
+        return restrictedTo.isEmpty() || restrictedTo.contains(role);
+    }
+
+    /**
+     * Rôles autorisés (ADMINISTRATOR inclus), pour les messages d'erreur.
+     */
+    public List<String> allowedRoles() {
+        List<String> roles = new ArrayList<>(restrictedTo);
+        if (!roles.isEmpty() && !roles.contains(ADMINISTRATOR)) {
+            roles.add(ADMINISTRATOR);
+        }
+        return roles;
+    }
+}
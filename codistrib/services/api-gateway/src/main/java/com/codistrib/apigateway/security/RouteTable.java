@@ -0,0 +1,204 @@
+package com.codistrib.apigateway.security;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Table d'autorisation compilée sous forme d'arbre de segments (trie).
+ *
+ * Chaque règle est de la forme "[MÉTHODE ]/chemin/ant/**". Les segments
+ * littéraux sont indexés dans une map, "*" et "{var}" couvrent un segment,
+ * "**" couvre zéro ou plusieurs segments. Les segments contenant un joker
+ * partiel (ex: "*.json") sont comparés avec AntPathMatcher.
+ *
+ * Une recherche parcourt le chemin segment par segment : son coût dépend
+ * du nombre de segments, pas du nombre de règles.
+ *
+ * Construite une seule fois au démarrage, puis lue sans synchronisation.
+ */
+final class RouteTable {
+
+    static final String ANY_METHOD = "*";
+
+    private static final AntPathMatcher SEGMENT_MATCHER = new AntPathMatcher();
+
+    private final Node root = new Node();
+
+    /**
+     * Déclare une route publique.
+     */
+    void addPublic(String rule) {
+        ParsedRule parsed = parse(rule);
+        insert(parsed.pattern()).publicMethods.add(parsed.method());
+    }
+
+    /**
+     * Déclare une route réservée à un rôle.
+     */
+    void addRole(String rule, String role) {
+        ParsedRule parsed = parse(rule);
+        insert(parsed.pattern()).rolesByMethod
+            .computeIfAbsent(parsed.method(), m -> new HashSet<>())
+            .add(role);
+    }
+
+    /**
+     * Résout l'accès pour une méthode HTTP et un chemin concret.
+     * Toutes les règles correspondantes sont fusionnées (union des rôles).
+     */
+    RouteAccess lookup(String method, String path) {
+        String[] segments = tokenize(path);
+        Match match = new Match(method);
+        walk(root, segments, 0, match);
+        return new RouteAccess(match.isPublic, Set.copyOf(match.roles));
+    }
+
+    private void walk(Node node, String[] segments, int index, Match match) {
+        if (node.doubleWildcard != null) {
+            // "**" consomme de zéro à tous les segments restants
+            for (int next = index; next <= segments.length; next++) {
+                walk(node.doubleWildcard, segments, next, match);
+            }
+        }
+
+        if (index == segments.length) {
+            match.collect(node);
+            return;
+        }
+
+        String segment = segments[index];
+
+        Node literal = node.literals.get(segment);
+        if (literal != null) {
+            walk(literal, segments, index + 1, match);
+        }
+        if (node.wildcard != null) {
+            walk(node.wildcard, segments, index + 1, match);
+        }
+        for (PatternChild child : node.patterns) {
+            if (SEGMENT_MATCHER.match(child.pattern(), segment)) {
+                walk(child.node(), segments, index + 1, match);
+            }
+        }
+    }
+
+    private Node insert(String pattern) {
+        Node node = root;
+        for (String segment : tokenize(pattern)) {
+            node = node.child(segment);
+        }
+        return node;
+    }
+
+    private static ParsedRule parse(String rule) {
+        String trimmed = rule.trim();
+        int space = trimmed.indexOf(' ');
+        if (space > 0 && !trimmed.startsWith("/")) {
+            return new ParsedRule(trimmed.substring(0, space).toUpperCase(), trimmed.substring(space + 1).trim());
+        }
+        return new ParsedRule(ANY_METHOD, trimmed);
+    }
+
+    /**
+     * Découpe un chemin en segments. Un "/" final produit un segment vide,
+     * comme AntPathMatcher qui distingue "/a" de "/a/".
+     */
+    private static String[] tokenize(String path) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        int length = path.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == '/') {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        if (length > 1 && path.charAt(length - 1) == '/') {
+            segments.add("");
+        }
+        return segments.toArray(String[]::new);
+    }
+
+    private record ParsedRule(String method, String pattern) {
+    }
+
+    private record PatternChild(String pattern, Node node) {
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> literals = new HashMap<>();
+        private final List<PatternChild> patterns = new ArrayList<>();
+        private Node wildcard;
+        private Node doubleWildcard;
+
+        private final Set<String> publicMethods = new HashSet<>();
+        private final Map<String, Set<String>> rolesByMethod = new HashMap<>();
+
+        private Node child(String segment) {
+            if ("**".equals(segment)) {
+                if (doubleWildcard == null) {
+                    doubleWildcard = new Node();
+                }
+                return doubleWildcard;
+            }
+            if ("*".equals(segment) || (segment.startsWith("{") && segment.endsWith("}"))) {
+                if (wildcard == null) {
+                    wildcard = new Node();
+                }
+                return wildcard;
+            }
+            if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0) {
+                for (PatternChild child : patterns) {
+                    if (child.pattern().equals(segment)) {
+                        return child.node();
+                    }
+                }
+                Node node = new Node();
+                patterns.add(new PatternChild(segment, node));
+                return node;
+            }
+            return literals.computeIfAbsent(segment, s -> new Node());
+        }
+    }
+
+    /**
+     * Accumule les règles des nœuds terminaux atteints.
+     */
+    private static final class Match {
+
+        private final String method;
+        private boolean isPublic;
+        private final Set<String> roles = new HashSet<>();
+
+        private Match(String method) {
+            this.method = method;
+        }
+
+        private void collect(Node node) {
+            if (method == null) {
+                // Méthode inconnue : toutes les règles s'appliquent
+                isPublic |= !node.publicMethods.isEmpty();
+                node.rolesByMethod.values().forEach(roles::addAll);
+                return;
+            }
+            isPublic |= node.publicMethods.contains(ANY_METHOD) || node.publicMethods.contains(method);
+            Set<String> any = node.rolesByMethod.get(ANY_METHOD);
+            if (any != null) {
+                roles.addAll(any);
+            }
+            Set<String> specific = node.rolesByMethod.get(method);
+            if (specific != null) {
+                roles.addAll(specific);
+            }
+        }
+    }
+}
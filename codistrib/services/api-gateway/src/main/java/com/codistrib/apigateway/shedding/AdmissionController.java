@@ -0,0 +1,256 @@
+package com.codistrib.apigateway.shedding;
+
+import com.codistrib.apigateway.config.LoadSheddingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contrôle d'admission par priorité.
+ *
+ * Un thread de surveillance mesure périodiquement :
+ * - le délai d'attente dans les event-loops Netty (une tâche sonde est
+ *   soumise à chaque event-loop, on mesure le temps avant son exécution)
+ * - la charge CPU du process
+ *
+ * Après overload-samples mesures consécutives au-dessus d'un seuil, le niveau
+ * de délestage monte d'un cran (BATCH, puis INTERACTIVE, puis REAL_TIME) ;
+ * il redescend d'un cran après recovery-samples mesures sous les seuils.
+ * EMERGENCY n'est jamais délestée : elle dispose seule de la part réservée
+ * de la capacité, et reste bornée par maxInFlight.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdmissionController {
+
+    /**
+     * Nombre maximal de classes délestées (toutes sauf EMERGENCY).
+     */
+    private static final int MAX_SHED_LEVEL = RequestPriority.values().length - 1;
+
+    private final LoadSheddingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<RequestPriority, Counter> admitted = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> shed = new EnumMap<>(RequestPriority.class);
+
+    private ScheduledExecutorService monitor;
+    private List<LoopProbe> probes = List.of();
+    private com.sun.management.OperatingSystemMXBean osBean;
+
+    private int sharedLimit;
+
+    /**
+     * Nombre de classes délestées, en partant de la moins prioritaire.
+     */
+    private volatile int shedLevel;
+    private volatile long queueDelayNanos;
+    private volatile double cpuLoad;
+
+    private int overloadedSamples;
+    private int healthySamples;
+
+    @PostConstruct
+    public void init() {
+        sharedLimit = (int) (properties.getMaxInFlight() * (1 - properties.getEmergencyReservedShare()));
+
+        for (RequestPriority priority : RequestPriority.values()) {
+            admitted.put(priority, Counter.builder("gateway.shedding.requests")
+                .description("Requêtes admises ou délestées, par priorité")
+                .tags("priority", priority.name(), "outcome", "admitted")
+                .register(meterRegistry));
+            shed.put(priority, Counter.builder("gateway.shedding.requests")
+                .description("Requêtes admises ou délestées, par priorité")
+                .tags("priority", priority.name(), "outcome", "shed")
+                .register(meterRegistry));
+        }
+        Gauge.builder("gateway.shedding.level", this, controller -> controller.shedLevel)
+            .description("Nombre de classes de priorité délestées")
+            .register(meterRegistry);
+        Gauge.builder("gateway.shedding.in_flight", inFlight, AtomicInteger::get)
+            .description("Requêtes en cours")
+            .register(meterRegistry);
+        Gauge.builder("gateway.shedding.queue_delay", this, controller -> controller.queueDelayNanos / 1_000_000.0)
+            .description("Délai d'attente mesuré dans les event-loops Netty (ms)")
+            .register(meterRegistry);
+        Gauge.builder("gateway.shedding.cpu", this, controller -> controller.cpuLoad)
+            .description("Charge CPU du process (0..1)")
+            .register(meterRegistry);
+
+        if (!properties.isEnabled()) {
+            log.info("Délestage désactivé");
+            return;
+        }
+
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+            osBean = sunOs;
+        }
+
+        List<LoopProbe> loopProbes = new ArrayList<>();
+        EventLoopGroup loops = HttpResources.get().onServer(LoopResources.DEFAULT_NATIVE);
+        for (EventExecutor executor : loops) {
+            loopProbes.add(new LoopProbe(executor));
+        }
+        probes = loopProbes;
+
+        monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-shedding-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.getSampleInterval().toMillis();
+        monitor.scheduleAtFixedRate(this::sample, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+
+        log.info("Délestage actif - {} requêtes max ({} hors urgence), CPU > {}, attente > {}ms, {} event-loop(s)",
+            properties.getMaxInFlight(), sharedLimit, properties.getCpuThreshold(),
+            properties.getQueueDelayThreshold().toMillis(), probes.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (monitor != null) {
+            monitor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tente d'admettre une requête. Si true, {@link #release()} doit être appelé à la fin.
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+
+        int limit = properties.getMaxInFlight();
+        if (priority != RequestPriority.EMERGENCY) {
+            if (isShed(priority)) {
+                shed.get(priority).increment();
+                return false;
+            }
+            limit = sharedLimit;
+        }
+
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                shed.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.get(priority).increment();
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        if (properties.isEnabled()) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Les classes les moins prioritaires sont délestées en premier.
+     */
+    private boolean isShed(RequestPriority priority) {
+        return priority.ordinal() >= RequestPriority.values().length - shedLevel;
+    }
+
+    private void sample() {
+        try {
+            long now = System.nanoTime();
+            long maxDelay = 0;
+            for (LoopProbe probe : probes) {
+                maxDelay = Math.max(maxDelay, probe.sample(now));
+            }
+            queueDelayNanos = maxDelay;
+
+            if (osBean != null) {
+                double load = osBean.getProcessCpuLoad();
+                if (load >= 0) {
+                    cpuLoad = load;
+                }
+            }
+
+            boolean overloaded = maxDelay > properties.getQueueDelayThreshold().toNanos()
+                || cpuLoad > properties.getCpuThreshold();
+            adjust(overloaded);
+        } catch (RuntimeException e) {
+            log.warn("Erreur de mesure du délestage: {}", e.getMessage());
+        }
+    }
+
+    private void adjust(boolean overloaded) {
+        int level = shedLevel;
+        if (overloaded) {
+            healthySamples = 0;
+            overloadedSamples++;
+            if (level < MAX_SHED_LEVEL && overloadedSamples >= properties.getOverloadSamples()) {
+                shedLevel = level + 1;
+                overloadedSamples = 0;
+                log.warn("Surcharge (attente {}ms, CPU {}) - délestage niveau {}",
+                    queueDelayNanos / 1_000_000, String.format("%.2f", cpuLoad), level + 1);
+            }
+        } else {
+            overloadedSamples = 0;
+            healthySamples++;
+            if (level > 0 && healthySamples >= properties.getRecoverySamples()) {
+                shedLevel = level - 1;
+                healthySamples = 0;
+                log.info("Charge revenue sous les seuils - délestage niveau {}", level - 1);
+            }
+        }
+    }
+
+    /**
+     * Sonde d'une event-loop : une tâche à la fois, son délai avant exécution
+     * mesure la file d'attente de la boucle.
+     */
+    private static final class LoopProbe {
+
+        private final EventExecutor executor;
+        private volatile long pendingSinceNanos;
+        private volatile long lastDelayNanos;
+
+        private LoopProbe(EventExecutor executor) {
+            this.executor = executor;
+        }
+
+        private long sample(long now) {
+            long pending = pendingSinceNanos;
+            if (pending != 0) {
+                // La sonde précédente n'a toujours pas été exécutée
+                return now - pending;
+            }
+            pendingSinceNanos = now;
+            executor.execute(() -> {
+                lastDelayNanos = System.nanoTime() - now;
+                pendingSinceNanos = 0;
+            });
+            return lastDelayNanos;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.codistrib.apigateway.shedding;
+
+import com.codistrib.apigateway.config.LoadSheddingProperties;
+import com.codistrib.apigateway.security.JwtClaims;
+import com.codistrib.apigateway.security.JwtUtil;
+import com.codistrib.apigateway.security.RevocationList;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Détermine la classe de priorité d'une requête à partir de la route, puis du rôle.
+ *
+ * Une route EMERGENCY ne suffit pas : l'exemption (rate limiting, quotas,
+ * délestage) exige un token valide, non révoqué, de rôle PERSON_DI. Le
+ * token est vérifié ici car RateLimitFilter passe avant JwtAuthFilter.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PriorityClassifier {
+
+    private static final String ANY_METHOD = "*";
+    private static final String USER_ROLE_HEADER = "X-User-Role";
+    private static final String EMERGENCY_ROLE = "PERSON_DI";
+    private static final String VERIFIED_EMERGENCY_ATTRIBUTE = PriorityClassifier.class.getName() + ".emergency";
+
+    private final LoadSheddingProperties properties;
+    private final JwtUtil jwtUtil;
+    private final RevocationList revocationList;
+
+    @Value("${jwt.header}")
+    private String authHeader;
+
+    @Value("${jwt.prefix}")
+    private String tokenPrefix;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private List<RouteRule> rules = List.of();
+
+    @PostConstruct
+    public void init() {
+        rules = properties.getRoutes().stream()
+            .map(PriorityClassifier::parse)
+            .toList();
+        log.info("PriorityClassifier initialisé - {} règle(s) de route, {} rôle(s)",
+            rules.size(), properties.getRoles().size());
+    }
+
+    /**
+     * Priorité d'après la route seule (utilisable avant l'authentification).
+     */
+    public RequestPriority classifyRoute(ServerHttpRequest request) {
+        String method = request.getMethod().name();
+        String path = request.getPath().value();
+        for (RouteRule rule : rules) {
+            if ((ANY_METHOD.equals(rule.method()) || rule.method().equals(method))
+                && pathMatcher.match(rule.pattern(), path)) {
+                return rule.priority();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Priorité complète : route, puis rôle (X-User-Role), puis priorité par défaut.
+     * Mémorisée dans les attributs de l'échange.
+     */
+    public RequestPriority classify(ServerWebExchange exchange) {
+        RequestPriority cached = exchange.getAttribute(RequestPriority.ATTRIBUTE);
+        if (cached != null) {
+            return cached;
+        }
+
+        RequestPriority priority = classifyRoute(exchange.getRequest());
+        if (priority == RequestPriority.EMERGENCY && !isEmergency(exchange)) {
+            priority = null;
+        }
+        if (priority == null) {
+            String role = exchange.getRequest().getHeaders().getFirst(USER_ROLE_HEADER);
+            priority = role != null ? properties.getRoles().get(role) : null;
+        }
+        if (priority == null) {
+            priority = properties.getDefaultPriority();
+        }
+
+        exchange.getAttributes().put(RequestPriority.ATTRIBUTE, priority);
+        return priority;
+    }
+
+    /**
+     * Appel d'urgence d'une PersonDI vérifiée : exempté du rate limiting, des
+     * quotas et du délestage. Mémorisé dans les attributs de l'échange.
+     */
+    public boolean isEmergency(ServerWebExchange exchange) {
+        Boolean cached = exchange.getAttribute(VERIFIED_EMERGENCY_ATTRIBUTE);
+        if (cached != null) {
+            return cached;
+        }
+        boolean emergency = isEmergencyRoute(exchange.getRequest()) && isEmergencyCaller(exchange.getRequest());
+        exchange.getAttributes().put(VERIFIED_EMERGENCY_ATTRIBUTE, emergency);
+        return emergency;
+    }
+
+    /**
+     * Route d'urgence, quel que soit l'appelant (utilisable avant l'authentification).
+     */
+    public boolean isEmergencyRoute(ServerHttpRequest request) {
+        return classifyRoute(request) == RequestPriority.EMERGENCY;
+    }
+
+    /**
+     * Token valide, non révoqué, de rôle PERSON_DI (claims en cache dans JwtUtil :
+     * pas de seconde vérification de signature dans JwtAuthFilter).
+     */
+    private boolean isEmergencyCaller(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(authHeader);
+        if (header == null || !header.startsWith(tokenPrefix)) {
+            return false;
+        }
+        Optional<JwtClaims> claims = jwtUtil.parseToken(header.substring(tokenPrefix.length()));
+        return claims.isPresent()
+            && EMERGENCY_ROLE.equals(claims.get().simpleRole())
+            && !revocationList.isRevoked(claims.get().tokenId());
+    }
+
+    private static RouteRule parse(LoadSheddingProperties.Route route) {
+        String trimmed = route.getPattern().trim();
+        int space = trimmed.indexOf(' ');
+        if (space > 0 && !trimmed.startsWith("/")) {
+            return new RouteRule(trimmed.substring(0, space).toUpperCase(),
+                trimmed.substring(space + 1).trim(), route.getPriority());
+        }
+        return new RouteRule(ANY_METHOD, trimmed, route.getPriority());
+    }
+
+    private record RouteRule(String method, String pattern, RequestPriority priority) {
+    }
+}
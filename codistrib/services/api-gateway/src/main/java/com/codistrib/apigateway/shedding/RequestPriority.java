@@ -0,0 +1,37 @@
+package com.codistrib.apigateway.shedding;
+
+/**
+ * Classes de requêtes, de la plus prioritaire à la moins prioritaire.
+ *
+ * En surcharge, la gateway rejette d'abord BATCH, puis INTERACTIVE, puis
+ * REAL_TIME. EMERGENCY (SOS d'une PersonDI au token vérifié) n'est jamais
+ * rejetée par le délestage, dans la limite de maxInFlight, et n'est pas
+ * soumise au rate limiting.
+ */
+public enum RequestPriority {
+
+    /**
+     * Appel d'urgence (création d'alerte).
+     */
+    EMERGENCY,
+
+    /**
+     * Suivi d'une alerte en cours (aidants, localisation).
+     */
+    REAL_TIME,
+
+    /**
+     * Navigation normale dans les apps.
+     */
+    INTERACTIVE,
+
+    /**
+     * Tableaux de bord admin, traitements de fond.
+     */
+    BATCH;
+
+    /**
+     * Attribut de l'échange contenant la priorité de la requête.
+     */
+    public static final String ATTRIBUTE = RequestPriority.class.getName();
+}
@@ -0,0 +1,338 @@
+package com.codistrib.apigateway.transcoding;
+
+import com.codistrib.apigateway.codec.ProtobufNegotiation;
+import com.codistrib.apigateway.config.TranscodingProperties;
+import com.codistrib.apigateway.grpc.GrpcCalls;
+import com.codistrib.apigateway.grpc.GrpcChannelRegistry;
+import com.codistrib.apigateway.grpc.GrpcStatusMapper;
+import com.codistrib.apigateway.grpc.RequestDeadline;
+import com.codistrib.apigateway.grpc.balancing.ReplicaHint;
+import com.codistrib.apigateway.grpc.hedging.HedgingExecutor;
+import com.codistrib.apigateway.security.HelperAssignments;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.util.JsonFormat;
+import io.grpc.CallOptions;
+import io.grpc.Deadline;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCalls;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transcodeur générique REST -> gRPC pour une route.
+ *
+ * Le message de requête est construit à partir du descripteur protobuf de
+ * la méthode (aucun code spécifique par endpoint), puis la réponse est
+ * renvoyée en JSON, ou en protobuf binaire si le client le demande
+ * (Accept: application/x-protobuf). Le corps de la requête peut lui aussi
+ * être envoyé en protobuf (Content-Type: application/x-protobuf).
+ *
+ * Une route avec owner n'est servie qu'au propriétaire de la ressource
+ * (X-User-Id), à un ADMINISTRATOR, ou à un HELPER assigné si la route l'autorise.
+ * Avec owner-field, le propriétaire est lu dans la réponse gRPC : le même
+ * contrôle s'applique avant de renvoyer la réponse.
+ */
+@Slf4j
+public class GrpcTranscoder implements HandlerFunction<ServerResponse> {
+
+    private static final JsonFormat.Parser JSON_PARSER = JsonFormat.parser().ignoringUnknownFields();
+    private static final JsonFormat.Printer JSON_PRINTER = JsonFormat.printer().includingDefaultValueFields();
+
+    private static final String ADMINISTRATOR = "ADMINISTRATOR";
+    private static final String HELPER = "HELPER";
+
+    private final TranscodingProperties.Route route;
+    private final MethodDescriptor<Message, Message> method;
+    private final Message requestPrototype;
+    private final GrpcChannelRegistry channels;
+    private final HedgingExecutor hedging;
+    private final HelperAssignments assignments;
+
+    @SuppressWarnings("unchecked")
+    public GrpcTranscoder(TranscodingProperties.Route route,
+                          MethodDescriptor<?, ?> method,
+                          GrpcChannelRegistry channels,
+                          HedgingExecutor hedging,
+                          HelperAssignments assignments) {
+        if (method.getType() != MethodDescriptor.MethodType.UNARY) {
+            throw new IllegalArgumentException("Seules les méthodes unaires sont transcodables: "
+                + method.getFullMethodName());
+        }
+        if (!(method.getRequestMarshaller() instanceof MethodDescriptor.PrototypeMarshaller<?> marshaller)
+            || !(marshaller.getMessagePrototype() instanceof Message prototype)) {
+            throw new IllegalArgumentException("Méthode gRPC sans prototype protobuf: "
+                + method.getFullMethodName());
+        }
+        this.route = route;
+        this.method = (MethodDescriptor<Message, Message>) method;
+        this.requestPrototype = prototype;
+        this.channels = channels;
+        this.hedging = hedging;
+        this.assignments = assignments;
+    }
+
+    @Override
+    public Mono<ServerResponse> handle(ServerRequest request) {
+        if (route.getOwner() == null) {
+            return transcode(request);
+        }
+        return authorize(request, request.pathVariables().get(route.getOwner()))
+            .flatMap(allowed -> allowed ? transcode(request) : forbidden());
+    }
+
+    /**
+     * Contrôle d'appartenance d'une ressource à l'appelant (routes avec owner ou owner-field).
+     */
+    private Mono<Boolean> authorize(ServerRequest request, String ownerId) {
+        String userId = request.headers().firstHeader("X-User-Id");
+        String role = request.headers().firstHeader("X-User-Role");
+        if (userId == null || ownerId == null) {
+            return Mono.just(false);
+        }
+        if (ADMINISTRATOR.equals(role) || userId.equals(ownerId)) {
+            return Mono.just(true);
+        }
+        if (route.isAssignedHelper() && HELPER.equals(role)) {
+            return assignments.isAssigned(userId, ownerId, null);
+        }
+        log.warn("Accès refusé - userId: {}, ressource de {}: {}", userId, ownerId, request.path());
+        return Mono.just(false);
+    }
+
+    private Mono<ServerResponse> transcode(ServerRequest request) {
+        boolean protobuf = ProtobufNegotiation.acceptsProtobuf(request.headers().asHttpHeaders());
+
+        return request.bodyToMono(byte[].class)
+            .defaultIfEmpty(new byte[0])
+            .map(body -> buildMessage(body, request))
+            .flatMap(this::invoke)
+            .flatMap(response -> route.getOwnerField() == null
+                ? respond(response, protobuf)
+                : authorize(request, ownerOf(response))
+                    .flatMap(allowed -> allowed ? respond(response, protobuf) : forbidden()))
+            .onErrorResume(StatusRuntimeException.class, this::onGrpcError)
+            .onErrorResume(IllegalArgumentException.class, e -> onError(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    private Mono<ServerResponse> respond(Message response, boolean protobuf) {
+        return protobuf
+            ? ServerResponse.status(route.getStatus())
+                .contentType(ProtobufNegotiation.APPLICATION_X_PROTOBUF)
+                .bodyValue(response.toByteArray())
+            : ServerResponse.status(route.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(print(response));
+    }
+
+    /**
+     * Propriétaire lu dans la réponse (owner-field, notation pointée), ou null.
+     */
+    private String ownerOf(Message response) {
+        Message current = response;
+        String[] path = route.getOwnerField().split("\\.");
+        for (int i = 0; i < path.length; i++) {
+            FieldDescriptor field = findField(current.getDescriptorForType(), path[i]);
+            if (field == null || field.isRepeated()) {
+                return null;
+            }
+            Object value = current.getField(field);
+            if (i == path.length - 1) {
+                String owner = value.toString();
+                return owner.isEmpty() ? null : owner;
+            }
+            if (!(value instanceof Message message)) {
+                return null;
+            }
+            current = message;
+        }
+        return null;
+    }
+
+    /**
+     * Appelle la méthode gRPC sur le channel partagé, avec le deadline du service
+     * borné par celui de la requête HTTP.
+     * Les méthodes idempotentes (grpc.hedging.methods) peuvent être couvertes
+     * par une seconde tentative, sous le même deadline.
+     */
+    private Mono<Message> invoke(Message message) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = RequestDeadline.within(
+                Deadline.after(channels.deadline(route.getService()).toMillis(), TimeUnit.MILLISECONDS), context);
+            return hedging.execute(route.getService(), method.getFullMethodName(), hint -> {
+                CallOptions options = RequestDeadline.attach(CallOptions.DEFAULT.withDeadline(deadline), context);
+                CallOptions callOptions = hint != null ? options.withOption(ReplicaHint.KEY, hint) : options;
+                return GrpcCalls.toMono(method.getBareMethodName(), () -> ClientCalls.futureUnaryCall(
+                    channels.channel(route.getService()).newCall(method, callOptions), message));
+            });
+        });
+    }
+
+    private Message buildMessage(byte[] body, ServerRequest request) {
+        Message.Builder builder = requestPrototype.newBuilderForType();
+
+        if (body.length > 0) {
+            boolean protobuf = ProtobufNegotiation.isProtobuf(request.headers().contentType().orElse(null));
+            try {
+                if (protobuf) {
+                    builder.mergeFrom(body);
+                } else {
+                    JSON_PARSER.merge(new String(body, StandardCharsets.UTF_8), builder);
+                }
+            } catch (InvalidProtocolBufferException e) {
+                throw new IllegalArgumentException((protobuf ? "Corps protobuf invalide: " : "Corps JSON invalide: ")
+                    + e.getMessage(), e);
+            }
+        }
+
+        request.pathVariables().forEach((name, value) -> setField(builder, name, value, false));
+        request.queryParams().forEach((name, values) -> {
+            if (!values.isEmpty()) {
+                setField(builder, name, values.get(0), false);
+            }
+        });
+
+        // Les bindings explicites passent en dernier : ils écrasent le corps (anti-usurpation)
+        route.getBindings().forEach((field, source) -> setField(builder, field, resolve(source, request), true));
+
+        return builder.build();
+    }
+
+    private String resolve(String source, ServerRequest request) {
+        int colon = source.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalStateException("Binding invalide (attendu type:nom): " + source);
+        }
+        String type = source.substring(0, colon);
+        String name = source.substring(colon + 1);
+        return switch (type) {
+            case "header" -> request.headers().firstHeader(name);
+            case "path" -> request.pathVariables().get(name);
+            case "query" -> request.queryParam(name).orElse(null);
+            default -> throw new IllegalStateException("Source de binding inconnue: " + type);
+        };
+    }
+
+    /**
+     * Affecte une valeur textuelle à un champ scalaire du message.
+     */
+    private void setField(Message.Builder builder, String name, String value, boolean required) {
+        FieldDescriptor field = findField(builder.getDescriptorForType(), name);
+        if (field == null || field.isRepeated() || field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+            if (required) {
+                throw new IllegalStateException("Champ " + name + " absent de " + builder.getDescriptorForType().getFullName());
+            }
+            log.debug("Paramètre {} ignoré pour {}", name, method.getFullMethodName());
+            return;
+        }
+        if (value == null) {
+            if (required) {
+                throw new IllegalArgumentException("Valeur manquante pour " + name);
+            }
+            return;
+        }
+        builder.setField(field, convert(field, value));
+    }
+
+    private Object convert(FieldDescriptor field, String value) {
+        try {
+            return switch (field.getJavaType()) {
+                case STRING -> value;
+                case INT -> Integer.parseInt(value);
+                case LONG -> Long.parseLong(value);
+                case DOUBLE -> Double.parseDouble(value);
+                case FLOAT -> Float.parseFloat(value);
+                case BOOLEAN -> Boolean.parseBoolean(value);
+                case ENUM -> {
+                    EnumValueDescriptor enumValue = field.getEnumType().findValueByName(value.toUpperCase());
+                    if (enumValue == null) {
+                        throw new IllegalArgumentException("Valeur invalide pour " + field.getName() + ": " + value);
+                    }
+                    yield enumValue;
+                }
+                default -> throw new IllegalArgumentException("Type non supporté pour " + field.getName());
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valeur invalide pour " + field.getName() + ": " + value, e);
+        }
+    }
+
+    private static FieldDescriptor findField(Descriptor descriptor, String name) {
+        FieldDescriptor field = descriptor.findFieldByName(name);
+        if (field != null) {
+            return field;
+        }
+        for (FieldDescriptor candidate : descriptor.getFields()) {
+            if (candidate.getJsonName().equals(name)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static String print(Message message) {
+        try {
+            return JSON_PRINTER.print(message);
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException("Réponse gRPC non sérialisable en JSON", e);
+        }
+    }
+
+    private Mono<ServerResponse> onGrpcError(StatusRuntimeException e) {
+        Status status = e.getStatus();
+        String description = status.getDescription() != null
+            ? status.getDescription()
+            : "Une erreur est survenue";
+        HttpStatus httpStatus = GrpcStatusMapper.toHttpStatus(status.getCode());
+        String retryAfter = GrpcStatusMapper.retryAfterSeconds(e);
+
+        return ServerResponse.status(httpStatus)
+            .contentType(MediaType.APPLICATION_JSON)
+            .headers(headers -> {
+                if (retryAfter != null) {
+                    headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+                }
+            })
+            .bodyValue(Map.of(
+                "error", httpStatus.getReasonPhrase(),
+                "message", description,
+                "grpcCode", status.getCode().name()
+            ));
+    }
+
+    private Mono<ServerResponse> forbidden() {
+        return onError(HttpStatus.FORBIDDEN, "Accès refusé à la ressource d'un autre utilisateur");
+    }
+
+    private Mono<ServerResponse> onError(HttpStatus status, String message) {
+        return ServerResponse.status(status)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(Map.of(
+                "error", status.getReasonPhrase(),
+                "message", message != null ? message : status.getReasonPhrase()
+            ));
+    }
+
+    /**
+     * Pour les logs et le diagnostic.
+     */
+    @Override
+    public String toString() {
+        return route.getMethod() + " " + route.getPath() + " -> " + method.getFullMethodName();
+    }
+}
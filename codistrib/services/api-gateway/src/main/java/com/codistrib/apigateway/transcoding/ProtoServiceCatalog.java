@@ -0,0 +1,46 @@
+package com.codistrib.apigateway.transcoding;
+
+import com.codistrib.proto.alert.AlertServiceGrpc;
+import com.codistrib.proto.user.UserServiceGrpc;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServiceDescriptor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalogue des méthodes gRPC exposables via le transcodeur REST.
+ *
+ * Les descripteurs proviennent des classes générées depuis protos/*.proto.
+ * Pour exposer un nouveau service, il suffit de l'ajouter à la liste.
+ */
+@Component
+public class ProtoServiceCatalog {
+
+    private final Map<String, MethodDescriptor<?, ?>> methods = new HashMap<>();
+
+    public ProtoServiceCatalog() {
+        List<ServiceDescriptor> services = List.of(
+            AlertServiceGrpc.getServiceDescriptor(),
+            UserServiceGrpc.getServiceDescriptor()
+        );
+        for (ServiceDescriptor service : services) {
+            for (MethodDescriptor<?, ?> method : service.getMethods()) {
+                methods.put(method.getFullMethodName(), method);
+            }
+        }
+    }
+
+    /**
+     * Retourne la méthode gRPC (ex: com.codistrib.proto.alert.AlertService/GetAlert).
+     */
+    public MethodDescriptor<?, ?> find(String fullMethodName) {
+        MethodDescriptor<?, ?> method = methods.get(fullMethodName);
+        if (method == null) {
+            throw new IllegalArgumentException("Méthode gRPC inconnue: " + fullMethodName);
+        }
+        return method;
+    }
+}
@@ -0,0 +1,172 @@
+package com.codistrib.apigateway.warmup;
+
+import com.codistrib.apigateway.config.WarmupProperties;
+import com.codistrib.apigateway.grpc.GrpcChannelRegistry;
+import com.codistrib.apigateway.loopback.LoopbackClient;
+import com.codistrib.apigateway.security.JwtUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Warm-up de la gateway après le démarrage du serveur.
+ *
+ * Sans warm-up, les premières requêtes après un déploiement paient le
+ * chargement des classes, la compilation JIT et l'ouverture des connexions
+ * gRPC et Redis : le p99 reste dégradé pendant plusieurs minutes. Étapes :
+ * 1. connexion de tous les channels gRPC (tous les replicas)
+ * 2. connexion à Redis (PING)
+ * 3. vérification de tokens JWT synthétiques (chemin avec et sans cache)
+ * 4. requêtes synthétiques sur la boucle locale : Netty, chaîne de filtres,
+ *    scripts Redis, réponse d'erreur JSON
+ *
+ * Un échec n'empêche pas l'instance de devenir prête : il est journalisé et
+ * l'étape suivante est lancée. {@link WarmupHealthIndicator} passe UP à la fin.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GatewayWarmup {
+
+    private static final String SYNTHETIC_ROLE = "HELPER";
+    private static final String SYNTHETIC_CLIENT = "warmup";
+
+    private final WarmupProperties properties;
+    private final GrpcChannelRegistry channels;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final JwtUtil jwtUtil;
+    private final LoopbackClient loopbackClient;
+
+    @Value("${jwt.header}")
+    private String authHeader;
+
+    @Value("${jwt.prefix}")
+    private String tokenPrefix;
+
+    private volatile Report report;
+
+    /**
+     * Résultat du warm-up, ou null tant qu'il est en cours.
+     */
+    public Report report() {
+        return report;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        if (!properties.isEnabled()) {
+            report = new Report(0, List.of(), true);
+            return;
+        }
+
+        long start = System.nanoTime();
+        log.info("Warm-up de la gateway...");
+
+        Mono.zip(
+                connectGrpc(),
+                pingRedis())
+            .flatMap(result -> warmJwt()
+                .then(syntheticTraffic())
+                .thenReturn(result))
+            .timeout(properties.getMaxDuration())
+            .map(result -> new Report(elapsedMs(start), result.getT1(), result.getT2()))
+            .onErrorResume(e -> {
+                log.warn("Warm-up interrompu: {}", e.getMessage());
+                return Mono.just(new Report(elapsedMs(start), List.of(), false));
+            })
+            .subscribe(result -> {
+                report = result;
+                log.info("Warm-up terminé en {}ms - instance prête (gRPC non joignables: {}, Redis: {})",
+                    result.durationMs(), result.grpcNotReady(), result.redisReady() ? "OK" : "KO");
+            });
+    }
+
+    private Mono<List<String>> connectGrpc() {
+        return channels.connectAll(properties.getGrpcConnectTimeout())
+            .doOnNext(notReady -> {
+                if (!notReady.isEmpty()) {
+                    log.warn("Warm-up - services gRPC non joignables: {}", notReady);
+                }
+            });
+    }
+
+    private Mono<Boolean> pingRedis() {
+        return redisTemplate.execute(connection -> connection.ping())
+            .next()
+            .map(pong -> true)
+            .defaultIfEmpty(false)
+            .onErrorResume(e -> {
+                log.warn("Warm-up - Redis injoignable: {}", e.getMessage());
+                return Mono.just(false);
+            });
+    }
+
+    /**
+     * Parcourt le chemin de vérification JWT : d'abord des tokens inconnus
+     * (signature HMAC), puis les mêmes tokens servis par le cache.
+     */
+    private Mono<Void> warmJwt() {
+        return Mono.fromRunnable(() -> {
+                int count = Math.max(1, properties.getJwtTokens());
+                String[] tokens = new String[count];
+                for (int i = 0; i < count; i++) {
+                    tokens[i] = jwtUtil.signSyntheticToken(SYNTHETIC_CLIENT + "-" + i, SYNTHETIC_ROLE,
+                        Duration.ofMinutes(1));
+                }
+                for (int i = 0; i < properties.getJwtIterations(); i++) {
+                    jwtUtil.parseToken(tokens[i % count]);
+                }
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .then();
+    }
+
+    /**
+     * Requêtes authentifiées vers la gateway elle-même.
+     */
+    private Mono<Void> syntheticTraffic() {
+        WebClient client = loopbackClient.webClient();
+        if (client == null || properties.getRequests() <= 0 || properties.getPaths().isEmpty()) {
+            return Mono.empty();
+        }
+
+        String token = tokenPrefix + jwtUtil.signSyntheticToken(SYNTHETIC_CLIENT, SYNTHETIC_ROLE, Duration.ofMinutes(5));
+        List<String> paths = properties.getPaths();
+
+        return Flux.range(0, properties.getRequests())
+            .flatMap(i -> client.get()
+                .uri(paths.get(i % paths.size()))
+                .header(authHeader, token)
+                // Clé de rate limiting distincte du trafic réel venant de la boucle locale
+                .header("X-Forwarded-For", SYNTHETIC_CLIENT)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchangeToMono(response -> response.releaseBody())
+                .onErrorResume(e -> Mono.empty()),
+                Math.max(1, properties.getConcurrency()))
+            .then();
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * @param durationMs   durée du warm-up
+     * @param grpcNotReady services gRPC dont un replica n'a pas répondu
+     * @param redisReady   true si Redis a répondu au PING
+     */
+    public record Report(long durationMs, List<String> grpcNotReady, boolean redisReady) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.codistrib.apigateway.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indicateur "warmup" : OUT_OF_SERVICE tant que {@link GatewayWarmup} n'a pas terminé.
+ *
+ * Inclus dans /actuator/health et dans le groupe readiness.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final GatewayWarmup warmup;
+
+    @Override
+    public Health health() {
+        GatewayWarmup.Report report = warmup.report();
+        if (report == null) {
+            return Health.outOfService().withDetail("warmup", "en cours").build();
+        }
+        return Health.up()
+            .withDetail("durationMs", report.durationMs())
+            .withDetail("grpcNotReady", report.grpcNotReady())
+            .withDetail("redis", report.redisReady())
+            .build();
+    }
+}
@@ -0,0 +1,46 @@
+-- Token bucket atomique (un seul aller-retour Redis par requête).
+--
+-- KEYS[1] : clé du bucket (hash : tokens, ts)
+-- ARGV[1] : débit de remplissage (jetons / seconde)
+-- ARGV[2] : capacité du bucket (burst)
+-- ARGV[3] : nombre de jetons demandés (1 par requête, ou un lot pour le cache local)
+--
+-- Retourne { jetons accordés (0..demandés), jetons restants, délai avant nouvel essai en ms }
+-- Un lot peut être accordé partiellement s'il reste moins de jetons que demandé.
+
+local key = KEYS[1]
+local rate = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+-- Horloge Redis : identique pour toutes les instances de la gateway
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', key, 'tokens', 'ts')
+local tokens = tonumber(state[1])
+local ts = tonumber(state[2])
+
+if tokens == nil or ts == nil then
+  tokens = capacity
+  ts = now
+end
+
+local elapsed = math.max(0, now - ts)
+tokens = math.min(capacity, tokens + (elapsed * rate / 1000))
+
+local granted = math.min(requested, math.floor(tokens))
+local retry_after = 0
+
+if granted >= 1 then
+  tokens = tokens - granted
+else
+  granted = 0
+  retry_after = math.ceil((1 - tokens) * 1000 / rate)
+end
+
+redis.call('HSET', key, 'tokens', tostring(tokens), 'ts', tostring(now))
+-- Le bucket disparaît une fois plein (temps de remplissage complet + marge)
+redis.call('PEXPIRE', key, math.ceil(capacity * 1000 / rate) + 1000)
+
+return { granted, math.floor(tokens), retry_after }
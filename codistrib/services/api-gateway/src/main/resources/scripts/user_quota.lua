@@ -0,0 +1,49 @@
+-- Quota par utilisateur en fenêtre glissante approchée (un seul aller-retour Redis).
+--
+-- KEYS[1] : hash des compteurs de l'utilisateur (champ "<classe>:<fenêtre>" -> nombre de requêtes)
+-- ARGV[1] : classe de route
+-- ARGV[2] : limite (requêtes par fenêtre)
+-- ARGV[3] : durée de la fenêtre en ms
+--
+-- Retourne { 1 si acceptée sinon 0, requêtes restantes, délai avant nouvel essai en ms }
+-- Estimation : compteur courant + compteur précédent pondéré par la part de la
+-- fenêtre précédente encore couverte. Seuls deux champs par classe sont conservés.
+
+local key = KEYS[1]
+local class = ARGV[1]
+local limit = tonumber(ARGV[2])
+local window = tonumber(ARGV[3])
+
+-- Horloge Redis : identique pour toutes les instances de la gateway
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local bucket = math.floor(now / window)
+local elapsed = now - bucket * window
+local current_field = class .. ':' .. bucket
+local previous_field = class .. ':' .. (bucket - 1)
+
+local counts = redis.call('HMGET', key, current_field, previous_field)
+local current = tonumber(counts[1]) or 0
+local previous = tonumber(counts[2]) or 0
+local estimated = current + previous * (window - elapsed) / window
+
+if estimated + 1 > limit then
+  local retry_after
+  local room = limit - 1 - current
+  if room < 0 or previous == 0 then
+    -- Fenêtre courante pleine : attendre la suivante
+    retry_after = window - elapsed
+  else
+    -- Attendre que la part de la fenêtre précédente ait assez diminué
+    retry_after = math.ceil(window - room * window / previous - elapsed)
+  end
+  return { 0, 0, math.max(1, retry_after) }
+end
+
+redis.call('HINCRBY', key, current_field, 1)
+redis.call('HDEL', key, class .. ':' .. (bucket - 2))
+-- Le hash disparaît après deux fenêtres sans requête
+redis.call('PEXPIRE', key, 2 * window + 1000)
+
+return { 1, math.max(0, math.floor(limit - estimated - 1)), 0 }
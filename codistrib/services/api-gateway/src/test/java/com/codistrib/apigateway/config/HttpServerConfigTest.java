@@ -0,0 +1,71 @@
+package com.codistrib.apigateway.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HTTP/2 en clair (h2c, prior knowledge) sur le serveur Netty de la gateway.
+ *
+ * Les services gRPC et Redis ne sont pas démarrés : la requête vers
+ * /actuator/health/liveness ne dépend d'aucun des deux.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "JWT_SECRET=test-secret-key-test-secret-key-0123456789",
+        "REDIS_HOST=localhost",
+        "REDIS_PORT=6379",
+        "REDIS_PASSWORD=",
+        "API_GATEWAY_PORT=0",
+        "AUTH_SERVICE_PORT=19001",
+        "USER_SERVICE_PORT=19002",
+        "MESSAGING_SERVICE_PORT=19003",
+        "LOCATION_SERVICE_PORT=19004",
+        "ALERT_SERVICE_PORT=19005",
+        "NOTIFICATION_SERVICE_PORT=19006",
+        "warmup.enabled=false",
+        "revocation.enabled=false",
+        "realtime.enabled=false"
+    })
+class HttpServerConfigTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void servesHttp2OverCleartext() {
+        HttpVersion version = HttpClient.create()
+            .protocol(HttpProtocol.H2C)
+            .port(port)
+            .get()
+            .uri("/actuator/health/liveness")
+            .responseSingle((response, body) -> body.then(Mono.just(response.version())))
+            .block(Duration.ofSeconds(10));
+
+        assertThat(version).isNotNull();
+        assertThat(version.text()).isEqualTo("HTTP/2.0");
+    }
+
+    @Test
+    void registersStreamsPerConnectionGauge() {
+        Gauge gauge = meterRegistry.find("gateway.http2.streams_per_connection").gauge();
+
+        assertThat(gauge).isNotNull();
+        assertThat(gauge.value()).isGreaterThanOrEqualTo(0);
+    }
+}
@@ -7,6 +7,7 @@ import com.codistrib.authservice.service.impl.AuthDomainService.TokenClaimsDto;
 import com.codistrib.proto.auth.*; // généré par protoc
 import io.grpc.Status;
 import io.grpc.StatusException;
+import io.grpc.StatusRuntimeException;
 import jakarta.validation.ConstraintViolationException;
 import net.devh.boot.grpc.server.service.GrpcService;
 import io.grpc.stub.StreamObserver;
@@ -58,6 +59,10 @@ public class AuthGrpcService extends AuthServiceGrpc.AuthServiceImplBase {
     }
 
     private StatusException toStatus(RuntimeException e) {
+        if (e instanceof StatusRuntimeException sre) {
+            // Budget de temps épuisé (DeadlineBudget) : le code gRPC est conservé
+            return sre.getStatus().asException();
+        }
         if (e instanceof ConstraintViolationException cve) {
             String msg = cve.getConstraintViolations().stream()
                     .map(v -> v.getPropertyPath() + ": " + v.getMessage())
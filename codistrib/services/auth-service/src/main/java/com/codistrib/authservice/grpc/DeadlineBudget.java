@@ -0,0 +1,45 @@
+package com.codistrib.authservice.grpc;
+
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Status;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps restant de l'appel gRPC en cours.
+ *
+ * Le deadline de l'appelant (api-gateway, user-service) arrive avec l'appel
+ * (en-tête grpc-timeout) et est porté par le {@link Context} gRPC. Avant un
+ * travail coûteux, on vérifie qu'il reste assez de temps : sinon le résultat
+ * serait calculé pour un appelant qui ne l'attend plus.
+ */
+public final class DeadlineBudget {
+
+    private DeadlineBudget() {
+    }
+
+    /**
+     * @param needed    temps minimal nécessaire à l'opération
+     * @param operation nom de l'opération (pour le message d'erreur)
+     * @throws io.grpc.StatusRuntimeException DEADLINE_EXCEEDED ou CANCELLED
+     */
+    public static void require(Duration needed, String operation) {
+        Context context = Context.current();
+        if (context.isCancelled()) {
+            throw Status.CANCELLED.withDescription(operation + " abandonné : appel annulé").asRuntimeException();
+        }
+        Deadline deadline = context.getDeadline();
+        if (deadline == null) {
+            return;
+        }
+        long remainingMs = deadline.timeRemaining(TimeUnit.MILLISECONDS);
+        if (remainingMs < needed.toMillis()) {
+            throw Status.DEADLINE_EXCEEDED
+                .withDescription(operation + " abandonné : " + Math.max(0, remainingMs) + "ms restantes, "
+                    + needed.toMillis() + "ms nécessaires")
+                .asRuntimeException();
+        }
+    }
+}
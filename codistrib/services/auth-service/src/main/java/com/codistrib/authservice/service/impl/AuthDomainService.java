@@ -7,6 +7,7 @@ import com.codistrib.authservice.domain.repository.RefreshTokenRepository;
 import com.codistrib.authservice.domain.repository.UserAuthRepository;
 import com.codistrib.authservice.dto.AuthDtos.*;
 import com.codistrib.authservice.exception.*;
+import com.codistrib.authservice.grpc.DeadlineBudget;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import jakarta.validation.ConstraintViolation;
@@ -37,6 +38,8 @@ public class AuthDomainService {
 
     @Value("${jwt.refresh-token-validity-seconds}") private long refreshValidity;
     @Value("${jwt.access-token-validity-seconds}") private long accessValidity;
+    // Temps restant minimal (deadline de l'appelant) pour lancer un calcul BCrypt
+    @Value("${bcrypt.min-remaining:150ms}") private Duration bcryptMinRemaining;
 
     public AuthDomainService(Validator validator, UserAuthRepository users, RefreshTokenRepository refreshTokens,
                              PasswordEncoder encoder, JwtService jwt, TokenBlacklistService blacklist) {
@@ -51,6 +54,7 @@ public class AuthDomainService {
 
     public TokenPair register(RegisterCmd cmd) {
         assertValid(cmd);
+        DeadlineBudget.require(bcryptMinRemaining, "Register");
 
         users.findByEmailIgnoreCase(cmd.email()).ifPresent(u -> { throw new ConflictException("email already used");});
         users.findByUsernameIgnoreCase(cmd.username()).ifPresent(u -> { throw new ConflictException("username already used");});
@@ -58,6 +62,7 @@ public class AuthDomainService {
         UserAuth user = new UserAuth();
         user.setEmail(cmd.email());
         user.setUsername(cmd.username());
+        DeadlineBudget.require(bcryptMinRemaining, "Register");
         user.setPasswordHash(encoder.encode(cmd.password()));
         user.setRole(cmd.role() == null ? UserRole.ROLE_PERSON_DI : cmd.role());
 
@@ -66,6 +71,8 @@ public class AuthDomainService {
     }
 
     public TokenPair login(LoginCmd cmd) {
+        DeadlineBudget.require(bcryptMinRemaining, "Login");
+
         UserAuth user = users.findByEmailIgnoreCase(cmd.identifier())
                 .or(() -> users.findByUsernameIgnoreCase(cmd.identifier()))
                 .orElseThrow(() -> new UnauthorizedException("invalid credentials"));
@@ -73,6 +80,8 @@ public class AuthDomainService {
         if (!user.isActive() || user.isLocked())
             throw new ForbiddenException("account disabled or locked");
 
+        // Les requêtes en base ont pu consommer le budget : on revérifie avant BCrypt
+        DeadlineBudget.require(bcryptMinRemaining, "Login");
         if (!encoder.matches(cmd.password(), user.getPasswordHash())) {
             // handleFailedAttempt(user);
             throw new UnauthorizedException("invalid credentials");
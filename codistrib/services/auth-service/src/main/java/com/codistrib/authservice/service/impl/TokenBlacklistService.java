@@ -4,20 +4,31 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.Instant;
 
 @Service
 public class TokenBlacklistService {
 
+    // Index des jti révoqués (score = expiration en ms), relu par l'api-gateway au démarrage
+    public static final String REVOKED_INDEX_KEY = "auth:revoked";
+    // Canal pub/sub : "<jti>:<expiration ms>" à chaque révocation
+    public static final String REVOCATION_CHANNEL = "auth:revocations";
+
     private final StringRedisTemplate redis;
 
     public TokenBlacklistService(StringRedisTemplate redis) { this.redis = redis; }
 
-    // Ajoute le token dans la liste noire
+    // Ajoute le token dans la liste noire et notifie les api-gateway
     public void blacklist(String jti, Duration ttl) {
         if (jti == null || ttl == null || ttl.isNegative() || ttl.isZero())
             return;
         try {
+            long now = Instant.now().toEpochMilli();
+            long expiresAt = now + ttl.toMillis();
             redis.opsForValue().set("auth:blacklist:" + jti, "1", ttl);
+            redis.opsForZSet().add(REVOKED_INDEX_KEY, jti, expiresAt);
+            redis.opsForZSet().removeRangeByScore(REVOKED_INDEX_KEY, 0, now); // purge des tokens déjà expirés
+            redis.convertAndSend(REVOCATION_CHANNEL, jti + ":" + expiresAt);
         }
         catch (Exception e) { /* log.warn("Redis indisponible pour blacklist", e); */ }
     }
@@ -29,4 +40,4 @@ public class TokenBlacklistService {
         }
         catch (Exception e) { /* log.warn("Redis indisponible pour check blacklist", e); */ return false; }
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package com.codistrib.userservice.grpc;
 import com.codistrib.proto.auth.*;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,7 +11,9 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
@@ -22,6 +25,9 @@ public class AuthServiceGrpcClient {
     @Value("${grpc.client.auth-service.port}")
     private int authServicePort;
 
+    @Value("${grpc.client.auth-service.deadline:5s}")
+    private Duration deadline;
+
     private ManagedChannel channel;
     private AuthServiceGrpc.AuthServiceBlockingStub authServiceStub;
 
@@ -47,6 +53,16 @@ public class AuthServiceGrpcClient {
         }
     }
 
+    /**
+     * Stub avec le deadline du service. gRPC retient le plus proche entre ce
+     * deadline et celui de l'appel gRPC en cours de traitement (Context) :
+     * le deadline de l'api-gateway se propage ainsi jusqu'à Auth Service,
+     * qui refuse lui-même un Register sans assez de temps pour BCrypt.
+     */
+    private AuthServiceGrpc.AuthServiceBlockingStub stub() {
+        return authServiceStub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Créer des credentials pour une PersonDI via l'endpoint Register
      */
@@ -61,7 +77,7 @@ public class AuthServiceGrpcClient {
                     .setRole(UserRole.ROLE_PERSON_DI)
                     .build();
             
-            TokenResponse response = authServiceStub.register(request);
+            TokenResponse response = stub().register(request);
             
             UUID authId = UUID.fromString(response.getUserId());
             log.info("Credentials créés avec succès via Auth Service: authId={}", authId);
@@ -69,6 +85,11 @@ public class AuthServiceGrpcClient {
             return authId;
             
         } catch (StatusRuntimeException e) {
+            if (isDeadlineOrCancelled(e)) {
+                // Budget de l'appelant épuisé : le statut remonte tel quel (504 côté api-gateway)
+                log.warn("Register abandonné: {}", e.getStatus());
+                throw e;
+            }
             log.error("Erreur gRPC lors de la création de credentials: {}", e.getStatus());
             throw new RuntimeException("Erreur lors de la création des credentials dans Auth Service: " + 
                     e.getStatus().getDescription(), e);
@@ -89,11 +110,20 @@ public class AuthServiceGrpcClient {
                     .setAccessToken(accessToken)
                     .build();
             
-            return authServiceStub.validateToken(request);
+            return stub().validateToken(request);
             
         } catch (StatusRuntimeException e) {
             log.error("Erreur gRPC lors de la validation du token: {}", e.getStatus());
             throw new RuntimeException("Erreur lors de la validation du token", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Deadline dépassé ou appel annulé : à propager sans l'envelopper.
+     */
+    public static boolean isDeadlineOrCancelled(Throwable e) {
+        return e instanceof StatusRuntimeException statusException
+            && (statusException.getStatus().getCode() == Status.Code.DEADLINE_EXCEEDED
+                || statusException.getStatus().getCode() == Status.Code.CANCELLED);
+    }
+}
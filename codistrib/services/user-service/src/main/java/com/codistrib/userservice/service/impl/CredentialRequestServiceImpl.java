@@ -11,6 +11,7 @@ import com.codistrib.userservice.grpc.AuthServiceGrpcClient;
 import com.codistrib.userservice.service.CredentialRequestService;
 import com.codistrib.userservice.service.PersonDIService;
 import com.codistrib.userservice.service.UserService;
+import io.grpc.StatusRuntimeException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -415,6 +416,9 @@ public class CredentialRequestServiceImpl implements CredentialRequestService {
             return authId;
             
         } catch (Exception e) {
+            if (AuthServiceGrpcClient.isDeadlineOrCancelled(e)) {
+                throw (StatusRuntimeException) e;
+            }
             log.error("❌ Erreur lors de la création des credentials dans Auth Service: {}", 
                     e.getMessage(), e);
             throw new RuntimeException("Impossible de créer les credentials dans Auth Service. " +